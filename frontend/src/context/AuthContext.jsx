@@ -32,6 +32,8 @@ export function AuthProvider({ children }) {
   const login = async (email, password) => {
     const res = await authAPI.login({ email, password });
     localStorage.setItem('token', res.data.token);
+    if (res.data.refreshToken) localStorage.setItem('refreshToken', res.data.refreshToken);
+    else localStorage.removeItem('refreshToken');
     await loadUser();
   };
 
@@ -41,6 +43,7 @@ export function AuthProvider({ children }) {
 
   const logout = () => {
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     setUser(null);
   };
 
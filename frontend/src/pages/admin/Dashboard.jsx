@@ -1,10 +1,10 @@
 import { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { categoryAPI, productAPI, userAPI, orderAPI } from '../../services/api';
-import { FolderTree, Package, Users, ShoppingCart, TrendingUp } from 'lucide-react';
+import { categoryAPI, productAPI, userAPI, analyticsAPI } from '../../services/api';
+import { FolderTree, Package, Users, ShoppingCart, TrendingUp, DollarSign } from 'lucide-react';
 
 export default function AdminDashboard() {
-  const [stats, setStats] = useState({ categories: 0, products: 0, users: 0, orders: 0 });
+  const [stats, setStats] = useState({ categories: 0, products: 0, users: 0, orders: 0, revenue: 0, ordersByStatus: {}, topProducts: [] });
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
@@ -13,17 +13,20 @@ export default function AdminDashboard() {
 
   const loadStats = async () => {
     try {
-      const [cat, prod, usr, ord] = await Promise.all([
+      const [cat, prod, usr, kpi] = await Promise.all([
         categoryAPI.list(),
-        productAPI.list(),
+        productAPI.count(),
         userAPI.listAll(),
-        orderAPI.allOrders().catch(() => ({ data: [] })),
+        analyticsAPI.marketplace(30).catch(() => ({ data: {} })),
       ]);
       setStats({
         categories: cat.data.length,
-        products: prod.data.length,
+        products: prod.data.count,
         users: usr.data.length,
-        orders: ord.data.length,
+        orders: kpi.data.totalOrders || 0,
+        revenue: kpi.data.totalRevenue || 0,
+        ordersByStatus: kpi.data.ordersByStatus || {},
+        topProducts: kpi.data.topProducts || [],
       });
     } catch (e) {
       console.error(e);
@@ -37,6 +40,7 @@ export default function AdminDashboard() {
     { label: 'Products', value: stats.products, icon: Package, color: 'bg-green-500', to: '/admin/products' },
     { label: 'Users', value: stats.users, icon: Users, color: 'bg-purple-500', to: '/admin/users' },
     { label: 'Orders', value: stats.orders, icon: ShoppingCart, color: 'bg-orange-500', to: '/admin/orders' },
+    { label: 'Revenue', value: `Rs. ${Number(stats.revenue).toLocaleString()}`, icon: DollarSign, color: 'bg-yellow-500', to: '/admin/orders' },
   ];
 
   return (
@@ -46,7 +50,7 @@ export default function AdminDashboard() {
         <p className="text-gray-500">System overview and management</p>
       </div>
 
-      <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-4 gap-6 mb-8">
+      <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-5 gap-6 mb-8">
         {cards.map((c) => (
           <Link key={c.label} to={c.to} className="bg-white rounded-xl p-6 shadow-sm border hover:shadow-md transition-shadow">
             <div className="flex items-center justify-between">
@@ -62,6 +66,37 @@ export default function AdminDashboard() {
         ))}
       </div>
 
+      {!loading && (
+        <div className="grid grid-cols-1 lg:grid-cols-2 gap-6 mb-8">
+          <div className="bg-white rounded-xl p-6 shadow-sm border">
+            <h2 className="text-lg font-semibold mb-4">Orders by Status</h2>
+            <div className="space-y-2">
+              {Object.entries(stats.ordersByStatus).map(([status, count]) => (
+                <div key={status} className="flex justify-between text-sm">
+                  <span className="text-gray-600">{status}</span>
+                  <span className="font-medium">{count}</span>
+                </div>
+              ))}
+            </div>
+          </div>
+          <div className="bg-white rounded-xl p-6 shadow-sm border">
+            <h2 className="text-lg font-semibold mb-4">Top Products</h2>
+            {stats.topProducts.length === 0 ? (
+              <p className="text-sm text-gray-500">No sales yet</p>
+            ) : (
+              <div className="space-y-2">
+                {stats.topProducts.map((p) => (
+                  <div key={p.productId} className="flex justify-between text-sm">
+                    <span className="text-gray-600">{p.productName}</span>
+                    <span className="font-medium">{p.unitsSold} units · Rs. {Number(p.revenue).toLocaleString()}</span>
+                  </div>
+                ))}
+              </div>
+            )}
+          </div>
+        </div>
+      )}
+
       <div className="bg-white rounded-xl p-6 shadow-sm border">
         <h2 className="text-lg font-semibold mb-4">Quick Actions</h2>
         <div className="grid grid-cols-2 sm:grid-cols-4 gap-4">
@@ -1,19 +1,28 @@
 import { useState, useEffect } from 'react';
 import { orderAPI } from '../../services/api';
-import { ShoppingCart, Clock, CheckCircle, Truck, Package, XCircle, Loader2, AlertCircle, CreditCard, User, Store, ChevronDown, ChevronUp } from 'lucide-react';
+import { ShoppingCart, Clock, CheckCircle, Truck, Package, XCircle, Loader2, AlertCircle, CreditCard, User, Store, ChevronDown, ChevronUp, Download } from 'lucide-react';
+
+const PAGE_SIZE = 50;
 
 export default function AdminOrders() {
   const [orders, setOrders] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [expanded, setExpanded] = useState({});
+  const [filters, setFilters] = useState({ status: '', from: '', to: '' });
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [exporting, setExporting] = useState(false);
 
-  useEffect(() => { loadOrders(); }, []);
+  useEffect(() => { loadOrders(); }, [filters]);
 
   const loadOrders = async () => {
+    setLoading(true);
+    setError('');
     try {
-      const res = await orderAPI.allOrders();
+      const res = await orderAPI.allOrders(filters, { limit: PAGE_SIZE });
       setOrders(res.data);
+      setNextCursor(res.headers['x-next-cursor'] || null);
     } catch (e) {
       setError('Failed to load orders');
     } finally {
@@ -21,6 +30,38 @@ export default function AdminOrders() {
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const res = await orderAPI.allOrders(filters, { limit: PAGE_SIZE, after: nextCursor });
+      setOrders(prev => [...prev, ...res.data]);
+      setNextCursor(res.headers['x-next-cursor'] || null);
+    } catch (e) {
+      setError('Failed to load more orders');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  const exportOrders = async () => {
+    setExporting(true);
+    try {
+      const res = await orderAPI.exportOrders(filters);
+      const url = URL.createObjectURL(res.data);
+      const a = document.createElement('a');
+      a.href = url;
+      a.download = 'orders.json';
+      a.click();
+      URL.revokeObjectURL(url);
+    } catch (e) {
+      setError('Failed to export orders');
+    } finally {
+      setExporting(false);
+    }
+  };
+
+  const setFilter = (key, value) => setFilters(prev => ({ ...prev, [key]: value }));
+
   const toggleExpand = (id) => setExpanded(prev => ({ ...prev, [id]: !prev[id] }));
 
   const getStatusBadge = (status) => {
@@ -45,6 +86,7 @@ export default function AdminOrders() {
       PENDING: 'bg-yellow-100 text-yellow-700',
       SUCCESS: 'bg-green-100 text-green-700',
       FAILED: 'bg-red-100 text-red-700',
+      REFUND_DUE: 'bg-orange-100 text-orange-700',
     };
     return (
       <span className={`inline-flex items-center gap-1 px-2 py-1 text-xs font-medium rounded ${styles[payment.status] || styles.PENDING}`}>
@@ -62,12 +104,33 @@ export default function AdminOrders() {
         <p className="text-gray-500">View all orders with complete buyer, seller, and payment details</p>
       </div>
 
+      <div className="mb-6 bg-white rounded-xl shadow-sm border p-4 flex flex-wrap items-end gap-4">
+        <div>
+          <label className="block text-xs text-gray-500 mb-1">Status</label>
+          <select value={filters.status} onChange={(e) => setFilter('status', e.target.value)} className="px-3 py-2 border rounded-lg text-sm">
+            <option value="">All</option>
+            {['CREATED', 'PAID', 'SHIPPED', 'DELIVERED', 'CANCELLED'].map(s => <option key={s} value={s}>{s}</option>)}
+          </select>
+        </div>
+        <div>
+          <label className="block text-xs text-gray-500 mb-1">From</label>
+          <input type="date" value={filters.from} onChange={(e) => setFilter('from', e.target.value)} className="px-3 py-2 border rounded-lg text-sm" />
+        </div>
+        <div>
+          <label className="block text-xs text-gray-500 mb-1">To</label>
+          <input type="date" value={filters.to} onChange={(e) => setFilter('to', e.target.value)} className="px-3 py-2 border rounded-lg text-sm" />
+        </div>
+        <button onClick={exportOrders} disabled={exporting} className="ml-auto inline-flex items-center gap-2 px-4 py-2 bg-purple-600 text-white rounded-lg text-sm hover:bg-purple-700 disabled:opacity-50">
+          {exporting ? <Loader2 className="w-4 h-4 animate-spin" /> : <Download className="w-4 h-4" />} Export
+        </button>
+      </div>
+
       {error && <div className="mb-4 p-4 bg-red-50 border border-red-200 rounded-lg flex items-center gap-2"><AlertCircle className="w-5 h-5 text-red-500" /><span className="text-red-600">{error}</span></div>}
 
       {loading ? (
         <div className="p-12 text-center"><Loader2 className="w-8 h-8 animate-spin mx-auto text-gray-400" /></div>
       ) : orders.length === 0 ? (
-        <div className="bg-white rounded-xl p-12 text-center shadow-sm border text-gray-500">No orders yet</div>
+        <div className="bg-white rounded-xl p-12 text-center shadow-sm border text-gray-500">No orders found</div>
       ) : (
         <div className="space-y-4">
           {orders.map((order) => (
@@ -148,6 +211,13 @@ export default function AdminOrders() {
               )}
             </div>
           ))}
+          {nextCursor && (
+            <div className="text-center">
+              <button onClick={loadMore} disabled={loadingMore} className="px-4 py-2 border rounded-lg text-sm hover:bg-gray-50 disabled:opacity-50">
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>
@@ -2,8 +2,12 @@ import { useState, useEffect } from 'react';
 import { productAPI, categoryAPI } from '../../services/api';
 import { Package, Search, Trash2, Loader2, AlertCircle, CheckCircle, XCircle } from 'lucide-react';
 
+const PAGE_SIZE = 50;
+
 export default function AdminProducts() {
   const [products, setProducts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [categories, setCategories] = useState([]);
   const [loading, setLoading] = useState(true);
   const [deleting, setDeleting] = useState(null);
@@ -12,20 +16,41 @@ export default function AdminProducts() {
   const [search, setSearch] = useState('');
   const [catFilter, setCatFilter] = useState('');
 
-  useEffect(() => { loadData(); }, []);
+  useEffect(() => {
+    categoryAPI.list().then(res => setCategories(res.data)).catch(() => setError('Failed to load categories'));
+  }, []);
+
+  // Search and category filtering run on the server, a page at a time; debounce so typing doesn't fire a request per key
+  useEffect(() => {
+    const t = setTimeout(loadProducts, 250);
+    return () => clearTimeout(t);
+  }, [search, catFilter]);
 
-  const loadData = async () => {
+  const loadProducts = async () => {
     try {
-      const [prod, cat] = await Promise.all([productAPI.list(), categoryAPI.list()]);
+      const prod = await productAPI.list(catFilter || null, search.trim() || null, { limit: PAGE_SIZE });
       setProducts(prod.data);
-      setCategories(cat.data);
+      setNextCursor(prod.headers['x-next-cursor'] || null);
     } catch (e) {
-      setError('Failed to load data');
+      setError('Failed to load products');
     } finally {
       setLoading(false);
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const prod = await productAPI.list(catFilter || null, search.trim() || null, { limit: PAGE_SIZE, after: nextCursor });
+      setProducts(prev => [...prev, ...prod.data]);
+      setNextCursor(prod.headers['x-next-cursor'] || null);
+    } catch (e) {
+      setError('Failed to load more products');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (product) => {
     if (!confirm(`Remove product "${product.name}"?`)) return;
     setDeleting(product.id);
@@ -42,12 +67,6 @@ export default function AdminProducts() {
     }
   };
 
-  const filtered = products.filter(p => {
-    if (catFilter && p.categoryId !== parseInt(catFilter)) return false;
-    if (search && !p.name.toLowerCase().includes(search.toLowerCase())) return false;
-    return true;
-  });
-
   return (
     <div>
       <div className="mb-6">
@@ -78,7 +97,7 @@ export default function AdminProducts() {
       <div className="bg-white rounded-xl shadow-sm border overflow-hidden">
         {loading ? (
           <div className="p-12 text-center"><Loader2 className="w-8 h-8 animate-spin mx-auto text-gray-400" /></div>
-        ) : filtered.length === 0 ? (
+        ) : products.length === 0 ? (
           <div className="p-12 text-center text-gray-500">No products found</div>
         ) : (
           <div className="overflow-x-auto">
@@ -94,7 +113,7 @@ export default function AdminProducts() {
                 </tr>
               </thead>
               <tbody className="divide-y">
-                {filtered.map((p) => (
+                {products.map((p) => (
                   <tr key={p.id} className="hover:bg-gray-50">
                     <td className="px-6 py-4">
                       <div className="flex items-center gap-3">
@@ -132,6 +151,14 @@ export default function AdminProducts() {
           </div>
         )}
       </div>
+
+      {!loading && nextCursor && (
+        <div className="mt-6 text-center">
+          <button onClick={loadMore} disabled={loadingMore} className="px-4 py-2 border rounded-lg text-sm hover:bg-gray-50 disabled:opacity-50">
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
@@ -1,9 +1,13 @@
 import { useState, useEffect } from 'react';
 import { productAPI, categoryAPI } from '../../services/api';
-import { Package, Search, ShoppingCart, Loader2, Filter } from 'lucide-react';
+import { Package, Search, ShoppingCart, Loader2, Filter, Star } from 'lucide-react';
+
+const PAGE_SIZE = 48;
 
 export default function BuyerBrowse() {
   const [products, setProducts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [categories, setCategories] = useState([]);
   const [loading, setLoading] = useState(true);
   const [search, setSearch] = useState('');
@@ -14,17 +18,25 @@ export default function BuyerBrowse() {
   });
   const [added, setAdded] = useState(null);
 
-  useEffect(() => { loadData(); }, []);
+  useEffect(() => {
+    categoryAPI.list().then(res => setCategories(res.data)).catch(console.error);
+  }, []);
+
+  // Search and category filtering run on the server; debounce so typing doesn't fire a request per key
+  useEffect(() => {
+    const t = setTimeout(loadProducts, 250);
+    return () => clearTimeout(t);
+  }, [search, catFilter]);
 
   useEffect(() => {
     localStorage.setItem('cart', JSON.stringify(cart));
   }, [cart]);
 
-  const loadData = async () => {
+  const loadProducts = async () => {
     try {
-      const [prod, cat] = await Promise.all([productAPI.list(), categoryAPI.list()]);
+      const prod = await productAPI.list(catFilter || null, search.trim() || null, { limit: PAGE_SIZE });
       setProducts(prod.data);
-      setCategories(cat.data);
+      setNextCursor(prod.headers['x-next-cursor'] || null);
     } catch (e) {
       console.error(e);
     } finally {
@@ -32,6 +44,19 @@ export default function BuyerBrowse() {
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const prod = await productAPI.list(catFilter || null, search.trim() || null, { limit: PAGE_SIZE, after: nextCursor });
+      setProducts(prev => [...prev, ...prod.data]);
+      setNextCursor(prod.headers['x-next-cursor'] || null);
+    } catch (e) {
+      console.error(e);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const addToCart = (product) => {
     const existing = cart.find(c => c.productId === product.id);
     if (existing) {
@@ -43,11 +68,7 @@ export default function BuyerBrowse() {
     setTimeout(() => setAdded(null), 1500);
   };
 
-  const filtered = products.filter(p => {
-    if (catFilter && p.categoryId !== parseInt(catFilter)) return false;
-    if (search && !p.name.toLowerCase().includes(search.toLowerCase())) return false;
-    return true;
-  });
+  const filtered = products;
 
   const cartCount = cart.reduce((sum, c) => sum + c.quantity, 0);
 
@@ -109,7 +130,16 @@ export default function BuyerBrowse() {
                     {p.stockQty > 0 ? `${p.stockQty} in stock` : 'Out of stock'}
                   </span>
                 </div>
-                <p className="text-xs text-gray-400 mb-3">Seller: {p.sellerName}</p>
+                <div className="flex items-center justify-between text-xs text-gray-400 mb-3">
+                  <span>Seller: {p.sellerName}</span>
+                  {p.rating?.count > 0 ? (
+                    <span className="inline-flex items-center gap-1 text-gray-600">
+                      <Star className="w-3 h-3 text-yellow-500 fill-yellow-500" /> {p.rating.average.toFixed(1)} ({p.rating.count})
+                    </span>
+                  ) : (
+                    <span>No reviews yet</span>
+                  )}
+                </div>
                 <button
                   onClick={() => addToCart(p)}
                   disabled={p.stockQty === 0}
@@ -125,6 +155,14 @@ export default function BuyerBrowse() {
           ))}
         </div>
       )}
+
+      {!loading && nextCursor && (
+        <div className="mt-6 text-center">
+          <button onClick={loadMore} disabled={loadingMore} className="px-4 py-2 border rounded-lg text-sm hover:bg-gray-50 disabled:opacity-50">
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { orderAPI, paymentAPI } from '../../services/api';
 import { ShoppingCart, Plus, Minus, Trash2, Loader2, AlertCircle, CheckCircle } from 'lucide-react';
@@ -12,9 +12,12 @@ export default function BuyerCart() {
   const [placing, setPlacing] = useState(false);
   const [error, setError] = useState('');
   const [success, setSuccess] = useState('');
+  // one key per checkout of this exact cart, so pressing "place order" again after a timeout can't order twice
+  const checkoutKey = useRef(null);
 
   useEffect(() => {
     localStorage.setItem('cart', JSON.stringify(cart));
+    checkoutKey.current = null;
   }, [cart]);
 
   const updateQty = (productId, delta) => {
@@ -37,23 +40,25 @@ export default function BuyerCart() {
     if (cart.length === 0) return;
     setPlacing(true);
     setError('');
+    checkoutKey.current ??= crypto.randomUUID();
+    const key = checkoutKey.current;
     try {
       // Create order
       const orderRes = await orderAPI.create({
         items: cart.map(c => ({ productId: c.productId, quantity: c.quantity }))
-      });
+      }, `${key}:order`);
       
-      // Simulate payment
+      // Payment is accepted as PENDING and charged in the background; Orders shows the outcome
       await paymentAPI.create({
         orderId: orderRes.data.id,
         amount: orderRes.data.totalAmount,
         method: 'CARD',
-        reference: `PAY-${Date.now()}`
-      });
+        reference: `PAY-${key}`
+      }, `${key}:payment`);
 
       setCart([]);
       localStorage.removeItem('cart');
-      setSuccess('Order placed successfully!');
+      setSuccess('Order placed! Your payment is being processed.');
       setTimeout(() => navigate('/buyer/orders'), 2000);
     } catch (e) {
       setError(e.response?.data?.message || 'Failed to place order');
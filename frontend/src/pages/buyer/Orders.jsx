@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
 import { orderAPI } from '../../services/api';
+import { subscribeEvents } from '../../services/events';
 import { ShoppingCart, Clock, CheckCircle, Truck, Package, XCircle, Loader2, AlertCircle, CreditCard, User, Store } from 'lucide-react';
 
 export default function BuyerOrders() {
@@ -9,6 +10,9 @@ export default function BuyerOrders() {
 
   useEffect(() => { loadOrders(); }, []);
 
+  // Status changes are pushed by the server; reload only when something actually changed
+  useEffect(() => subscribeEvents({ 'order-status': loadOrders, payment: loadOrders, resync: loadOrders }), []);
+
   const loadOrders = async () => {
     try {
       const res = await orderAPI.myOrders();
@@ -42,9 +46,10 @@ export default function BuyerOrders() {
       PENDING: 'bg-yellow-100 text-yellow-700',
       SUCCESS: 'bg-green-100 text-green-700',
       FAILED: 'bg-red-100 text-red-700',
+      REFUND_DUE: 'bg-orange-100 text-orange-700',
     };
     return (
-      <span className={`inline-flex items-center gap-1 px-2 py-1 text-xs font-medium rounded ${styles[payment.status] || styles.PENDING}`}>
+      <span title={payment.failureReason || undefined} className={`inline-flex items-center gap-1 px-2 py-1 text-xs font-medium rounded ${styles[payment.status] || styles.PENDING}`}>
         <CreditCard className="w-3 h-3" /> {payment.status}
       </span>
     );
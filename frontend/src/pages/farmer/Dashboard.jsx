@@ -1,28 +1,32 @@
 import { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { productAPI, orderAPI, userAPI } from '../../services/api';
+import { productAPI, analyticsAPI } from '../../services/api';
 import { useAuth } from '../../context/AuthContext';
 import { Package, ShoppingCart, DollarSign, TrendingUp } from 'lucide-react';
 
 export default function FarmerDashboard() {
   const { user } = useAuth();
-  const [stats, setStats] = useState({ products: 0, orders: 0, revenue: 0 });
+  const [stats, setStats] = useState({ products: 0, orders: 0, revenue: 0, unitsSold: 0, ordersByStatus: {}, revenueByDay: [], topProducts: [] });
   const [loading, setLoading] = useState(true);
 
   useEffect(() => { loadStats(); }, []);
 
   const loadStats = async () => {
     try {
-      const [prod, ord, me] = await Promise.all([
-        productAPI.list(),
-        orderAPI.sellerOrders().catch(() => ({ data: [] })),
-        userAPI.me(),
+      const [prod, kpi] = await Promise.all([
+        productAPI.count(null, user?.id),
+        analyticsAPI.seller(14),
       ]);
-      // Filter products by current user (seller)
-      const myProducts = prod.data.filter(p => p.sellerId === user?.id);
-      // Revenue comes from user profile (updated on successful payment)
-      const revenue = me.data.revenue || 0;
-      setStats({ products: myProducts.length, orders: ord.data.length, revenue });
+      const k = kpi.data;
+      setStats({
+        products: prod.data.count,
+        orders: k.totalOrders,
+        revenue: k.totalRevenue || 0,
+        unitsSold: k.totalUnitsSold,
+        ordersByStatus: k.ordersByStatus || {},
+        revenueByDay: k.revenueByDay || [],
+        topProducts: k.topProducts || [],
+      });
     } catch (e) {
       console.error(e);
     } finally {
@@ -73,6 +77,49 @@ export default function FarmerDashboard() {
         </div>
       </div>
 
+      {!loading && (
+        <div className="grid grid-cols-1 lg:grid-cols-3 gap-6 mb-8">
+          <div className="bg-white rounded-xl p-6 shadow-sm border">
+            <h2 className="text-lg font-semibold mb-4">Orders by Status</h2>
+            <div className="space-y-2">
+              {Object.entries(stats.ordersByStatus).map(([status, count]) => (
+                <div key={status} className="flex justify-between text-sm">
+                  <span className="text-gray-600">{status}</span>
+                  <span className="font-medium">{count}</span>
+                </div>
+              ))}
+            </div>
+          </div>
+          <div className="bg-white rounded-xl p-6 shadow-sm border">
+            <h2 className="text-lg font-semibold mb-4">Revenue, Last 14 Days</h2>
+            <div className="space-y-1">
+              {stats.revenueByDay.slice().reverse().map((d) => (
+                <div key={d.day} className="flex justify-between text-sm">
+                  <span className="text-gray-600">{d.day}</span>
+                  <span className="font-medium">Rs. {Number(d.revenue).toLocaleString()} ({d.unitsSold} units)</span>
+                </div>
+              ))}
+            </div>
+          </div>
+          <div className="bg-white rounded-xl p-6 shadow-sm border">
+            <h2 className="text-lg font-semibold mb-4">Top Products</h2>
+            {stats.topProducts.length === 0 ? (
+              <p className="text-sm text-gray-500">No sales yet</p>
+            ) : (
+              <div className="space-y-2">
+                {stats.topProducts.map((p) => (
+                  <div key={p.productId} className="flex justify-between text-sm">
+                    <span className="text-gray-600">{p.productName}</span>
+                    <span className="font-medium">{p.unitsSold} units</span>
+                  </div>
+                ))}
+              </div>
+            )}
+            <p className="mt-4 text-xs text-gray-400">{stats.unitsSold} units sold in total</p>
+          </div>
+        </div>
+      )}
+
       <div className="bg-white rounded-xl p-6 shadow-sm border">
         <h2 className="text-lg font-semibold mb-4">Quick Actions</h2>
         <div className="grid grid-cols-2 gap-4">
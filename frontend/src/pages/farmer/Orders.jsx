@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
 import { orderAPI } from '../../services/api';
+import { subscribeEvents } from '../../services/events';
 import { useAuth } from '../../context/AuthContext';
 import { ShoppingCart, Clock, CheckCircle, Truck, Package, XCircle, Loader2, AlertCircle, CreditCard, User, DollarSign } from 'lucide-react';
 
@@ -13,6 +14,9 @@ export default function FarmerOrders() {
 
   useEffect(() => { loadOrders(); }, []);
 
+  // Status changes are pushed by the server; reload only when something actually changed
+  useEffect(() => subscribeEvents({ 'order-status': loadOrders, resync: loadOrders }), []);
+
   const loadOrders = async () => {
     try {
       const res = await orderAPI.sellerOrders();
@@ -61,6 +65,7 @@ export default function FarmerOrders() {
       PENDING: 'bg-yellow-100 text-yellow-700',
       SUCCESS: 'bg-green-100 text-green-700',
       FAILED: 'bg-red-100 text-red-700',
+      REFUND_DUE: 'bg-orange-100 text-orange-700',
     };
     return (
       <span className={`inline-flex items-center gap-1 px-2 py-1 text-xs font-medium rounded ${styles[payment.status] || styles.PENDING}`}>
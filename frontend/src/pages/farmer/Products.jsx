@@ -1,11 +1,15 @@
 import { useState, useEffect } from 'react';
 import { productAPI, categoryAPI } from '../../services/api';
 import { useAuth } from '../../context/AuthContext';
-import { Package, Plus, Edit, Trash2, Loader2, AlertCircle, X } from 'lucide-react';
+import { Package, Plus, Edit, Trash2, Loader2, AlertCircle, X, Upload } from 'lucide-react';
+
+const PAGE_SIZE = 48;
 
 export default function FarmerProducts() {
   const { user } = useAuth();
   const [products, setProducts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [categories, setCategories] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
@@ -15,15 +19,16 @@ export default function FarmerProducts() {
   const [deleting, setDeleting] = useState(null);
   const [form, setForm] = useState({ name: '', description: '', price: '', stockQty: '', categoryId: '' });
   const [editId, setEditId] = useState(null);
+  const [importing, setImporting] = useState(false);
+  const [importErrors, setImportErrors] = useState([]);
 
   useEffect(() => { loadData(); }, []);
 
   const loadData = async () => {
     try {
-      const [prod, cat] = await Promise.all([productAPI.list(), categoryAPI.list()]);
-      // Filter to show only current farmer's products
-      const myProducts = prod.data.filter(p => p.sellerId === user?.id);
-      setProducts(myProducts);
+      const [prod, cat] = await Promise.all([productAPI.list(null, null, { sellerId: user?.id, limit: PAGE_SIZE }), categoryAPI.list()]);
+      setProducts(prod.data);
+      setNextCursor(prod.headers['x-next-cursor'] || null);
       setCategories(cat.data);
     } catch (e) {
       setError('Failed to load data');
@@ -32,6 +37,19 @@ export default function FarmerProducts() {
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const prod = await productAPI.list(null, null, { sellerId: user?.id, limit: PAGE_SIZE, after: nextCursor });
+      setProducts(prev => [...prev, ...prod.data]);
+      setNextCursor(prod.headers['x-next-cursor'] || null);
+    } catch (e) {
+      setError('Failed to load more products');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const openCreate = () => {
     setEditId(null);
     setForm({ name: '', description: '', price: '', stockQty: '', categoryId: '' });
@@ -89,6 +107,27 @@ export default function FarmerProducts() {
     }
   };
 
+  const handleImport = async (e) => {
+    const file = e.target.files[0];
+    e.target.value = '';
+    if (!file) return;
+    setImporting(true);
+    setError('');
+    setImportErrors([]);
+    try {
+      const { rows, summary } = (await productAPI.importFile(file)).data;
+      setImportErrors(rows.filter(r => r.status === 'FAILED'));
+      if (summary.error) setError(summary.error);
+      setSuccess(`Imported ${summary.created} new and ${summary.updated} updated products` + (summary.failed ? `, ${summary.failed} rows failed` : ''));
+      setTimeout(() => setSuccess(''), 5000);
+      await loadData();
+    } catch (e) {
+      setError(e.response?.data?.message || 'Import failed');
+    } finally {
+      setImporting(false);
+    }
+  };
+
   return (
     <div>
       <div className="mb-6 flex items-center justify-between">
@@ -96,13 +135,30 @@ export default function FarmerProducts() {
           <h1 className="text-2xl font-bold text-gray-800">My Products</h1>
           <p className="text-gray-500">Manage your product listings</p>
         </div>
-        <button onClick={openCreate} className="px-4 py-2 bg-green-600 text-white rounded-lg font-medium hover:bg-green-700 flex items-center gap-2">
-          <Plus className="w-5 h-5" /> Add Product
-        </button>
+        <div className="flex gap-2">
+          <label title="CSV or NDJSON with sku, name, description, price, stockQty, category" className={`px-4 py-2 border rounded-lg font-medium text-gray-700 hover:bg-gray-50 flex items-center gap-2 cursor-pointer ${importing ? 'opacity-50 pointer-events-none' : ''}`}>
+            {importing ? <Loader2 className="w-5 h-5 animate-spin" /> : <Upload className="w-5 h-5" />} Import
+            <input type="file" accept=".csv,.ndjson,.jsonl" onChange={handleImport} className="hidden" />
+          </label>
+          <button onClick={openCreate} className="px-4 py-2 bg-green-600 text-white rounded-lg font-medium hover:bg-green-700 flex items-center gap-2">
+            <Plus className="w-5 h-5" /> Add Product
+          </button>
+        </div>
       </div>
 
       {error && <div className="mb-4 p-4 bg-red-50 border border-red-200 rounded-lg flex items-center gap-2"><AlertCircle className="w-5 h-5 text-red-500" /><span className="text-red-600">{error}</span></div>}
       {success && <div className="mb-4 p-4 bg-green-50 border border-green-200 rounded-lg text-green-700">{success}</div>}
+      {importErrors.length > 0 && (
+        <div className="mb-4 p-4 bg-amber-50 border border-amber-200 rounded-lg text-amber-800 text-sm">
+          <div className="flex justify-between mb-2">
+            <span className="font-medium">Rows not imported</span>
+            <button onClick={() => setImportErrors([])}><X className="w-4 h-4" /></button>
+          </div>
+          <ul className="max-h-40 overflow-y-auto space-y-1">
+            {importErrors.map(r => <li key={r.line}>Line {r.line}{r.sku ? ` (${r.sku})` : ''}: {r.error}</li>)}
+          </ul>
+        </div>
+      )}
 
       {loading ? (
         <div className="p-12 text-center"><Loader2 className="w-8 h-8 animate-spin mx-auto text-gray-400" /></div>
@@ -144,6 +200,14 @@ export default function FarmerProducts() {
         </div>
       )}
 
+      {!loading && nextCursor && (
+        <div className="mt-6 text-center">
+          <button onClick={loadMore} disabled={loadingMore} className="px-4 py-2 border rounded-lg text-sm hover:bg-gray-50 disabled:opacity-50">
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
+
       {showModal && (
         <div className="fixed inset-0 z-50 flex items-center justify-center p-4">
           <div className="absolute inset-0 bg-black/40" onClick={() => setShowModal(false)} />
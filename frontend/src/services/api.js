@@ -10,8 +10,25 @@ api.interceptors.request.use((config) => {
 
 api.interceptors.response.use(
   (res) => res,
-  (err) => {
-    if (err.response?.status === 401) {
+  async (err) => {
+    const status = err.response?.status;
+    const original = err.config;
+    // Stateless mode: access tokens are short-lived, so renew once with the refresh token and retry
+    const refreshToken = localStorage.getItem('refreshToken');
+    if ((status === 401 || status === 403) && refreshToken && original && !original._retried
+        && !original.url?.startsWith('/auth/')) {
+      original._retried = true;
+      try {
+        const res = await axios.post('/api/auth/refresh', { refreshToken });
+        localStorage.setItem('token', res.data.token);
+        localStorage.setItem('refreshToken', res.data.refreshToken);
+        original.headers.Authorization = `Bearer ${res.data.token}`;
+        return api(original);
+      } catch {
+        localStorage.removeItem('refreshToken');
+      }
+    }
+    if (status === 401) {
       localStorage.removeItem('token');
       window.location.href = '/login';
     }
@@ -36,35 +53,61 @@ export const categoryAPI = {
   delete: (id) => api.delete(`/categories/${id}`),
 };
 
+// drop empty values so they don't reach the server as blank query params
+const clean = (obj) => Object.fromEntries(Object.entries(obj).filter(([, v]) => v !== undefined && v !== null && v !== ''));
+
 export const productAPI = {
-  list: (categoryId, q) => {
+  // Keyset paginated: pass res.headers['x-next-cursor'] back as opts.after for the next page
+  list: (categoryId, q, opts = {}) => {
     const params = new URLSearchParams();
     if (categoryId) params.append('categoryId', categoryId);
     if (q) params.append('q', q);
+    if (opts.sellerId) params.append('sellerId', opts.sellerId);
+    if (opts.after) params.append('after', opts.after);
+    if (opts.limit) params.append('limit', opts.limit);
+    if (opts.sort) params.append('sort', opts.sort);
     return api.get(`/products?${params}`);
   },
+  // { count } for the same filters, without paging through the listing
+  count: (categoryId, sellerId) => api.get('/products/count', { params: clean({ categoryId, sellerId }) }),
   get: (id) => api.get(`/products/${id}`),
   create: (data) => api.post('/products', data),
   update: (id, data) => api.put(`/products/${id}`, data),
   delete: (id) => api.delete(`/products/${id}`),
+  // Bulk create/update from a CSV or NDJSON file (columns sku, name, description, price, stockQty, category);
+  // the file goes up as-is and the per-row report comes back as { rows, summary }
+  importFile: (file) => api.post('/products/import', file, {
+    headers: { 'Content-Type': file.name.endsWith('.ndjson') || file.name.endsWith('.jsonl') ? 'application/x-ndjson' : 'text/csv' },
+  }),
 };
 
 export const orderAPI = {
   myOrders: () => api.get('/orders/my'),
   sellerOrders: () => api.get('/orders/seller'),
-  allOrders: () => api.get('/orders'),
+  // Admin feed, newest first; filters: status, from, to (yyyy-mm-dd), buyerId, sellerId.
+  // Keyset paginated like productAPI.list: pass res.headers['x-next-cursor'] back as after.
+  allOrders: (filters = {}, opts = {}) => api.get('/orders', { params: { ...clean(filters), ...clean(opts) } }),
+  exportOrders: (filters = {}) => api.get('/orders/export', { params: clean(filters), responseType: 'blob' }),
   get: (id) => api.get(`/orders/${id}`),
-  create: (data) => api.post('/orders', data),
+  // key goes out as Idempotency-Key: a retried checkout gets the first response back instead of a second order
+  create: (data, key) => api.post('/orders', data, key ? { headers: { 'Idempotency-Key': key } } : undefined),
   updateStatus: (id, status) => api.patch(`/orders/${id}/status`, { status }),
 };
 
+// Dashboard KPIs from the server-side rollups; days sets how far back revenueByDay goes
+export const analyticsAPI = {
+  seller: (days = 30) => api.get('/analytics/seller', { params: { days } }),
+  marketplace: (days = 30, sellerId) => api.get('/analytics', { params: clean({ days, sellerId }) }),
+};
+
 export const paymentAPI = {
-  create: (data) => api.post('/payments', data),
+  create: (data, key) => api.post('/payments', data, key ? { headers: { 'Idempotency-Key': key } } : undefined),
   getByOrder: (orderId) => api.get(`/payments/order/${orderId}`),
 };
 
 export const reviewAPI = {
-  getByProduct: (productId) => api.get(`/reviews/product/${productId}`),
+  // Newest first; pass res.headers['x-next-cursor'] back as after for the next page
+  getByProduct: (productId, opts = {}) => api.get(`/reviews/product/${productId}`, { params: clean(opts) }),
   create: (data) => api.post('/reviews', data),
   delete: (id) => api.delete(`/reviews/${id}`),
 };
@@ -0,0 +1,57 @@
+// Server-sent events from GET /api/events. EventSource can't send the Authorization header, so the stream
+// is read with fetch. handlers maps event names ("message", "order-status", "payment", "ready", "resync") to callbacks.
+// Reconnects with backoff until the returned function is called.
+export function subscribeEvents(handlers) {
+  let stopped = false;
+  let controller;
+  let retryMs = 1000;
+
+  const dispatch = (block) => {
+    let name = 'message';
+    const data = [];
+    for (const line of block.split('\n')) {
+      if (line.startsWith('event:')) name = line.slice(6).trim();
+      else if (line.startsWith('data:')) data.push(line.slice(5));
+    }
+    if (!data.length || !handlers[name]) return;
+    let payload = data.join('\n');
+    try { payload = JSON.parse(payload); } catch { /* plain text */ }
+    handlers[name](payload);
+  };
+
+  const connect = async () => {
+    const token = localStorage.getItem('token');
+    if (!token) return;
+    controller = new AbortController();
+    try {
+      const res = await fetch('/api/events', {
+        headers: { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' },
+        signal: controller.signal,
+      });
+      if (!res.ok) throw new Error(`events ${res.status}`);
+      retryMs = 1000;
+      const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value.replace(/\r\n/g, '\n');
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          dispatch(buffer.slice(0, end));
+          buffer = buffer.slice(end + 2);
+        }
+      }
+    } catch {
+      if (stopped) return;
+      retryMs = Math.min(retryMs * 2, 30000);
+    }
+    if (!stopped) setTimeout(connect, retryMs);
+  };
+
+  connect();
+  return () => {
+    stopped = true;
+    controller?.abort();
+  };
+}
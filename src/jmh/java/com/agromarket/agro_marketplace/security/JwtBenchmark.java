@@ -0,0 +1,35 @@
+package com.agromarket.agro_marketplace.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Every authenticated request verifies a token; every login signs one
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwt;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwt = new JwtService("BENCHMARK_SECRET_KEY_THAT_IS_LONG_ENOUGH_FOR_HS256_1234567890",
+                86_400_000L, false, 900_000L, 604_800_000L);
+        token = jwt.generateToken("buyer@agro.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwt.generateToken("buyer@agro.com");
+    }
+
+    @Benchmark
+    public String extractSubject() {
+        return jwt.extractSubject(token);
+    }
+}
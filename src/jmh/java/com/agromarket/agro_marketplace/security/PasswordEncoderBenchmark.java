@@ -0,0 +1,38 @@
+package com.agromarket.agro_marketplace.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Login cost per BCrypt strength; each step up doubles the work (the app uses the default, 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("farmer-password-123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("farmer-password-123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("farmer-password-123", hash);
+    }
+}
@@ -0,0 +1,44 @@
+package com.agromarket.agro_marketplace.service.impl;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductResponse;
+import com.agromarket.agro_marketplace.dto.order.OrderDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response serialization for one page of orders and of products, with a mapper configured like Spring Boot's
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private List<OrderDTO> orders;
+    private List<ProductResponse> products;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        orders = Samples.orders(pageSize, 4).stream().map(o -> OrderServiceImpl.toDTO(o, Samples.payment(o))).toList();
+        products = Samples.products(pageSize).stream().map(ProductServiceImpl::toRes).toList();
+    }
+
+    @Benchmark
+    public byte[] orders() throws Exception {
+        return mapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] products() throws Exception {
+        return mapper.writeValueAsBytes(products);
+    }
+}
@@ -0,0 +1,50 @@
+package com.agromarket.agro_marketplace.service.impl;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductResponse;
+import com.agromarket.agro_marketplace.dto.order.OrderDTO;
+import com.agromarket.agro_marketplace.entity.Order;
+import com.agromarket.agro_marketplace.entity.Payment;
+import com.agromarket.agro_marketplace.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mapping for one page of orders and of products
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private List<Order> orders;
+    private List<Payment> payments;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        orders = Samples.orders(pageSize, 4);
+        payments = orders.stream().map(Samples::payment).toList();
+        products = Samples.products(pageSize);
+    }
+
+    @Benchmark
+    public List<OrderDTO> orderToDTO() {
+        List<OrderDTO> out = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) out.add(OrderServiceImpl.toDTO(orders.get(i), payments.get(i)));
+        return out;
+    }
+
+    @Benchmark
+    public List<ProductResponse> productToRes() {
+        List<ProductResponse> out = new ArrayList<>(products.size());
+        for (Product p : products) out.add(ProductServiceImpl.toRes(p));
+        return out;
+    }
+}
@@ -0,0 +1,59 @@
+package com.agromarket.agro_marketplace.service.impl;
+
+import com.agromarket.agro_marketplace.entity.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Detached entity graphs shaped like the ones the order and product queries return
+final class Samples {
+
+    private Samples() {
+    }
+
+    static List<Product> products(int count) {
+        Category category = Category.builder().id(1L).name("Vegetables").build();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User seller = user(100L + i % 10, "farmer" + i % 10 + "@agro.com", Roles.FARMER);
+            products.add(Product.builder().id((long) i + 1).name("Organic tomato " + i)
+                    .description("Fresh from Punjab, lot " + i).price(BigDecimal.valueOf(120 + i % 50, 0))
+                    .stockQty(500).category(category).seller(seller).build());
+        }
+        return products;
+    }
+
+    static List<Order> orders(int count, int itemsPerOrder) {
+        List<Product> products = products(50);
+        User buyer = user(1L, "buyer@agro.com", Roles.BUYER);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = Order.builder().id((long) i + 1).buyer(buyer).status(OrderStatus.PAID)
+                    .createdAt(Instant.parse("2026-05-01T10:15:30Z")).items(new ArrayList<>()).build();
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 0; j < itemsPerOrder; j++) {
+                Product p = products.get((i + j) % products.size());
+                BigDecimal line = p.getPrice().multiply(BigDecimal.valueOf(j + 1));
+                order.getItems().add(OrderItem.builder().id((long) i * itemsPerOrder + j).order(order).product(p)
+                        .quantity(j + 1).unitPrice(p.getPrice()).lineTotal(line).build());
+                total = total.add(line);
+            }
+            order.setTotalAmount(total);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    static Payment payment(Order order) {
+        return Payment.builder().id(order.getId()).order(order).amount(order.getTotalAmount())
+                .status(PaymentStatus.SUCCESS).method("JazzCash").reference("TX-" + order.getId())
+                .paidAt(order.getCreatedAt()).build();
+    }
+
+    private static User user(Long id, String email, Roles role) {
+        return User.builder().id(id).fullName(email).email(email).passwordHash("x").roles(Set.of(role)).build();
+    }
+}
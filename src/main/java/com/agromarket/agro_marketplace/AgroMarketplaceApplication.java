@@ -2,12 +2,16 @@ package com.agromarket.agro_marketplace;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class AgroMarketplaceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(AgroMarketplaceApplication.class, args);
+		SpringApplication app = new SpringApplication(AgroMarketplaceApplication.class);
+		// records startup steps for StartupTimingReport and /actuator/startup
+		app.setApplicationStartup(new BufferingApplicationStartup(10_000));
+		app.run(args);
 	}
 
 }
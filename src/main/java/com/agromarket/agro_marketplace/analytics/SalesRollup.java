@@ -0,0 +1,131 @@
+package com.agromarket.agro_marketplace.analytics;
+
+import com.agromarket.agro_marketplace.entity.Order;
+import com.agromarket.agro_marketplace.entity.OrderItem;
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Keeps the dashboard rollup tables (seller_order_status_counts, seller_daily_sales, product_sales) in step
+// with orders and payments. Runs inside the caller's transaction so a rollup never disagrees with committed orders.
+// Rows are created with an insert-if-absent and then incremented in place; keys are always touched in sorted order
+// so concurrent checkouts and payments can't deadlock on them.
+// There is no marketplace-wide row for every write to queue on: marketplace totals are the sum of the seller rows.
+// Order counts are also kept as lead_* columns, bumped only for the order's lowest seller id, so an order with
+// several sellers still sums to one.
+@Component
+public class SalesRollup {
+
+    private static final String SEED_STATUS =
+            "INSERT INTO seller_order_status_counts (seller_id, status, orders, lead_orders) VALUES (?, ?, 0, 0) ON CONFLICT DO NOTHING";
+    private static final String BUMP_STATUS =
+            "UPDATE seller_order_status_counts SET orders = orders + ?, lead_orders = lead_orders + ? WHERE seller_id = ? AND status = ?";
+    private static final String SEED_DAY =
+            "INSERT INTO seller_daily_sales (seller_id, sales_day, revenue, units_sold, orders_paid, lead_orders_paid) " +
+            "VALUES (?, ?, 0, 0, 0, 0) ON CONFLICT DO NOTHING";
+    private static final String BUMP_DAY =
+            "UPDATE seller_daily_sales SET revenue = revenue + ?, units_sold = units_sold + ?, orders_paid = orders_paid + 1, " +
+            "lead_orders_paid = lead_orders_paid + ? WHERE seller_id = ? AND sales_day = ?";
+    private static final String SEED_PRODUCT =
+            "INSERT INTO product_sales (product_id, seller_id, units_sold, revenue) VALUES (?, ?, 0, 0) ON CONFLICT DO NOTHING";
+    private static final String BUMP_PRODUCT =
+            "UPDATE product_sales SET units_sold = units_sold + ?, revenue = revenue + ? WHERE product_id = ?";
+
+    private record StatusDelta(long sellerId, OrderStatus status, int delta, int leadDelta) {}
+    private record Sales(long sellerId, BigDecimal revenue, long units) {}
+
+    private final JdbcTemplate jdbc;
+
+    public SalesRollup(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        moveStatus(order, null, order.getStatus());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Order order, OrderStatus from) {
+        if (from != order.getStatus()) moveStatus(order, from, order.getStatus());
+    }
+
+    // Revenue, units and paid-order counts go to the UTC day of the payment
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPaid(Order order, Instant paidAt) {
+        Date day = Date.valueOf(LocalDate.ofInstant(paidAt, ZoneOffset.UTC));
+
+        SortedMap<Long, Sales> bySeller = new TreeMap<>();
+        SortedMap<Long, Sales> byProduct = new TreeMap<>();
+        for (OrderItem item : order.getItems()) {
+            long sellerId = item.getProduct().getSeller().getId();
+            Sales line = new Sales(sellerId, item.getLineTotal(), item.getQuantity());
+            bySeller.merge(sellerId, line, SalesRollup::sum);
+            byProduct.merge(item.getProduct().getId(), line, SalesRollup::sum);
+        }
+
+        if (bySeller.isEmpty()) return;
+        long lead = bySeller.firstKey();
+        List<Map.Entry<Long, Sales>> days = new ArrayList<>(bySeller.entrySet());
+        jdbc.batchUpdate(SEED_DAY, days, days.size(), (ps, e) -> {
+            ps.setLong(1, e.getKey());
+            ps.setDate(2, day);
+        });
+        jdbc.batchUpdate(BUMP_DAY, days, days.size(), (ps, e) -> {
+            ps.setBigDecimal(1, e.getValue().revenue());
+            ps.setLong(2, e.getValue().units());
+            ps.setInt(3, e.getKey() == lead ? 1 : 0);
+            ps.setLong(4, e.getKey());
+            ps.setDate(5, day);
+        });
+
+        List<Map.Entry<Long, Sales>> products = new ArrayList<>(byProduct.entrySet());
+        jdbc.batchUpdate(SEED_PRODUCT, products, products.size(), (ps, e) -> {
+            ps.setLong(1, e.getKey());
+            ps.setLong(2, e.getValue().sellerId());
+        });
+        jdbc.batchUpdate(BUMP_PRODUCT, products, products.size(), (ps, e) -> {
+            ps.setLong(1, e.getValue().units());
+            ps.setBigDecimal(2, e.getValue().revenue());
+            ps.setLong(3, e.getKey());
+        });
+    }
+
+    private void moveStatus(Order order, OrderStatus from, OrderStatus to) {
+        SortedSet<Long> sellers = new TreeSet<>();
+        for (OrderItem item : order.getItems()) sellers.add(item.getProduct().getSeller().getId());
+        if (sellers.isEmpty()) return;
+
+        List<StatusDelta> deltas = new ArrayList<>();
+        for (long sellerId : sellers) {
+            int lead = sellerId == sellers.first() ? 1 : 0;
+            if (from != null) deltas.add(new StatusDelta(sellerId, from, -1, -lead));
+            if (to != null) deltas.add(new StatusDelta(sellerId, to, 1, lead));
+        }
+        deltas.sort(Comparator.comparingLong(StatusDelta::sellerId).thenComparing(d -> d.status().name()));
+
+        jdbc.batchUpdate(SEED_STATUS, deltas, deltas.size(), (ps, d) -> {
+            ps.setLong(1, d.sellerId());
+            ps.setString(2, d.status().name());
+        });
+        jdbc.batchUpdate(BUMP_STATUS, deltas, deltas.size(), (ps, d) -> {
+            ps.setInt(1, d.delta());
+            ps.setInt(2, d.leadDelta());
+            ps.setLong(3, d.sellerId());
+            ps.setString(4, d.status().name());
+        });
+    }
+
+    private static Sales sum(Sales a, Sales b) {
+        return new Sales(a.sellerId(), a.revenue().add(b.revenue()), a.units() + b.units());
+    }
+}
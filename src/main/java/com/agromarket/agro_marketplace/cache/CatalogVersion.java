@@ -0,0 +1,12 @@
+package com.agromarket.agro_marketplace.cache;
+
+// Validators for a conditional GET: an ETag (strong unless weak() was applied) and the Last-Modified time in
+// epoch millis (-1 if unknown)
+public record CatalogVersion(String etag, long lastModified) {
+
+    // For responses that may revalidate while some of their fields have moved on: W/"..." only claims the
+    // content is equivalent, not byte-identical
+    public CatalogVersion weak() {
+        return etag.startsWith("W/") ? this : new CatalogVersion("W/" + etag, lastModified);
+    }
+}
@@ -0,0 +1,58 @@
+package com.agromarket.agro_marketplace.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One version counter per public catalog collection, so a conditional GET can be answered from memory.
+// Write paths call changed(); the counter moves on every node through the InvalidationBus.
+// Tags carry this node's start time: a restarted node never reissues an old tag for different data.
+@Component
+public class CatalogVersions {
+
+    public static final String PRODUCTS = "products";
+    public static final String REVIEWS = "reviews";
+    public static final String CATEGORIES = CategoryCache.TOPIC;
+
+    private record Version(long counter, long modifiedAt) {}
+
+    private final InvalidationBus bus;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    public CatalogVersions(InvalidationBus bus) {
+        this.bus = bus;
+        long now = System.currentTimeMillis();
+        for (String collection : List.of(PRODUCTS, REVIEWS, CATEGORIES)) {
+            versions.put(collection, new Version(0, now));
+            bus.subscribe(collection, () -> advance(collection));
+        }
+    }
+
+    public CatalogVersion current(String collection) {
+        Version v = versions.get(collection);
+        return new CatalogVersion("\"" + collection + "-" + epoch + "-" + v.counter() + "\"", v.modifiedAt());
+    }
+
+    // Inside a transaction the change only becomes visible (and is announced) once it commits
+    public void changed(String collection) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bus.publish(collection);
+                }
+            });
+        } else {
+            bus.publish(collection);
+        }
+    }
+
+    private void advance(String collection) {
+        versions.compute(collection, (k, v) -> new Version(v.counter() + 1, System.currentTimeMillis()));
+    }
+}
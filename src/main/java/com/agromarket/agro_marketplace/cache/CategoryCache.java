@@ -0,0 +1,71 @@
+package com.agromarket.agro_marketplace.cache;
+
+import com.agromarket.agro_marketplace.dto.catalog.CategoryDTO;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// Read-through cache of the whole category list. Reads return the current immutable snapshot without touching
+// the database; the snapshot is loaded on first use and swapped for a freshly loaded one whenever categories change.
+@Component
+public class CategoryCache {
+
+    static final String TOPIC = "categories";
+
+    private final CategoryRepository repo;
+    private final InvalidationBus bus;
+    private volatile CategorySnapshot snapshot;
+
+    public CategoryCache(CategoryRepository repo, InvalidationBus bus) {
+        this.repo = repo;
+        this.bus = bus;
+        bus.subscribe(TOPIC, this::reload);
+    }
+
+    public CategorySnapshot snapshot() {
+        CategorySnapshot s = snapshot;
+        return s != null ? s : load();
+    }
+
+    public Optional<Long> idByName(String name) {
+        return Optional.ofNullable(snapshot().idsByName().get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    // Call after a committed category change: the bus calls back every node, this one included, which rebuilds once
+    public void changed() {
+        bus.publish(TOPIC);
+    }
+
+    private synchronized CategorySnapshot load() {
+        return snapshot != null ? snapshot : reload();
+    }
+
+    // serialized so a slow, older reload can't overwrite a newer snapshot
+    private synchronized CategorySnapshot reload() {
+        List<CategoryDTO> categories = repo.findAll().stream()
+                .map(c -> new CategoryDTO(c.getId(), c.getName()))
+                .sorted(Comparator.comparing(CategoryDTO::id))
+                .toList();
+        Map<String, Long> idsByName = new HashMap<>();
+        for (CategoryDTO c : categories) idsByName.put(c.name().toLowerCase(Locale.ROOT), c.id());
+
+        snapshot = new CategorySnapshot(categories, Map.copyOf(idsByName), etag(categories));
+        return snapshot;
+    }
+
+    private static String etag(List<CategoryDTO> categories) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (CategoryDTO c : categories) {
+                sha.update((c.id() + "\u0000" + c.name() + "\u0000").getBytes(StandardCharsets.UTF_8));
+            }
+            return "\"" + HexFormat.of().formatHex(sha.digest(), 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
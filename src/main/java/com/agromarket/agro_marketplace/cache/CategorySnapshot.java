@@ -0,0 +1,14 @@
+package com.agromarket.agro_marketplace.cache;
+
+import com.agromarket.agro_marketplace.dto.catalog.CategoryDTO;
+
+import java.util.List;
+import java.util.Map;
+
+// Immutable view of every category. idsByName is keyed by lower-cased name;
+// etag is a hash of the content, so every node serves the same tag for the same list.
+public record CategorySnapshot(
+        List<CategoryDTO> categories,
+        Map<String, Long> idsByName,
+        String etag
+) {}
@@ -0,0 +1,11 @@
+package com.agromarket.agro_marketplace.cache;
+
+// Tells every app node that a cached data set changed. The default LocalInvalidationBus only reaches this JVM;
+// a multi-node deployment registers its own bean (Postgres LISTEN/NOTIFY, Redis pub/sub, ...) in its place.
+public interface InvalidationBus {
+
+    // Every subscriber of the topic, on every node (including this one), is called once
+    void publish(String topic);
+
+    void subscribe(String topic, Runnable listener);
+}
@@ -0,0 +1,22 @@
+package com.agromarket.agro_marketplace.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// In-process stand-in for a message broker: single-node deployments and tests
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String topic) {
+        listeners.getOrDefault(topic, List.of()).forEach(Runnable::run);
+    }
+
+    @Override
+    public void subscribe(String topic, Runnable listener) {
+        listeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+}
@@ -0,0 +1,18 @@
+package com.agromarket.agro_marketplace.config;
+
+import com.agromarket.agro_marketplace.cache.InvalidationBus;
+import com.agromarket.agro_marketplace.cache.LocalInvalidationBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    // Single-node default; define another InvalidationBus bean to keep several nodes coherent
+    @Bean
+    @ConditionalOnMissingBean(InvalidationBus.class)
+    public InvalidationBus invalidationBus() {
+        return new LocalInvalidationBus();
+    }
+}
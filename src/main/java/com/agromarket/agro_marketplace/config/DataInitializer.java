@@ -7,7 +7,6 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.util.Set;
 
 @Component
@@ -36,13 +35,5 @@ public class DataInitializer implements CommandLineRunner {
             userRepository.save(admin);
             System.out.println("✅ Default admin created: admin@agro.com / admin123");
         }
-
-        // Fix null revenue for existing users
-        userRepository.findAll().forEach(user -> {
-            if (user.getRevenue() == null) {
-                user.setRevenue(BigDecimal.ZERO);
-                userRepository.save(user);
-            }
-        });
     }
 }
@@ -0,0 +1,80 @@
+package com.agromarket.agro_marketplace.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Logs once per boot where the startup time went: JVM start, environment, context refresh (with its slowest beans,
+// which is where Flyway, Hibernate and Tomcat show up) and runners. Needs the BufferingApplicationStartup set in
+// main(); the full step timeline stays available at /actuator/startup.
+@Component
+public class StartupTimingReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReport.class);
+    private static final int SLOWEST_BEANS = 8;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) return;
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        Instant ready = Instant.now();
+
+        Map<String, Instant> marks = new HashMap<>();
+        Map<Long, Duration> childTime = new HashMap<>();
+        Duration refresh = Duration.ZERO;
+        for (StartupTimeline.TimelineEvent e : timeline.getEvents()) {
+            String name = e.getStartupStep().getName();
+            marks.putIfAbsent(name, e.getStartTime());
+            if (name.equals("spring.context.refresh")) refresh = e.getDuration();
+            Long parent = e.getStartupStep().getParentId();
+            if (parent != null) childTime.merge(parent, e.getDuration(), Duration::plus);
+        }
+
+        // time spent in a bean's own creation, not in the beans it pulled in
+        List<Map.Entry<String, Duration>> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent e : timeline.getEvents()) {
+            StartupStep step = e.getStartupStep();
+            if (!step.getName().equals("spring.beans.instantiate")) continue;
+            Duration self = e.getDuration().minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+            beans.add(Map.entry(beanName(step), self));
+        }
+        beans.sort(Map.Entry.<String, Duration>comparingByValue().reversed());
+
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        Instant appStart = timeline.getStartTime();
+        Instant contextPrepared = marks.getOrDefault("spring.boot.application.context-prepared", appStart);
+        Instant started = marks.getOrDefault("spring.boot.application.started", ready);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Startup took %d ms: jvm %d, environment and context setup %d, context refresh %d, runners %d",
+                Duration.between(jvmStart, ready).toMillis(),
+                Duration.between(jvmStart, appStart).toMillis(),
+                Duration.between(appStart, contextPrepared).toMillis(),
+                refresh.toMillis(),
+                Duration.between(started, ready).toMillis()));
+        // none when the timeline buffer filled up before any bean was created
+        if (!beans.isEmpty()) {
+            report.append("; slowest beans: ").append(beans.stream().limit(SLOWEST_BEANS)
+                    .map(b -> b.getKey() + " " + b.getValue().toMillis() + " ms").collect(Collectors.joining(", ")));
+        }
+        log.info(report.toString());
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) return tag.getValue();
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,32 @@
+package com.agromarket.agro_marketplace.controller;
+
+import com.agromarket.agro_marketplace.dto.analytics.DashboardStats;
+import com.agromarket.agro_marketplace.service.AnalyticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) { this.analyticsService = analyticsService; }
+
+    // KPIs for the logged-in farmer's own products
+    @PreAuthorize("hasRole('FARMER')")
+    @GetMapping("/seller")
+    public ResponseEntity<DashboardStats> seller(@RequestParam(defaultValue = "30") int days, Authentication auth) {
+        return ResponseEntity.ok(analyticsService.sellerStats(auth.getName(), days));
+    }
+
+    // Marketplace-wide KPIs, or one seller's with sellerId
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ResponseEntity<DashboardStats> all(@RequestParam(required = false) Long sellerId,
+                                              @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(analyticsService.stats(sellerId, days));
+    }
+}
@@ -0,0 +1,21 @@
+package com.agromarket.agro_marketplace.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// Responses for the public catalog reads. WebRequest.checkNotModified has already written ETag / Last-Modified;
+// no-cache (store, but revalidate each time) replaces Spring Security's default no-store so clients keep the
+// body and send the tag back.
+final class CatalogCaching {
+
+    private CatalogCaching() {}
+
+    static ResponseEntity.BodyBuilder ok() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache());
+    }
+
+    static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.agromarket.agro_marketplace.controller;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
 import com.agromarket.agro_marketplace.dto.catalog.CategoryCreateRequest;
 import com.agromarket.agro_marketplace.dto.catalog.CategoryDTO;
 import com.agromarket.agro_marketplace.service.CategoryService;
@@ -7,6 +8,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,9 +26,12 @@ public class CategoryController {
         return ResponseEntity.ok(categoryService.create(req.name()));
     }
 
+    // Served from the in-memory snapshot; If-None-Match with the current ETag gets a 304
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> list() {
-        return ResponseEntity.ok(categoryService.list());
+    public ResponseEntity<List<CategoryDTO>> list(WebRequest request) {
+        CatalogVersion version = categoryService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified())) return CatalogCaching.notModified();
+        return CatalogCaching.ok().body(categoryService.list());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
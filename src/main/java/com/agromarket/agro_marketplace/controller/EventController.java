@@ -0,0 +1,27 @@
+package com.agromarket.agro_marketplace.controller;
+
+import com.agromarket.agro_marketplace.events.UserEventHub;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    private final UserEventHub hub;
+
+    public EventController(UserEventHub hub) { this.hub = hub; }
+
+    // Server-sent events for the caller: "message", "order-status", plus "ready" on connect and "resync"
+    // after events were dropped; on either of those the client refetches what it shows
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication auth, HttpServletResponse response) {
+        response.setHeader("X-Accel-Buffering", "no"); // stop nginx from buffering the stream
+        return hub.subscribe(auth.getName());
+    }
+}
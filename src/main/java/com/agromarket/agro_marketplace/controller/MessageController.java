@@ -8,6 +8,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -22,8 +23,42 @@ public class MessageController {
         return ResponseEntity.ok(messageService.send(req, auth.getName()));
     }
 
+    // Newest first, keyset paginated: the cursor for the next page comes back in the X-Next-Cursor header
     @GetMapping("/inbox")
-    public ResponseEntity<List<MessageDTO>> inbox(Authentication auth) {
-        return ResponseEntity.ok(messageService.inbox(auth.getName()));
+    public ResponseEntity<List<MessageDTO>> inbox(@RequestParam(required = false) String after,
+                                                  @RequestParam(defaultValue = "50") int limit,
+                                                  Authentication auth) {
+        return page(messageService.inbox(auth.getName(), after, limit));
+    }
+
+    @GetMapping("/unread")
+    public ResponseEntity<Map<String, Long>> unread(Authentication auth) {
+        return ResponseEntity.ok(Map.of("unread", messageService.unreadCount(auth.getName())));
+    }
+
+    @GetMapping("/conversations")
+    public ResponseEntity<List<ConversationDTO>> conversations(Authentication auth) {
+        return ResponseEntity.ok(messageService.conversations(auth.getName()));
+    }
+
+    // Both directions of one two-party thread, newest first, paged like the inbox
+    @GetMapping("/conversations/{id}")
+    public ResponseEntity<List<MessageDTO>> conversation(@PathVariable String id,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "50") int limit,
+                                                         Authentication auth) {
+        return page(messageService.conversation(id, auth.getName(), after, limit));
+    }
+
+    @PostMapping("/conversations/{id}/read")
+    public ResponseEntity<Void> markRead(@PathVariable String id, Authentication auth) {
+        messageService.markRead(id, auth.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<List<MessageDTO>> page(MessagePage page) {
+        var res = ResponseEntity.ok();
+        if (page.nextCursor() != null) res.header("X-Next-Cursor", page.nextCursor());
+        return res.body(page.items());
     }
 }
@@ -1,13 +1,26 @@
 package com.agromarket.agro_marketplace.controller;
 
 import com.agromarket.agro_marketplace.dto.order.*;
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+import com.agromarket.agro_marketplace.idempotency.IdempotentRequests;
 import com.agromarket.agro_marketplace.service.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
 @RestController
@@ -15,13 +28,21 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final IdempotentRequests idempotency;
 
-    public OrderController(OrderService orderService) { this.orderService = orderService; }
+    public OrderController(OrderService orderService, ObjectMapper objectMapper, IdempotentRequests idempotency) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.idempotency = idempotency;
+    }
 
     @PreAuthorize("hasRole('BUYER')")
     @PostMapping
-    public ResponseEntity<OrderDTO> create(@Valid @RequestBody CreateOrderRequest req, Authentication auth) {
-        return ResponseEntity.ok(orderService.create(req, auth.getName()));
+    public ResponseEntity<OrderDTO> create(@Valid @RequestBody CreateOrderRequest req, Authentication auth,
+                                           @RequestHeader(value = IdempotentRequests.HEADER, required = false) String key) {
+        return idempotency.execute(key, auth.getName(), "POST /api/orders", req, HttpStatus.OK, OrderDTO.class,
+                () -> orderService.create(req, auth.getName()));
     }
 
     @PreAuthorize("hasRole('BUYER')")
@@ -36,10 +57,50 @@ public class OrderController {
         return ResponseEntity.ok(orderService.sellerOrders(auth.getName()));
     }
 
+    // Admin feed, newest first and keyset paginated: the cursor for the next page comes back in X-Next-Cursor.
+    // from/to are inclusive UTC dates on createdAt.
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> allOrders() {
-        return ResponseEntity.ok(orderService.allOrders());
+    public ResponseEntity<List<OrderDTO>> allOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long buyerId,
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        OrderPage page = orderService.adminOrders(filter(status, from, to, buyerId, sellerId), after, limit);
+        var res = ResponseEntity.ok();
+        if (page.nextCursor() != null) res.header("X-Next-Cursor", page.nextCursor());
+        return res.body(page.items());
+    }
+
+    // Every matching order as one JSON array, written to the response as it is read from the database
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long buyerId,
+            @RequestParam(required = false) Long sellerId,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.json\"");
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            json.writeStartArray();
+            orderService.exportOrders(filter(status, from, to, buyerId, sellerId), order -> {
+                try {
+                    json.writeObject(order);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+        }
     }
 
     @PreAuthorize("hasAnyRole('BUYER','ADMIN','FARMER')")
@@ -55,4 +116,14 @@ public class OrderController {
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
         return ResponseEntity.ok(orderService.updateStatus(id, req.status(), auth.getName(), isAdmin));
     }
+
+    private static OrderFilter filter(OrderStatus status, LocalDate from, LocalDate to, Long buyerId, Long sellerId) {
+        return new OrderFilter(
+                status,
+                from == null ? null : from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                to == null ? null : to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                buyerId,
+                sellerId
+        );
+    }
 }
@@ -1,8 +1,10 @@
 package com.agromarket.agro_marketplace.controller;
 
 import com.agromarket.agro_marketplace.dto.payment.*;
+import com.agromarket.agro_marketplace.idempotency.IdempotentRequests;
 import com.agromarket.agro_marketplace.service.PaymentService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -13,14 +15,21 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotentRequests idempotency;
 
-    public PaymentController(PaymentService paymentService) { this.paymentService = paymentService; }
+    public PaymentController(PaymentService paymentService, IdempotentRequests idempotency) {
+        this.paymentService = paymentService;
+        this.idempotency = idempotency;
+    }
 
     @PreAuthorize("hasAnyRole('BUYER','ADMIN')")
     @PostMapping
-    public ResponseEntity<PaymentDTO> pay(@Valid @RequestBody CreatePaymentRequest req, Authentication auth) {
+    public ResponseEntity<PaymentDTO> pay(@Valid @RequestBody CreatePaymentRequest req, Authentication auth,
+                                          @RequestHeader(value = IdempotentRequests.HEADER, required = false) String key) {
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        return ResponseEntity.ok(paymentService.pay(req, auth.getName(), isAdmin));
+        // the charge runs in the background; poll GET /order/{orderId} or listen for the "payment" event
+        return idempotency.execute(key, auth.getName(), "POST /api/payments", req, HttpStatus.ACCEPTED, PaymentDTO.class,
+                () -> paymentService.pay(req, auth.getName(), isAdmin));
     }
 
     @PreAuthorize("hasAnyRole('BUYER','ADMIN')")
@@ -1,22 +1,42 @@
 package com.agromarket.agro_marketplace.controller;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
 import com.agromarket.agro_marketplace.dto.catalog.*;
+import com.agromarket.agro_marketplace.imports.CatalogImporter;
 import com.agromarket.agro_marketplace.service.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogImporter catalogImporter;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) { this.productService = productService; }
+    public ProductController(ProductService productService, CatalogImporter catalogImporter, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.catalogImporter = catalogImporter;
+        this.objectMapper = objectMapper;
+    }
 
     @PreAuthorize("hasAnyRole('FARMER','ADMIN','SELLER')")
     @PostMapping
@@ -24,17 +44,69 @@ public class ProductController {
         return ResponseEntity.ok(productService.create(req, auth.getName()));
     }
 
+    // Bulk create/update from a CSV or NDJSON body (see CatalogImporter). The report {"rows": [...], "summary": {...}}
+    // is written while the upload is still being read, one result per row in file order.
+    @PreAuthorize("hasAnyRole('FARMER','ADMIN','SELLER')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importCatalog(HttpServletRequest request, HttpServletResponse response, Authentication auth) throws IOException {
+        Charset charset = request.getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(request.getCharacterEncoding());
+        CatalogImporter.Import upload = catalogImporter.start(request.getContentType(),
+                new InputStreamReader(request.getInputStream(), charset), auth.getName());
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("rows");
+            ImportSummary summary = upload.run(row -> {
+                try {
+                    json.writeObject(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+            json.writeObjectField("summary", summary);
+            json.writeEndObject();
+        }
+    }
+
+    // Keyset paginated: the cursor for the next page comes back in the X-Next-Cursor header.
+    // With q the results come from the search index, ranked by relevance whatever the sort.
+    // If-None-Match / If-Modified-Since are answered from the in-memory listing version before any query runs.
     @GetMapping
     public ResponseEntity<List<ProductResponse>> list(
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) String q
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String sort,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(productService.list(categoryId, q));
+        CatalogVersion version = productService.listingVersion();
+        if (request.checkNotModified(version.etag(), version.lastModified())) return CatalogCaching.notModified();
+
+        ProductPage page = productService.list(categoryId, sellerId, q, after, limit, sort);
+        var res = CatalogCaching.ok();
+        if (page.nextCursor() != null) res.header("X-Next-Cursor", page.nextCursor());
+        return res.body(page.items());
+    }
+
+    // Listing size for dashboards, which would otherwise have to walk every page
+    @GetMapping("/count")
+    public ResponseEntity<Map<String, Long>> count(@RequestParam(required = false) Long categoryId,
+                                                   @RequestParam(required = false) Long sellerId,
+                                                   WebRequest request) {
+        CatalogVersion version = productService.listingVersion();
+        if (request.checkNotModified(version.etag(), version.lastModified())) return CatalogCaching.notModified();
+        return CatalogCaching.ok().body(Map.of("count", productService.count(categoryId, sellerId)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> get(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.get(id));
+    public ResponseEntity<ProductResponse> get(@PathVariable Long id, WebRequest request) {
+        CatalogVersion version = productService.version(id);
+        if (request.checkNotModified(version.etag(), version.lastModified())) return CatalogCaching.notModified();
+        return CatalogCaching.ok().body(productService.get(id));
     }
 
     @PreAuthorize("hasRole('FARMER')")
@@ -45,6 +117,13 @@ public class ProductController {
         return ResponseEntity.ok(productService.update(id, req, auth.getName()));
     }
 
+    // Flash-sale mode: stock for this product is reserved in memory (see HotStockLedger)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/hot")
+    public ResponseEntity<ProductResponse> setHot(@PathVariable Long id, @RequestParam boolean enabled) {
+        return ResponseEntity.ok(productService.setHot(id, enabled));
+    }
+
     @PreAuthorize("hasAnyRole('FARMER','ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
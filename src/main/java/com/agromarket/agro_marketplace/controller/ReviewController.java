@@ -1,5 +1,6 @@
 package com.agromarket.agro_marketplace.controller;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
 import com.agromarket.agro_marketplace.dto.review.*;
 import com.agromarket.agro_marketplace.service.ReviewService;
 import jakarta.validation.Valid;
@@ -7,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,9 +26,19 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.create(req, auth.getName()));
     }
 
-    // Public read (already permitted in SecurityConfig)
+    // Public read (already permitted in SecurityConfig), newest first; the cursor for the next page comes back
+    // in the X-Next-Cursor header. Average and histogram are on the product itself.
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<ReviewDTO>> byProduct(@PathVariable Long productId) {
-        return ResponseEntity.ok(reviewService.getByProduct(productId));
+    public ResponseEntity<List<ReviewDTO>> byProduct(@PathVariable Long productId,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(defaultValue = "20") int limit,
+                                                     WebRequest request) {
+        CatalogVersion version = reviewService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified())) return CatalogCaching.notModified();
+
+        ReviewPage page = reviewService.getByProduct(productId, after, limit);
+        var res = CatalogCaching.ok();
+        if (page.nextCursor() != null) res.header("X-Next-Cursor", page.nextCursor());
+        return res.body(page.items());
     }
 }
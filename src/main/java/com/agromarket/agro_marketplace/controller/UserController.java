@@ -1,7 +1,9 @@
 package com.agromarket.agro_marketplace.controller;
 
+import com.agromarket.agro_marketplace.dto.user.UpdateRolesRequest;
 import com.agromarket.agro_marketplace.dto.user.UserDTO;
 import com.agromarket.agro_marketplace.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -34,4 +36,10 @@ public class UserController {
         userService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/roles")
+    public ResponseEntity<UserDTO> updateRoles(@PathVariable Long id, @Valid @RequestBody UpdateRolesRequest req) {
+        return ResponseEntity.ok(userService.updateRoles(id, req.roles()));
+    }
 }
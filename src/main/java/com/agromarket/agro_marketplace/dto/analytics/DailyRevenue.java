@@ -0,0 +1,11 @@
+package com.agromarket.agro_marketplace.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRevenue(
+        LocalDate day,
+        BigDecimal revenue,
+        long unitsSold,
+        long ordersPaid
+) {}
@@ -0,0 +1,18 @@
+package com.agromarket.agro_marketplace.dto.analytics;
+
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// sellerId is null for marketplace-wide stats; totals are all-time, revenueByDay covers the requested days
+public record DashboardStats(
+        Long sellerId,
+        BigDecimal totalRevenue,
+        long totalUnitsSold,
+        long totalOrders,
+        Map<OrderStatus, Long> ordersByStatus,
+        List<DailyRevenue> revenueByDay,
+        List<TopProduct> topProducts
+) {}
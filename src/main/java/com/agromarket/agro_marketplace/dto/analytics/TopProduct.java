@@ -0,0 +1,10 @@
+package com.agromarket.agro_marketplace.dto.analytics;
+
+import java.math.BigDecimal;
+
+public record TopProduct(
+        Long productId,
+        String productName,
+        long unitsSold,
+        BigDecimal revenue
+) {}
@@ -1,3 +1,6 @@
 package com.agromarket.agro_marketplace.dto.auth;
 
-public record LoginResponse(String token) {}
+public record LoginResponse(
+        String token,
+        String refreshToken // only issued in stateless token mode
+) {}
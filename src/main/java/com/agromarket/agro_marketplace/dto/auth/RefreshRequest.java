@@ -0,0 +1,5 @@
+package com.agromarket.agro_marketplace.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(@NotBlank String refreshToken) {}
@@ -0,0 +1,10 @@
+package com.agromarket.agro_marketplace.dto.catalog;
+
+// Outcome of one row of a catalog import; line is where the row starts in the uploaded file
+public record ImportRowResult(
+        long line,
+        String sku,
+        ImportStatus status,
+        Long productId,
+        String error
+) {}
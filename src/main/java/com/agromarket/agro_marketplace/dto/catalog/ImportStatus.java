@@ -0,0 +1,7 @@
+package com.agromarket.agro_marketplace.dto.catalog;
+
+public enum ImportStatus {
+    CREATED,
+    UPDATED,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.agromarket.agro_marketplace.dto.catalog;
+
+// error is set when the file itself could not be read to the end; rows before it were still applied
+public record ImportSummary(
+        long rows,
+        long created,
+        long updated,
+        long failed,
+        String error
+) {}
@@ -0,0 +1,8 @@
+package com.agromarket.agro_marketplace.dto.catalog;
+
+import java.util.List;
+
+public record ProductPage(
+        List<ProductResponse> items,
+        String nextCursor // null on the last page
+) {}
@@ -11,5 +11,14 @@ public record ProductResponse(
         Long categoryId,
         String categoryName,
         Long sellerId,
-        String sellerName
-) {}
+        String sellerName,
+        RatingSummary rating
+) {
+    // JPQL constructor expression: the rating columns come straight from a left join on product_ratings
+    public ProductResponse(Long id, String name, String description, BigDecimal price, Integer stockQty,
+                           Long categoryId, String categoryName, Long sellerId, String sellerName,
+                           Long ratingCount, Long ratingSum, Long stars1, Long stars2, Long stars3, Long stars4, Long stars5) {
+        this(id, name, description, price, stockQty, categoryId, categoryName, sellerId, sellerName,
+                RatingSummary.of(ratingCount, ratingSum, stars1, stars2, stars3, stars4, stars5));
+    }
+}
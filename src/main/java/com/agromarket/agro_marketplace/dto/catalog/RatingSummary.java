@@ -0,0 +1,19 @@
+package com.agromarket.agro_marketplace.dto.catalog;
+
+import java.util.List;
+
+// average is null until the first review; stars holds the number of 1..5 star reviews, in that order
+public record RatingSummary(
+        long count,
+        Double average,
+        List<Long> stars
+) {
+    public static final RatingSummary NONE = new RatingSummary(0, null, List.of(0L, 0L, 0L, 0L, 0L));
+
+    // from product_ratings columns; all null when the product has no row yet
+    public static RatingSummary of(Long count, Long sum, Long s1, Long s2, Long s3, Long s4, Long s5) {
+        if (count == null || count == 0) return NONE;
+        double average = Math.round(sum * 100.0 / count) / 100.0;
+        return new RatingSummary(count, average, List.of(s1, s2, s3, s4, s5));
+    }
+}
@@ -0,0 +1,13 @@
+package com.agromarket.agro_marketplace.dto.message;
+
+import java.time.Instant;
+
+// One conversation as seen by the requesting user: the other party and what that user hasn't read yet
+public record ConversationDTO(
+        String id,
+        Long otherUserId,
+        String otherUserName,
+        String otherUserEmail,
+        Instant lastMessageAt,
+        int unread
+) {}
@@ -4,6 +4,7 @@ import java.time.Instant;
 
 public record MessageDTO(
         Long id,
+        String conversationId,
         String senderEmail,
         String receiverEmail,
         String content,
@@ -0,0 +1,9 @@
+package com.agromarket.agro_marketplace.dto.message;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record MessagePage(
+        List<MessageDTO> items,
+        String nextCursor
+) {}
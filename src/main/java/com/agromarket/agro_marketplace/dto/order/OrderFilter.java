@@ -0,0 +1,14 @@
+package com.agromarket.agro_marketplace.dto.order;
+
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+
+import java.time.Instant;
+
+// Admin order feed filters; null means "any". Orders are matched on from <= createdAt < to.
+public record OrderFilter(
+        OrderStatus status,
+        Instant from,
+        Instant to,
+        Long buyerId,
+        Long sellerId
+) {}
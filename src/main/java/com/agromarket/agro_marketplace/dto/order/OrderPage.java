@@ -0,0 +1,6 @@
+package com.agromarket.agro_marketplace.dto.order;
+
+import java.util.List;
+
+// One page of the admin order feed; nextCursor is null on the last page
+public record OrderPage(List<OrderDTO> items, String nextCursor) {}
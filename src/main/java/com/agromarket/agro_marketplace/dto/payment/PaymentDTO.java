@@ -12,5 +12,6 @@ public record PaymentDTO(
         PaymentStatus status,
         String method,
         String reference,
-        Instant paidAt
+        Instant paidAt,
+        String failureReason
 ) {}
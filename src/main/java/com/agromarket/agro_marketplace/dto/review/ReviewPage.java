@@ -0,0 +1,9 @@
+package com.agromarket.agro_marketplace.dto.review;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record ReviewPage(
+        List<ReviewDTO> items,
+        String nextCursor
+) {}
@@ -0,0 +1,10 @@
+package com.agromarket.agro_marketplace.dto.user;
+
+import com.agromarket.agro_marketplace.entity.Roles;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.Set;
+
+public record UpdateRolesRequest(
+        @NotEmpty Set<Roles> roles
+) {}
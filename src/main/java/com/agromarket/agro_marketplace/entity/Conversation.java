@@ -0,0 +1,33 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// One row per pair of users who have exchanged messages. The id is derived from the pair (lower user id first),
+// so both sides and every message resolve to it without a lookup. Unread counts are kept per side and moved by
+// the message write paths, never counted from the messages table.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "conversations", indexes = {
+        @Index(name = "idx_conversations_low_last", columnList = "user_low_id, last_message_at"),
+        @Index(name = "idx_conversations_high_last", columnList = "user_high_id, last_message_at")
+})
+public class Conversation {
+    @Id
+    @Column(length = 41)
+    private String id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY) private User userLow;
+    @ManyToOne(optional = false, fetch = FetchType.LAZY) private User userHigh;
+
+    @Column(nullable = false) private int unreadLow;
+    @Column(nullable = false) private int unreadHigh;
+
+    private Instant lastMessageAt;
+
+    public static String idFor(long userA, long userB) {
+        return Math.min(userA, userB) + ":" + Math.max(userA, userB);
+    }
+}
@@ -0,0 +1,30 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// One row per (buyer, product) the buyer has received, written when an order moves to DELIVERED.
+// It is what makes a buyer eligible to review the product; reviewed is claimed by the review itself,
+// so there can be at most one review per purchase.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "delivered_purchases")
+@IdClass(DeliveredPurchase.Key.class)
+public class DeliveredPurchase {
+
+    @Id private Long buyerId;
+    @Id private Long productId;
+
+    private Instant deliveredAt;
+
+    @Column(nullable = false) private boolean reviewed;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long buyerId;
+        private Long productId;
+    }
+}
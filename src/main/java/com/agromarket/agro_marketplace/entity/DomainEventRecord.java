@@ -0,0 +1,32 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// A domain event waiting to be delivered to its subscribers, written in the transaction that caused it and
+// deleted once every subscriber has handled it. The dispatcher claims a batch by stamping claimedBy and
+// lockedUntil; an expired lock makes the row claimable again. A row that can't be delivered is parked:
+// failedAt is set and it is kept, with its last error, but never claimed again.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "domain_events", indexes = {
+        @Index(name = "idx_domain_events_due", columnList = "next_attempt_at"),
+        @Index(name = "idx_domain_events_claimed", columnList = "claimed_by")
+})
+public class DomainEventRecord {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100) private String eventType;
+    @Column(nullable = false, columnDefinition = "text") private String payload;
+    @Column(nullable = false) private int attempts;
+    @Column(nullable = false) private Instant nextAttemptAt;
+    private Instant lockedUntil;
+    @Column(length = 36) private String claimedBy;
+    @Column(nullable = false) private Instant createdAt;
+    @Column(length = 500) private String lastError;
+    private Instant failedAt;
+}
@@ -0,0 +1,25 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// The stored response of a POST sent with an Idempotency-Key, written in the transaction that did the work.
+// id is the SHA-256 of caller, endpoint and key; requestHash catches a key reused for a different body.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    @Id @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false, length = 64) private String requestHash;
+    @Column(nullable = false) private int statusCode;
+    @Column(nullable = false, columnDefinition = "text") private String responseBody;
+    @Column(nullable = false) private Instant createdAt;
+    @Column(nullable = false) private Instant expiresAt;
+}
@@ -2,19 +2,30 @@ package com.agromarket.agro_marketplace.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        // keyset pages of an inbox and of a thread, newest first
+        @Index(name = "idx_messages_receiver_sent", columnList = "receiver_id, sent_at, id"),
+        @Index(name = "idx_messages_conversation_sent", columnList = "conversation_id, sent_at, id")
+})
 public class Message {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_id_seq")
+    @SequenceGenerator(name = "messages_id_seq", sequenceName = "messages_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('messages_id_seq')")
     private Long id;
 
     @ManyToOne(optional = false) private User sender;
     @ManyToOne(optional = false) private User receiver;
 
+    // Conversation.idFor(sender, receiver); filled in by the V11 migration for messages sent before conversations existed
+    @Column(length = 41)
+    private String conversationId;
+
     @Column(nullable = false, length = 2000)
     private String content;
 
@@ -2,6 +2,7 @@ package com.agromarket.agro_marketplace.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -10,10 +11,31 @@ import java.util.List;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_buyer_id", columnList = "buyer_id, id"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
+// everything OrderDTO reads, fetched with the order in one select
+@NamedEntityGraph(name = "Order.details",
+        attributeNodes = {
+                @NamedAttributeNode("buyer"),
+                @NamedAttributeNode(value = "items", subgraph = "items")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+                @NamedSubgraph(name = "product", attributeNodes = {
+                        @NamedAttributeNode("seller"),
+                        @NamedAttributeNode("category")
+                })
+        })
 public class Order {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // ids come from the table's sequence 50 at a time, so inserts can be batched; the column default
+    // keeps plain SQL inserts drawing from the same sequence
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('orders_id_seq')")
     private Long id;
 
     @ManyToOne(optional = false) private User buyer;
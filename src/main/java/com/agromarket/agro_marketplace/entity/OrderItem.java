@@ -2,15 +2,21 @@ package com.agromarket.agro_marketplace.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id"),
+        @Index(name = "idx_order_items_product_pending", columnList = "product_id, stock_applied")
+})
 public class OrderItem {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_seq")
+    @SequenceGenerator(name = "order_items_id_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('order_items_id_seq')")
     private Long id;
 
     @ManyToOne(optional = false) private Order order;
@@ -19,4 +25,9 @@ public class OrderItem {
     @Column(nullable = false) private Integer quantity;
     @Column(nullable = false) private BigDecimal unitPrice;
     @Column(nullable = false) private BigDecimal lineTotal;
+
+    // false while a hot-SKU reservation has not yet been written back to products.stock_qty
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "BOOLEAN DEFAULT TRUE")
+    private boolean stockApplied = true;
 }
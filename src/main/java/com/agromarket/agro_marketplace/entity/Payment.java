@@ -2,6 +2,7 @@ package com.agromarket.agro_marketplace.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -10,7 +11,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "payments")
 public class Payment {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_id_seq")
+    @SequenceGenerator(name = "payments_id_seq", sequenceName = "payments_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('payments_id_seq')")
     private Long id;
 
     @OneToOne(optional = false) private Order order;
@@ -23,4 +26,5 @@ public class Payment {
     private String method;     // COD, BankTransfer, JazzCash, EasyPaisa
     private String reference;  // transaction id / ref
     private Instant paidAt;
+    private String failureReason; // set when the gateway declines or gives up
 }
@@ -0,0 +1,28 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// A payment waiting for its gateway call. Written in the same transaction as the PENDING payment and
+// deleted in the transaction that settles it, so a crash between the two only means the call is retried.
+// A worker claims a row by setting lockedUntil; an expired lock makes the row claimable again.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "payment_outbox", indexes = {
+        @Index(name = "idx_payment_outbox_due", columnList = "next_attempt_at")
+})
+public class PaymentOutbox {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true) private Long paymentId;
+    @Column(nullable = false) private String provider;
+    @Column(nullable = false) private int attempts;
+    @Column(nullable = false) private Instant nextAttemptAt;
+    private Instant lockedUntil;
+    @Column(nullable = false) private Instant createdAt;
+    @Column(length = 500) private String lastError;
+}
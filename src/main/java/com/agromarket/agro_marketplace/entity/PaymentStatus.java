@@ -1,5 +1,6 @@
 package com.agromarket.agro_marketplace.entity;
 
 public enum PaymentStatus {
-    PENDING, SUCCESS, FAILED
+    // REFUND_DUE: charged, but the order had been cancelled or moved on by the time the charge settled
+    PENDING, SUCCESS, FAILED, REFUND_DUE
 }
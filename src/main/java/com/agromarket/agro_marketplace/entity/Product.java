@@ -2,22 +2,50 @@ package com.agromarket.agro_marketplace.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_id", columnList = "category_id, id"),
+        @Index(name = "idx_products_seller_id", columnList = "seller_id, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_products_seller_sku", columnNames = {"seller_id", "sku"})
+})
 public class Product {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('products_id_seq')")
     private Long id;
 
     @Column(nullable = false) private String name;
     @Column(length = 2000) private String description;
 
+    // the seller's own stock-keeping code, matched by the bulk import; unique per seller
+    @Column(length = 100) private String sku;
+
     @Column(nullable = false) private BigDecimal price;
     @Column(nullable = false) private Integer stockQty;
 
     @ManyToOne(optional = false) private Category category;
     @ManyToOne(optional = false) private User seller; // FARMER
+
+    // flash-sale SKU: stock reserved in memory by HotStockLedger, written back asynchronously
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private boolean hot = false;
+
+    // bumped by every write, including the JDBC stock updates; with updatedAt it validates conditional GETs
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
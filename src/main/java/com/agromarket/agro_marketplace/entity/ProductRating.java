@@ -0,0 +1,28 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Running review totals per product, moved by ReviewServiceImpl as reviews are written. A side table rather than
+// columns on products, so a new review never waits on the products row that checkouts lock.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "product_ratings")
+public class ProductRating {
+    @Id
+    private Long productId;
+
+    private long ratingCount;
+    private long ratingSum;
+
+    // histogram: number of 1..5 star reviews
+    private long stars1;
+    private long stars2;
+    private long stars3;
+    private long stars4;
+    private long stars5;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// All-time paid sales per product, maintained by SalesRollup
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "product_sales", indexes = {
+        @Index(name = "idx_product_sales_seller_units", columnList = "seller_id, units_sold"),
+        @Index(name = "idx_product_sales_units", columnList = "units_sold")
+})
+public class ProductSales {
+
+    @Id private Long productId;
+
+    @Column(nullable = false) private Long sellerId;
+    @Column(nullable = false) private long unitsSold;
+    @Column(nullable = false, precision = 14, scale = 2) private BigDecimal revenue;
+}
@@ -2,14 +2,20 @@ package com.agromarket.agro_marketplace.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews",
+        indexes = @Index(name = "idx_reviews_product_id", columnList = "product_id, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_reviews_product_reviewer", columnNames = {"product_id", "reviewer_id"}))
 public class Review {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reviews_id_seq")
+    @SequenceGenerator(name = "reviews_id_seq", sequenceName = "reviews_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('reviews_id_seq')")
     private Long id;
 
     @ManyToOne(optional = false) private Product product;
@@ -18,4 +24,11 @@ public class Review {
     private int rating; // 1..5
     @Column(length = 2000) private String comment;
     private Instant createdAt;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
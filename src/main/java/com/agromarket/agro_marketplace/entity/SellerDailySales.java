@@ -0,0 +1,31 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Rollup of paid sales per seller per UTC day, maintained by SalesRollup.
+// Summed over sellers it gives the marketplace-wide totals; leadOrdersPaid counts an order for its lowest seller id only.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "seller_daily_sales")
+@IdClass(SellerDailySales.Key.class)
+public class SellerDailySales {
+
+    @Id private Long sellerId;
+    @Id @Column(name = "sales_day") private LocalDate day;
+
+    @Column(nullable = false, precision = 14, scale = 2) private BigDecimal revenue;
+    @Column(nullable = false) private long unitsSold;
+    @Column(nullable = false) private long ordersPaid;
+    @Column(nullable = false) private long leadOrdersPaid;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long sellerId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,28 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// Current number of orders in each status per seller, maintained by SalesRollup.
+// An order with several sellers counts once for each of them in orders, and only for the lowest seller id in
+// leadOrders, so leadOrders sums to the marketplace-wide count.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "seller_order_status_counts")
+@IdClass(SellerOrderStatusCount.Key.class)
+public class SellerOrderStatusCount {
+
+    @Id private Long sellerId;
+    @Id @Enumerated(EnumType.STRING) @Column(length = 20) private OrderStatus status;
+
+    @Column(nullable = false) private long orders;
+    @Column(nullable = false) private long leadOrders;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long sellerId;
+        private OrderStatus status;
+    }
+}
@@ -0,0 +1,29 @@
+package com.agromarket.agro_marketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Append-only seller revenue ledger: one row per seller per paid order.
+// SellerRevenueLedger folds unapplied rows into users.revenue and flags them applied.
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "seller_revenue_ledger", indexes = {
+        @Index(name = "idx_revenue_ledger_seller_pending", columnList = "seller_id, applied")
+})
+public class SellerRevenueEntry {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false) private Long sellerId;
+    @Column(nullable = false) private Long orderId;
+    @Column(nullable = false, precision = 14, scale = 2) private BigDecimal amount;
+    @Column(nullable = false) private Instant createdAt;
+
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private boolean applied = false;
+}
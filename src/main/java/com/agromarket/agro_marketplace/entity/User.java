@@ -2,6 +2,8 @@ package com.agromarket.agro_marketplace.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.Set;
@@ -11,7 +13,9 @@ import java.util.Set;
 @Table(name = "users")
 public class User {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('users_id_seq')")
     private Long id;
 
     @Column(nullable = false) private String fullName;
@@ -25,10 +29,13 @@ public class User {
     private String phone;
     private String city;
 
+    // written only by SellerRevenueLedger's atomic increments, never by entity updates
     @Builder.Default
-    @Column(precision = 12, scale = 2, columnDefinition = "NUMERIC(12,2) DEFAULT 0")
+    @Column(precision = 12, scale = 2, columnDefinition = "NUMERIC(12,2) DEFAULT 0", updatable = false)
     private BigDecimal revenue = BigDecimal.ZERO;
 
+    // loaded for up to 100 users per select when a query returns many users (order lists, sellers)
+    @BatchSize(size = 100)
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
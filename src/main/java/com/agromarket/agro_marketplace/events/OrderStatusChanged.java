@@ -0,0 +1,12 @@
+package com.agromarket.agro_marketplace.events;
+
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+
+import java.time.Instant;
+
+// Payload of the "order-status" event; clients refetch the order if they need more than this
+public record OrderStatusChanged(
+        Long orderId,
+        OrderStatus status,
+        Instant at
+) {}
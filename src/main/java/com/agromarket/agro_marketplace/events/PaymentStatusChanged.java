@@ -0,0 +1,13 @@
+package com.agromarket.agro_marketplace.events;
+
+import com.agromarket.agro_marketplace.entity.PaymentStatus;
+
+import java.time.Instant;
+
+// Payload of the "payment" event, sent to the buyer when an asynchronous payment is settled
+public record PaymentStatusChanged(
+        Long orderId,
+        PaymentStatus status,
+        String failureReason,
+        Instant at
+) {}
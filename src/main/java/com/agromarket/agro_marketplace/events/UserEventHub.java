@@ -0,0 +1,256 @@
+package com.agromarket.agro_marketplace.events;
+
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+import com.agromarket.agro_marketplace.entity.PaymentStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Per-user fan-out of server-sent events. Streams are async servlet requests, so an idle stream holds a socket
+// but no thread. Each stream has a bounded buffer drained by a small sender pool: a publisher never waits on a
+// slow client, and when a client falls behind its oldest events are dropped and it gets a "resync" event
+// telling it to refetch. A client that stops reading blocks its sender in the write: once that send has taken
+// longer than the send timeout the stream is dropped, the sender interrupted, and the pool grows by one until
+// the stuck thread comes back. Streams live in this JVM; a multi-node deployment needs sticky streams or a relay.
+@Component
+public class UserEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventHub.class);
+
+    private final Map<String, Deque<Stream>> streams = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor senders;
+    private final int bufferSize;
+    private final int maxStreamsPerUser;
+    private final long timeoutMs;
+    private final long sendTimeoutNs;
+
+    public UserEventHub(@Value("${app.events.buffer-size:256}") int bufferSize,
+                        @Value("${app.events.max-streams-per-user:5}") int maxStreamsPerUser,
+                        @Value("${app.events.timeout-ms:1800000}") long timeoutMs,
+                        @Value("${app.events.send-threads:8}") int sendThreads,
+                        @Value("${app.events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.bufferSize = bufferSize;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNs = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.senders = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "sse-sender");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public SseEmitter subscribe(String email) {
+        return subscribe(email, new SseEmitter(timeoutMs));
+    }
+
+    // package-private so tests can stand in for a client
+    SseEmitter subscribe(String email, SseEmitter emitter) {
+        Stream stream = new Stream(email, emitter);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(e -> remove(stream));
+
+        Deque<Stream> mine = streams.compute(email, (k, existing) -> {
+            Deque<Stream> d = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            d.add(stream);
+            return d;
+        });
+        // one stream per tab is plenty; the oldest gives way
+        while (mine.size() > maxStreamsPerUser) {
+            Stream oldest = mine.pollFirst();
+            if (oldest != null) oldest.emitter.complete();
+        }
+        stream.offer(SseEmitter.event().name("ready").data(Instant.now().toString()));
+        return emitter;
+    }
+
+    public void publish(String email, String type, Object data) {
+        Deque<Stream> mine = streams.get(email);
+        if (mine == null) return;
+        for (Stream s : mine) s.offer(SseEmitter.event().name(type).data(data, MediaType.APPLICATION_JSON));
+    }
+
+    // Inside a transaction the event only goes out once it commits, so clients never see a rolled-back change
+    public void publishAfterCommit(Collection<String> emails, String type, Object data) {
+        Runnable send = () -> emails.forEach(e -> publish(e, type, data));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+
+    // Called by the domain event subscribers, after the change has committed
+    public void orderStatusChanged(Collection<String> recipients, Long orderId, OrderStatus status, Instant at) {
+        publishAfterCommit(recipients, "order-status", new OrderStatusChanged(orderId, status, at));
+    }
+
+    // Only the buyer hears about the payment itself; an approval also moves the order and sends "order-status"
+    public void paymentStatusChanged(String buyerEmail, Long orderId, PaymentStatus status, String failureReason, Instant at) {
+        publishAfterCommit(Set.of(buyerEmail), "payment", new PaymentStatusChanged(orderId, status, failureReason, at));
+    }
+
+    public int streamCount() {
+        return streams.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    // Keeps proxies from closing idle streams and finds the dead ones (the write fails)
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Deque<Stream> mine : streams.values()) {
+            for (Stream s : mine) s.offer(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    // Drops streams whose current send has outlasted the send timeout. The emitter itself is left to the stuck
+    // sender, which completes it once the write fails or returns: completing it here would wait on that write.
+    @Scheduled(fixedDelayString = "${app.events.send-check-ms:1000}")
+    public void dropStalledStreams() {
+        long now = System.nanoTime();
+        for (Deque<Stream> mine : streams.values()) {
+            for (Stream s : mine) {
+                long since = s.sendingSince;
+                if (since != 0 && now - since > sendTimeoutNs) s.stall();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(mine -> mine.forEach(s -> s.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.email, (k, mine) -> {
+            mine.remove(stream);
+            return mine.isEmpty() ? null : mine;
+        });
+    }
+
+    // A stalled sender is written off: another thread takes its place until it returns
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            int size = senders.getMaximumPoolSize() + delta;
+            if (delta > 0) {
+                senders.setMaximumPoolSize(size);
+                senders.setCorePoolSize(size);
+            } else {
+                senders.setCorePoolSize(size);
+                senders.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private final class Stream {
+        final String email;
+        final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean dropped;
+        private boolean stalled;
+        private Thread sender;
+        volatile long sendingSince; // System.nanoTime() when the send in progress started, 0 between sends
+
+        Stream(String email, SseEmitter emitter) {
+            this.email = email;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (stalled) return;
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    dropped = true;
+                }
+                buffer.addLast(event);
+                if (draining) return;
+                draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) { draining = false; }
+            }
+        }
+
+        // at most one drain per stream at a time, so events reach the client in publish order
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                boolean resync;
+                synchronized (this) {
+                    next = buffer.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                    resync = dropped;
+                    dropped = false;
+                }
+                try {
+                    synchronized (this) {
+                        sender = Thread.currentThread();
+                        sendingSince = System.nanoTime();
+                    }
+                    if (resync) emitter.send(SseEmitter.event().name("resync").data(Instant.now().toString()));
+                    emitter.send(next);
+                    if (sendDone()) {
+                        emitter.complete();
+                        return;
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    sendDone();
+                    log.debug("Dropping event stream of {}: {}", email, e.getMessage());
+                    remove(this);
+                    synchronized (this) {
+                        buffer.clear();
+                        draining = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        // true when the send was written off meanwhile: the stream is gone and the extra sender is given back
+        private synchronized boolean sendDone() {
+            sender = null;
+            sendingSince = 0;
+            if (!stalled) return false;
+            Thread.interrupted();
+            draining = false;
+            resizeSenders(-1);
+            return true;
+        }
+
+        synchronized void stall() {
+            if (stalled || sender == null) return;
+            stalled = true;
+            buffer.clear();
+            log.debug("Dropping event stream of {}: send took longer than the timeout", email);
+            remove(this);
+            resizeSenders(1);
+            sender.interrupt();
+        }
+    }
+}
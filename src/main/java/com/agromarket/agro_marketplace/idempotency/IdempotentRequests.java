@@ -0,0 +1,203 @@
+package com.agromarket.agro_marketplace.idempotency;
+
+import com.agromarket.agro_marketplace.entity.IdempotencyRecord;
+import com.agromarket.agro_marketplace.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Idempotency-Key support for POSTs that clients retry after a timeout. The first request with a key runs and its
+// response is stored in the same transaction as the work; a retry gets that response back (Idempotent-Replayed:
+// true) without touching the domain tables, and duplicates arriving while it runs wait for it instead of running
+// again. Keys are scoped to the caller and endpoint and expire after app.idempotency.ttl-ms. Across nodes the
+// primary key decides: the loser's transaction rolls back and it replays the winner's response.
+// A request that fails stores nothing, so it can be retried with the same key.
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Stored(String requestHash, int status, String body, long expiresAtMs) {}
+
+    private final IdempotencyRecordRepository repo;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final long ttlMs;
+    private final Cache<String, Stored> completed;
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentRequests(IdempotencyRecordRepository repo, TransactionTemplate tx, ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-ms:86400000}") long ttlMs,
+                              @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+                              MeterRegistry meterRegistry) {
+        this.repo = repo;
+        this.tx = tx;
+        this.objectMapper = objectMapper;
+        this.ttlMs = ttlMs;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, Stored>() {
+                    @Override
+                    public long expireAfterCreate(String key, Stored s, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, s.expiresAtMs() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Stored s, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, s, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Stored s, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotency");
+    }
+
+    // Runs action once per (caller, endpoint, key); without a key it simply runs
+    public <T> ResponseEntity<T> execute(String key, String caller, String endpoint, Object request,
+                                         HttpStatus status, Class<T> type, Supplier<T> action) {
+        if (key == null || key.isBlank()) return ResponseEntity.status(status).body(action.get());
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = sha256(caller + '\n' + endpoint + '\n' + key);
+        String requestHash = sha256(write(request));
+
+        Stored done = lookup(id);
+        if (done != null) return replay(done, requestHash, type);
+
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) return replay(await(running), requestHash, type);
+
+        try {
+            // it may have finished between the lookup and taking the slot
+            done = completed.getIfPresent(id);
+            if (done != null) {
+                mine.complete(done);
+                return replay(done, requestHash, type);
+            }
+
+            AtomicReference<T> result = new AtomicReference<>();
+            Stored stored;
+            try {
+                stored = tx.execute(s -> {
+                    T body = action.get();
+                    result.set(body);
+                    Instant now = Instant.now();
+                    Instant expiresAt = now.plusMillis(ttlMs);
+                    String json = write(body);
+                    repo.insert(id, requestHash, status.value(), json, now, expiresAt);
+                    return new Stored(requestHash, status.value(), json, expiresAt.toEpochMilli());
+                });
+            } catch (DataIntegrityViolationException e) {
+                // another node stored this key first; our work was rolled back with the failed insert
+                Stored winner = lookup(id);
+                if (winner == null) throw e;
+                mine.complete(winner);
+                return replay(winner, requestHash, type);
+            }
+
+            completed.put(id, stored);
+            mine.complete(stored);
+            return ResponseEntity.status(status).body(result.get());
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-ms:3600000}")
+    public void purgeExpired() {
+        repo.deleteExpired(Instant.now());
+    }
+
+    private Stored lookup(String id) {
+        Stored cached = completed.getIfPresent(id);
+        if (cached != null) return cached;
+
+        IdempotencyRecord r = repo.findById(id).orElse(null);
+        if (r == null) return null;
+        if (r.getExpiresAt().isBefore(Instant.now())) {
+            // expired but not purged yet: the key is free again
+            repo.deleteById(id);
+            return null;
+        }
+        Stored stored = new Stored(r.getRequestHash(), r.getStatusCode(), r.getResponseBody(), r.getExpiresAt().toEpochMilli());
+        completed.put(id, stored);
+        return stored;
+    }
+
+    private <T> ResponseEntity<T> replay(Stored stored, String requestHash, Class<T> type) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(stored.body(), type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is not readable", e);
+        }
+    }
+
+    // A duplicate gets the outcome of the request it waited for, failures included
+    private static Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
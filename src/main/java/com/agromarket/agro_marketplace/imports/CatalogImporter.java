@@ -0,0 +1,380 @@
+package com.agromarket.agro_marketplace.imports;
+
+import com.agromarket.agro_marketplace.cache.CatalogVersions;
+import com.agromarket.agro_marketplace.cache.CategoryCache;
+import com.agromarket.agro_marketplace.dto.catalog.CategoryDTO;
+import com.agromarket.agro_marketplace.dto.catalog.ImportRowResult;
+import com.agromarket.agro_marketplace.dto.catalog.ImportStatus;
+import com.agromarket.agro_marketplace.dto.catalog.ImportSummary;
+import com.agromarket.agro_marketplace.inventory.HotStockLedger;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.search.IndexedProduct;
+import com.agromarket.agro_marketplace.search.ProductSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Bulk create and update of a seller's products from a streamed CSV or NDJSON upload. Rows are read and
+// validated one at a time against the seller's sku/id map (loaded once) and the cached categories, so
+// validation never queries. Valid rows are written a chunk at a time, each chunk in its own transaction with one
+// JDBC batch of inserts and one of updates. Results go to the sink in file order as each chunk commits, so
+// neither the upload nor the report is ever held in memory.
+// A row matches a product by id or by sku (unique per seller); on an update, empty cells keep the current value.
+// A chunk that fails as a whole (e.g. another upload took the same sku) is retried row by row.
+@Component
+public class CatalogImporter {
+
+    private static final String SELLER_PRODUCTS_SQL = "SELECT id, sku FROM products WHERE seller_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, stock_qty, category_id, seller_id, sku, hot, version, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, 0, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE products SET sku = COALESCE(?, sku), name = COALESCE(?, name), description = COALESCE(?, description), " +
+            "price = COALESCE(?, price), stock_qty = COALESCE(?, stock_qty), category_id = COALESCE(?, category_id), " +
+            "version = version + 1, updated_at = ? WHERE id = ? AND seller_id = ?";
+
+    private static final int MAX_SKU = 100;
+    private static final int MAX_NAME = 255;
+    private static final int MAX_DESCRIPTION = 2000;
+
+    // id is null for a new product
+    private record Change(ImportRow row, String sku, Long id, String name, String description, BigDecimal price,
+                          Integer stockQty, Long categoryId, String error) {
+
+        static Change failed(ImportRow row, String error) {
+            return new Change(row, row.get("sku"), null, null, null, null, null, null, error);
+        }
+
+        boolean reindex() {
+            return id == null || name != null || description != null || categoryId != null;
+        }
+    }
+
+    // what a committed chunk produced: ids of the new products, rows that found nothing to update
+    private record Written(Map<Change, Long> created, Set<Change> missing, List<IndexedProduct> indexed) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final UserRepository userRepo;
+    private final CategoryCache categoryCache;
+    private final ProductSearchIndex searchIndex;
+    private final HotStockLedger hotStock;
+    private final CatalogVersions catalogVersions;
+    private final int chunkSize;
+    private final long maxRows;
+    private final int maxRowChars;
+
+    public CatalogImporter(JdbcTemplate jdbc, TransactionTemplate tx, UserRepository userRepo, CategoryCache categoryCache,
+                           ProductSearchIndex searchIndex, HotStockLedger hotStock, CatalogVersions catalogVersions,
+                           @Value("${app.catalog-import.chunk-size:500}") int chunkSize,
+                           @Value("${app.catalog-import.max-rows:100000}") long maxRows,
+                           @Value("${app.catalog-import.max-row-chars:10000}") int maxRowChars) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.userRepo = userRepo;
+        this.categoryCache = categoryCache;
+        this.searchIndex = searchIndex;
+        this.hotStock = hotStock;
+        this.catalogVersions = catalogVersions;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.maxRowChars = maxRowChars;
+    }
+
+    // Checks the seller, the format and (for CSV) the header, so a bad upload fails before any report is written
+    public Import start(String contentType, Reader in, String sellerEmail) throws IOException {
+        Long sellerId = userRepo.findIdByEmail(sellerEmail).orElseThrow(() -> new RuntimeException("Seller not found"));
+        ImportRowReader rows = ImportRowReader.forContentType(contentType, in, maxRowChars);
+        rows.open();
+        return new Import(sellerId, rows);
+    }
+
+    public final class Import {
+
+        private final Long sellerId;
+        private final ImportRowReader rows;
+        private final Map<String, Long> idsBySku = new HashMap<>();
+        private final Map<Long, String> skusById = new HashMap<>();
+        private final Set<Long> categoryIds;
+        private final Set<String> newSkus = new HashSet<>();
+        private long created;
+        private long updated;
+        private long failed;
+
+        private Import(Long sellerId, ImportRowReader rows) {
+            this.sellerId = sellerId;
+            this.rows = rows;
+            jdbc.query(SELLER_PRODUCTS_SQL, rs -> {
+                long id = rs.getLong(1);
+                String sku = rs.getString(2);
+                skusById.put(id, sku);
+                if (sku != null) idsBySku.put(sku, id);
+            }, sellerId);
+            this.categoryIds = categoryCache.snapshot().categories().stream().map(CategoryDTO::id).collect(Collectors.toSet());
+        }
+
+        public ImportSummary run(Consumer<ImportRowResult> sink) {
+            List<Change> chunk = new ArrayList<>(chunkSize);
+            long count = 0;
+            String error = null;
+            while (true) {
+                ImportRow row;
+                try {
+                    row = rows.next();
+                } catch (IOException | RuntimeException e) {
+                    error = "Import stopped: " + e.getMessage();
+                    break;
+                }
+                if (row == null) break;
+                if (count == maxRows) {
+                    error = "Import stopped at line " + row.line() + ": more than " + maxRows + " rows";
+                    break;
+                }
+                count++;
+                chunk.add(validate(row));
+                if (chunk.size() == chunkSize) {
+                    apply(chunk, sink);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) apply(chunk, sink);
+            return new ImportSummary(count, created, updated, failed, error);
+        }
+
+        private Change validate(ImportRow row) {
+            if (row.error() != null) return Change.failed(row, row.error());
+            String sku = row.get("sku");
+            if (sku != null && sku.length() > MAX_SKU) return Change.failed(row, "sku is longer than " + MAX_SKU + " characters");
+
+            Long id;
+            if (row.get("id") != null) {
+                try {
+                    id = Long.parseLong(row.get("id"));
+                } catch (NumberFormatException e) {
+                    return Change.failed(row, "id must be a whole number");
+                }
+                if (!skusById.containsKey(id)) return Change.failed(row, "Product not found");
+                Long owner = sku == null ? null : idsBySku.get(sku);
+                if (owner != null && !owner.equals(id)) return Change.failed(row, "sku belongs to another product");
+            } else if (sku == null) {
+                return Change.failed(row, "sku or id is required");
+            } else if (newSkus.contains(sku)) {
+                // same answer whether or not the first row's chunk has committed yet
+                return Change.failed(row, "Duplicate sku in this file");
+            } else {
+                id = idsBySku.get(sku);
+            }
+
+            String name = row.get("name");
+            if (name != null && name.length() > MAX_NAME) return Change.failed(row, "name is longer than " + MAX_NAME + " characters");
+            String description = row.get("description");
+            if (description != null && description.length() > MAX_DESCRIPTION) {
+                return Change.failed(row, "description is longer than " + MAX_DESCRIPTION + " characters");
+            }
+
+            BigDecimal price = null;
+            if (row.get("price") != null) {
+                try {
+                    price = new BigDecimal(row.get("price"));
+                } catch (NumberFormatException e) {
+                    return Change.failed(row, "price must be a number");
+                }
+                if (price.signum() <= 0) return Change.failed(row, "price must be positive");
+                if (price.stripTrailingZeros().scale() > 2) return Change.failed(row, "price has more than 2 decimals");
+            }
+
+            Integer stockQty = null;
+            if (row.get("stockqty") != null) {
+                try {
+                    stockQty = Integer.parseInt(row.get("stockqty"));
+                } catch (NumberFormatException e) {
+                    return Change.failed(row, "stockQty must be a whole number");
+                }
+                if (stockQty < 0) return Change.failed(row, "stockQty must not be negative");
+            }
+
+            Long categoryId = null;
+            if (row.get("categoryid") != null) {
+                try {
+                    categoryId = Long.parseLong(row.get("categoryid"));
+                } catch (NumberFormatException e) {
+                    return Change.failed(row, "categoryId must be a whole number");
+                }
+                if (!categoryIds.contains(categoryId)) return Change.failed(row, "Category not found");
+            } else if (row.get("category") != null) {
+                categoryId = categoryCache.idByName(row.get("category")).orElse(null);
+                if (categoryId == null) return Change.failed(row, "Category not found");
+            }
+
+            if (id == null) {
+                List<String> missing = new ArrayList<>();
+                if (name == null) missing.add("name");
+                if (price == null) missing.add("price");
+                if (stockQty == null) missing.add("stockQty");
+                if (categoryId == null) missing.add("category");
+                if (!missing.isEmpty()) return Change.failed(row, "A new product needs " + String.join(", ", missing));
+                newSkus.add(sku);
+            }
+            return new Change(row, sku, id, name, description, price, stockQty, categoryId, null);
+        }
+
+        private void apply(List<Change> chunk, Consumer<ImportRowResult> sink) {
+            List<Change> writes = chunk.stream().filter(c -> c.error() == null).toList();
+            Map<Change, String> errors = new HashMap<>();
+            Map<Change, Long> createdIds = new HashMap<>();
+            if (!writes.isEmpty()) save(writes, errors, createdIds);
+
+            for (Change c : chunk) {
+                String error = c.error() != null ? c.error() : errors.get(c);
+                if (error != null) {
+                    failed++;
+                    sink.accept(new ImportRowResult(c.row().line(), c.sku(), ImportStatus.FAILED, c.id(), error));
+                } else if (c.id() == null) {
+                    created++;
+                    sink.accept(new ImportRowResult(c.row().line(), c.sku(), ImportStatus.CREATED, createdIds.get(c), null));
+                } else {
+                    updated++;
+                    sink.accept(new ImportRowResult(c.row().line(), c.sku(), ImportStatus.UPDATED, c.id(), null));
+                }
+            }
+        }
+
+        private void save(List<Change> writes, Map<Change, String> errors, Map<Change, Long> createdIds) {
+            // hot SKUs: pending reservations are applied first so the new stock level replaces them; the live
+            // counters then move by the change rather than being reset, keeping reservations taken meanwhile
+            List<Long> hot = writes.stream().filter(c -> c.id() != null && c.stockQty() != null && hotStock.isHot(c.id()))
+                    .map(Change::id).toList();
+            hot.forEach(hotStock::flush);
+            Map<Long, Integer> hotStockBefore = new HashMap<>();
+            try {
+                Written written = tx.execute(s -> {
+                    // locked until commit, so the live counters can move by exactly what the import changed
+                    if (!hot.isEmpty()) {
+                        jdbc.query("SELECT id, stock_qty FROM products WHERE id IN (" + placeholders(hot.size()) + ") FOR UPDATE",
+                                rs -> {
+                                    hotStockBefore.put(rs.getLong(1), rs.getInt(2));
+                                }, hot.toArray());
+                    }
+                    return write(writes);
+                });
+                written.missing().forEach(c -> errors.put(c, "Product not found"));
+                createdIds.putAll(written.created());
+                remember(writes, written);
+                for (Change c : writes) {
+                    Integer before = hotStockBefore.get(c.id());
+                    if (before != null && c.stockQty() != null && !written.missing().contains(c)) hotStock.adjust(c.id(), c.stockQty() - before);
+                }
+                written.indexed().forEach(searchIndex::upsert);
+                catalogVersions.changed(CatalogVersions.PRODUCTS);
+            } catch (DataAccessException e) {
+                if (writes.size() > 1) {
+                    for (Change c : writes) save(List.of(c), errors, createdIds);
+                } else {
+                    errors.put(writes.get(0), e instanceof DuplicateKeyException
+                            ? "sku is already used by another product" : "Could not save the row");
+                }
+            }
+        }
+
+        private Written write(List<Change> writes) {
+            Timestamp now = Timestamp.from(Instant.now());
+            List<Change> inserts = writes.stream().filter(c -> c.id() == null).toList();
+            List<Change> updates = writes.stream().filter(c -> c.id() != null).toList();
+
+            if (!inserts.isEmpty()) {
+                jdbc.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, c) -> {
+                    ps.setString(1, c.name());
+                    setNullable(ps, 2, c.description(), Types.VARCHAR);
+                    ps.setBigDecimal(3, c.price());
+                    ps.setInt(4, c.stockQty());
+                    ps.setLong(5, c.categoryId());
+                    ps.setLong(6, sellerId);
+                    ps.setString(7, c.sku());
+                    ps.setTimestamp(8, now);
+                });
+            }
+
+            Set<Change> missing = new HashSet<>();
+            if (!updates.isEmpty()) {
+                int[][] counts = jdbc.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, c) -> {
+                    setNullable(ps, 1, c.sku(), Types.VARCHAR);
+                    setNullable(ps, 2, c.name(), Types.VARCHAR);
+                    setNullable(ps, 3, c.description(), Types.VARCHAR);
+                    setNullable(ps, 4, c.price(), Types.NUMERIC);
+                    setNullable(ps, 5, c.stockQty(), Types.INTEGER);
+                    setNullable(ps, 6, c.categoryId(), Types.BIGINT);
+                    ps.setTimestamp(7, now);
+                    ps.setLong(8, c.id());
+                    ps.setLong(9, sellerId);
+                });
+                for (int i = 0; i < updates.size(); i++) {
+                    if (counts[0][i] == 0) missing.add(updates.get(i));
+                }
+            }
+
+            Map<Change, Long> createdIds = new HashMap<>();
+            if (!inserts.isEmpty()) {
+                Map<String, Change> bySku = inserts.stream().collect(Collectors.toMap(Change::sku, c -> c));
+                jdbc.query("SELECT sku, id FROM products WHERE seller_id = ? AND sku IN (" + placeholders(inserts.size()) + ")",
+                        rs -> {
+                            createdIds.put(bySku.get(rs.getString(1)), rs.getLong(2));
+                        }, params(sellerId, inserts.stream().map(Change::sku).toList()));
+            }
+
+            // name, description and category feed the search index; price and stock don't
+            List<Long> reindex = new ArrayList<>();
+            for (Change c : writes) {
+                if (!c.reindex() || missing.contains(c)) continue;
+                reindex.add(c.id() != null ? c.id() : createdIds.get(c));
+            }
+            List<IndexedProduct> indexed = reindex.isEmpty() ? List.of() : jdbc.query(
+                    "SELECT id, name, description, category_id, seller_id FROM products WHERE id IN (" + placeholders(reindex.size()) + ")",
+                    (rs, i) -> new IndexedProduct(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5)),
+                    reindex.toArray());
+            return new Written(createdIds, missing, indexed);
+        }
+
+        // keeps the sku/id map in step with what just committed
+        private void remember(List<Change> writes, Written written) {
+            for (Change c : writes) {
+                if (written.missing().contains(c)) continue;
+                Long id = c.id() != null ? c.id() : written.created().get(c);
+                if (c.sku() == null) continue;
+                String previous = skusById.put(id, c.sku());
+                if (previous != null && !previous.equals(c.sku())) idsBySku.remove(previous);
+                idsBySku.put(c.sku(), id);
+            }
+        }
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) ps.setNull(index, sqlType);
+        else ps.setObject(index, value, sqlType);
+    }
+
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    private static Object[] params(Object first, List<?> rest) {
+        Object[] params = new Object[rest.size() + 1];
+        params[0] = first;
+        for (int i = 0; i < rest.size(); i++) params[i + 1] = rest.get(i);
+        return params;
+    }
+}
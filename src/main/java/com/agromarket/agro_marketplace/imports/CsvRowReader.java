@@ -0,0 +1,110 @@
+package com.agromarket.agro_marketplace.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// RFC 4180 CSV with a header row naming the columns (any order, case-insensitive). Quoted cells may hold
+// commas, doubled quotes and line breaks. Blank lines are skipped.
+class CsvRowReader implements ImportRowReader {
+
+    private final Reader in;
+    private final int maxRowChars;
+    private List<String> header;
+    private long line = 1;
+    private boolean eof;
+
+    CsvRowReader(Reader in, int maxRowChars) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+        this.maxRowChars = maxRowChars;
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (header == null) readHeader();
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        open();
+        while (true) {
+            long start = line;
+            List<String> cells = record();
+            if (cells == null) return null;
+            if (cells.size() == 1 && cells.get(0).isBlank()) continue;
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < Math.min(cells.size(), header.size()); i++) {
+                String value = cells.get(i).trim();
+                if (!value.isEmpty()) values.put(header.get(i), value);
+            }
+            // the cells that did line up still name the row in the report
+            String error = cells.size() == header.size() ? null
+                    : "Expected " + header.size() + " cells but found " + cells.size();
+            return new ImportRow(start, values, error);
+        }
+    }
+
+    // A bad header fails the whole upload before anything is written
+    private void readHeader() throws IOException {
+        List<String> cells = record();
+        if (cells == null) throw new RuntimeException("The CSV file is empty");
+        header = new ArrayList<>(cells.size());
+        for (String cell : cells) {
+            String column = ImportRowReader.column(cell.replace("\uFEFF", ""));
+            if (!COLUMNS.contains(column)) throw new RuntimeException("Unknown CSV column: " + cell.trim());
+            if (header.contains(column)) throw new RuntimeException("Duplicate CSV column: " + cell.trim());
+            header.add(column);
+        }
+    }
+
+    // The cells of the next record, or null at the end of the input
+    private List<String> record() throws IOException {
+        if (eof) return null;
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int length = 0;
+        while (true) {
+            int c = in.read();
+            if (c == -1) {
+                eof = true;
+                if (quoted) throw new RuntimeException("Unterminated quoted cell at line " + line);
+                if (!any) return null;
+                cells.add(cell.toString());
+                return cells;
+            }
+            any = true;
+            if (++length > maxRowChars) throw new RuntimeException("Row at line " + line + " is longer than " + maxRowChars + " characters");
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        cell.append('"');
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                cells.add(cell.toString());
+                return cells;
+            } else {
+                cell.append((char) c);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.agromarket.agro_marketplace.imports;
+
+import java.util.Map;
+
+// One parsed row: values by lower-cased column name, blank cells left out. error is set when the row
+// itself could not be parsed (a malformed JSON line, a CSV row with the wrong number of cells).
+public record ImportRow(long line, Map<String, String> values, String error) {
+
+    static ImportRow failed(long line, String error) {
+        return new ImportRow(line, Map.of(), error);
+    }
+
+    String get(String column) {
+        return values.get(column);
+    }
+}
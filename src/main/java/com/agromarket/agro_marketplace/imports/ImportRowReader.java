@@ -0,0 +1,36 @@
+package com.agromarket.agro_marketplace.imports;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Set;
+
+// Pulls rows off an upload one at a time, so only the current row is ever in memory
+public interface ImportRowReader {
+
+    Set<String> COLUMNS = Set.of("id", "sku", "name", "description", "price", "stockqty", "categoryid", "category");
+
+    MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    // reads whatever comes before the rows
+    default void open() throws IOException {}
+
+    // null at the end of the input
+    ImportRow next() throws IOException;
+
+    static ImportRowReader forContentType(String contentType, Reader in, int maxRowChars) {
+        MediaType type = contentType == null ? null : MediaType.parseMediaType(contentType);
+        if (type != null && NDJSON.includes(type)) return new NdjsonRowReader(in, maxRowChars);
+        if (type != null && CSV.includes(type)) return new CsvRowReader(in, maxRowChars);
+        throw new RuntimeException("Upload the catalog as text/csv or application/x-ndjson");
+    }
+
+    // stock is accepted for stockQty
+    static String column(String name) {
+        String c = name.trim().toLowerCase(Locale.ROOT).replace("_", "");
+        return c.equals("stock") ? "stockqty" : c;
+    }
+}
@@ -0,0 +1,85 @@
+package com.agromarket.agro_marketplace.imports;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// One JSON object per line; blank lines are skipped
+class NdjsonRowReader implements ImportRowReader {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final BufferedReader in;
+    private final int maxRowChars;
+    private long line;
+    // set by line() when it dropped the text of an overlong line
+    private boolean tooLong;
+
+    NdjsonRowReader(Reader in, int maxRowChars) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in);
+        this.maxRowChars = maxRowChars;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = line();
+            if (text == null) return null;
+            line++;
+        } while (!tooLong && text.isBlank());
+
+        if (tooLong) return ImportRow.failed(line, "Row is longer than " + maxRowChars + " characters");
+        JsonNode node;
+        try {
+            node = JSON.readTree(text);
+        } catch (IOException e) {
+            return ImportRow.failed(line, "Not a JSON object");
+        }
+        if (!node.isObject()) return ImportRow.failed(line, "Not a JSON object");
+
+        Map<String, String> values = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            String column = ImportRowReader.column(field.getKey());
+            if (!COLUMNS.contains(column)) return ImportRow.failed(line, "Unknown field: " + field.getKey());
+            JsonNode value = field.getValue();
+            if (value.isNull()) continue;
+            if (!value.isValueNode()) return ImportRow.failed(line, field.getKey() + " must be a string or number");
+            String s = value.asText().trim();
+            if (!s.isEmpty()) values.put(column, s);
+        }
+        return new ImportRow(line, values, null);
+    }
+
+    // The next line without its line break, or null at the end of the input. A line over maxRowChars is
+    // read to its end but not kept, so one huge line can't fill the heap.
+    private String line() throws IOException {
+        StringBuilder text = new StringBuilder();
+        tooLong = false;
+        int length = 0;
+        boolean any = false;
+        while (true) {
+            int c = in.read();
+            if (c == -1) {
+                if (!any) return null;
+                break;
+            }
+            any = true;
+            if (c == '\n') break;
+            // \r is JSON whitespace, kept but not counted so CRLF files get the same limit
+            if (c != '\r' && ++length > maxRowChars) {
+                tooLong = true;
+                text.setLength(0);
+            }
+            if (!tooLong) text.append((char) c);
+        }
+        return text.toString();
+    }
+}
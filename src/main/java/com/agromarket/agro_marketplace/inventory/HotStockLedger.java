@@ -0,0 +1,140 @@
+package com.agromarket.agro_marketplace.inventory;
+
+import com.agromarket.agro_marketplace.cache.CatalogVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-memory stock counters for products flagged hot, so flash-sale checkouts don't queue on one products row.
+// Order items of hot products are saved with stock_applied = false; they are the write-behind journal.
+// flushAll() periodically folds them into products.stock_qty, and reconcile() replays leftovers at startup.
+// Counters live in this JVM only: enable it on a single node (app.inventory.hot-ledger.enabled).
+@Component
+public class HotStockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockLedger.class);
+
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final CatalogVersions catalogVersions;
+
+    public HotStockLedger(@Value("${app.inventory.hot-ledger.enabled:false}") boolean enabled,
+                          JdbcTemplate jdbc, TransactionTemplate tx, CatalogVersions catalogVersions) {
+        this.enabled = enabled;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.catalogVersions = catalogVersions;
+    }
+
+    public boolean isHot(Long productId) {
+        return available.containsKey(productId);
+    }
+
+    // Lock-free: a CAS loop on the product's counter, no database access
+    public boolean tryReserve(Long productId, int qty) {
+        AtomicInteger counter = available.get(productId);
+        if (counter == null) return false;
+        while (true) {
+            int current = counter.get();
+            if (current < qty) return false;
+            if (counter.compareAndSet(current, current - qty)) return true;
+        }
+    }
+
+    public void release(Long productId, int qty) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) counter.addAndGet(qty);
+    }
+
+    // Start serving a product from memory. A product already tracked keeps its counter, since reservations
+    // in flight and their releases land on it
+    public void track(Long productId) {
+        if (!enabled || available.containsKey(productId)) return;
+        tx.executeWithoutResult(s -> {
+            flush0(productId);
+            Integer stock = jdbc.queryForObject("SELECT stock_qty FROM products WHERE id = ? FOR UPDATE", Integer.class, productId);
+            // lines the guarded write-back couldn't apply are still owed
+            Integer owed = jdbc.queryForObject(
+                    "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id = ? AND stock_applied = FALSE",
+                    Integer.class, productId);
+            available.putIfAbsent(productId, new AtomicInteger((stock == null ? 0 : stock) - owed));
+        });
+    }
+
+    // The seller moved stock_qty by delta; shift the live counter the same way instead of resetting it
+    public void adjust(Long productId, int delta) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) counter.addAndGet(delta);
+    }
+
+    public void untrack(Long productId) {
+        available.remove(productId);
+        flush(productId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        // reservations committed before a crash/restart but never written back
+        flushAll0();
+        if (!enabled) return;
+        List<Long> hot = jdbc.queryForList("SELECT id FROM products WHERE hot = TRUE", Long.class);
+        hot.forEach(this::track);
+        log.info("Hot stock ledger tracking {} products", hot.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot-ledger.flush-ms:500}")
+    public void flushAll() {
+        if (enabled) flushAll0();
+    }
+
+    public void flush(Long productId) {
+        tx.executeWithoutResult(s -> flush0(productId));
+    }
+
+    private void flushAll0() {
+        List<Long> pending = jdbc.queryForList(
+                "SELECT DISTINCT product_id FROM order_items WHERE stock_applied = FALSE", Long.class);
+        for (Long productId : pending) {
+            try {
+                flush(productId);
+            } catch (RuntimeException e) {
+                log.warn("Hot stock write-back failed for product {}, will retry", productId, e);
+            }
+        }
+    }
+
+    // Net decrement of all committed-but-unapplied lines in one transaction; the row locks stop a line
+    // from being applied twice by overlapping flushes
+    private void flush0(Long productId) {
+        List<Map<String, Object>> lines = jdbc.queryForList(
+                "SELECT id, quantity FROM order_items WHERE product_id = ? AND stock_applied = FALSE FOR UPDATE", productId);
+        if (lines.isEmpty()) return;
+
+        int total = lines.stream().mapToInt(l -> ((Number) l.get("quantity")).intValue()).sum();
+        int applied = jdbc.update("UPDATE products SET stock_qty = stock_qty - ?, version = version + 1, " +
+                "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock_qty >= ?", total, productId, total);
+        if (applied == 0) {
+            // the seller cut stock below what was already sold; the lines stay pending until it is raised again
+            log.warn("Hot stock write-back of {} units would take product {} below zero, will retry", total, productId);
+            return;
+        }
+        jdbc.batchUpdate("UPDATE order_items SET stock_applied = TRUE WHERE id = ?", lines, lines.size(),
+                (ps, l) -> ps.setLong(1, ((Number) l.get("id")).longValue()));
+        // as for checkouts, listings are revalidated when the product sells out
+        Integer left = jdbc.queryForObject("SELECT stock_qty FROM products WHERE id = ?", Integer.class, productId);
+        if (left != null && left == 0) catalogVersions.changed(CatalogVersions.PRODUCTS);
+    }
+}
@@ -0,0 +1,11 @@
+package com.agromarket.agro_marketplace.inventory;
+
+import com.agromarket.agro_marketplace.entity.Product;
+
+import java.util.Map;
+import java.util.Set;
+
+public record StockReservation(
+        Map<Long, Product> products,
+        Set<Long> deferredProductIds // hot SKUs: reserved in memory, stock_qty written back later
+) {}
@@ -0,0 +1,105 @@
+package com.agromarket.agro_marketplace.inventory;
+
+import com.agromarket.agro_marketplace.cache.CatalogVersions;
+import com.agromarket.agro_marketplace.entity.Product;
+import com.agromarket.agro_marketplace.repository.ProductRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+// Reserves stock for a whole cart at once: one locking select for all products, then one JDBC batch
+// of conditional decrements. Runs inside the caller's transaction so the row locks are held until it commits.
+// Hot products (see HotStockLedger) are reserved from memory instead and take no row lock.
+@Component
+public class StockReservationEngine {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock_qty = stock_qty - ?, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND stock_qty >= ?";
+
+    private final ProductRepository productRepo;
+    private final JdbcTemplate jdbc;
+    private final HotStockLedger hotStock;
+    private final CatalogVersions catalogVersions;
+
+    public StockReservationEngine(ProductRepository productRepo, JdbcTemplate jdbc, HotStockLedger hotStock,
+                                  CatalogVersions catalogVersions) {
+        this.productRepo = productRepo;
+        this.jdbc = jdbc;
+        this.hotStock = hotStock;
+        this.catalogVersions = catalogVersions;
+    }
+
+    // quantities: productId -> total quantity requested
+    @Transactional(propagation = Propagation.MANDATORY)
+    public StockReservation reserve(Map<Long, Integer> quantities) {
+        // ascending id order everywhere, so two carts with overlapping products can't deadlock
+        SortedMap<Long, Integer> locked = new TreeMap<>();
+        SortedMap<Long, Integer> deferred = new TreeMap<>();
+        quantities.forEach((id, qty) -> (hotStock.isHot(id) ? deferred : locked).put(id, qty));
+
+        Map<Long, Product> products = new HashMap<>();
+        if (!deferred.isEmpty()) reserveHot(deferred, products);
+        if (!locked.isEmpty()) reserveLocked(locked, products);
+        return new StockReservation(products, deferred.keySet());
+    }
+
+    private void reserveLocked(SortedMap<Long, Integer> quantities, Map<Long, Product> products) {
+        productRepo.lockAllByIdIn(quantities.keySet()).forEach(p -> products.put(p.getId(), p));
+
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            Product product = products.get(e.getKey());
+            if (product == null) throw new RuntimeException("Product not found: " + e.getKey());
+            if (product.getStockQty() < e.getValue())
+                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+        }
+
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        int[][] counts = jdbc.batchUpdate(DECREMENT_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        });
+
+        // the WHERE guard still protects stock against writers that don't take the row lock
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new RuntimeException("Insufficient stock for product: " + products.get(lines.get(i).getKey()).getName());
+                }
+                i++;
+            }
+        }
+        // listings are revalidated when a product sells out, not on every sale (the locked rows hold the stock before it)
+        boolean soldOut = quantities.entrySet().stream()
+                .anyMatch(e -> products.get(e.getKey()).getStockQty() == e.getValue().intValue());
+        if (soldOut) catalogVersions.changed(CatalogVersions.PRODUCTS);
+    }
+
+    private void reserveHot(SortedMap<Long, Integer> quantities, Map<Long, Product> products) {
+        productRepo.findAllById(quantities.keySet()).forEach(p -> products.put(p.getId(), p));
+
+        // give the units back if the order doesn't commit
+        List<Map.Entry<Long, Integer>> taken = new ArrayList<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) taken.forEach(e -> hotStock.release(e.getKey(), e.getValue()));
+            }
+        });
+
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            Product product = products.get(e.getKey());
+            if (product == null) throw new RuntimeException("Product not found: " + e.getKey());
+            if (!hotStock.tryReserve(e.getKey(), e.getValue()))
+                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+            taken.add(e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+// Something that happened to an order, payment or review, published through DomainEventOutbox.
+// Events carry what their subscribers need, so handling one rarely has to go back to the database.
+public sealed interface DomainEvent permits OrderCreated, OrderStatusChanged, PaymentCompleted, ReviewCreated {
+}
@@ -0,0 +1,192 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Delivers domain_events to the @EventListener methods of in-process subscribers, on one background thread.
+// A batch is claimed with a single update (stamped with a claim token and a lease, so several nodes can poll
+// the same table) and read back in id order; delivered rows are deleted in one batch at the end.
+// Delivery is at least once: a subscriber that throws gets the event again after a backoff, and so do the
+// subscribers that had already handled it, as does every subscriber when a node dies mid-batch and its lease
+// expires. Subscribers must therefore be idempotent. A retried event may arrive after later ones.
+// An event that fails max-attempts times is parked (failed_at set, row kept for inspection) and no longer
+// claimed; one whose type is unknown or whose payload can't be read is parked on the spot, as no retry helps.
+@Component
+public class DomainEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventDispatcher.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE domain_events SET claimed_by = ?, locked_until = ?, attempts = attempts + 1 " +
+            "WHERE id IN (SELECT id FROM domain_events WHERE failed_at IS NULL AND next_attempt_at <= ? " +
+            "AND (locked_until IS NULL OR locked_until < ?) ORDER BY id LIMIT ?) " +
+            "AND (locked_until IS NULL OR locked_until < ?)";
+    private static final String CLAIMED_SQL =
+            "SELECT id, event_type, payload, attempts FROM domain_events WHERE claimed_by = ? ORDER BY id";
+    private static final String DELETE_SQL = "DELETE FROM domain_events WHERE id = ?";
+    private static final String RESCHEDULE_SQL =
+            "UPDATE domain_events SET claimed_by = NULL, locked_until = NULL, next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String PARK_SQL =
+            "UPDATE domain_events SET claimed_by = NULL, locked_until = NULL, failed_at = ?, last_error = ? WHERE id = ?";
+
+    private record Claimed(long id, String type, String payload, int attempts) {}
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseMs;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter parked;
+
+    private final Map<String, Class<? extends DomainEvent>> types = new HashMap<>();
+    private final ExecutorService worker;
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+    private final Object dispatchLock = new Object();
+
+    @SuppressWarnings("unchecked")
+    public DomainEventDispatcher(JdbcTemplate jdbc, ObjectMapper objectMapper, ApplicationEventPublisher publisher,
+                                 MeterRegistry meters,
+                                 @Value("${app.domain-events.batch-size:200}") int batchSize,
+                                 @Value("${app.domain-events.max-attempts:10}") int maxAttempts,
+                                 @Value("${app.domain-events.lease-ms:60000}") long leaseMs,
+                                 @Value("${app.domain-events.retry-base-ms:1000}") long retryBaseMs,
+                                 @Value("${app.domain-events.retry-max-ms:600000}") long retryMaxMs) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseMs = leaseMs;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.delivered = Counter.builder("app.domain-events.dispatched").tag("outcome", "delivered").register(meters);
+        this.failed = Counter.builder("app.domain-events.dispatched").tag("outcome", "failed").register(meters);
+        this.parked = Counter.builder("app.domain-events.dispatched").tag("outcome", "parked").register(meters);
+        for (Class<?> type : DomainEvent.class.getPermittedSubclasses()) {
+            types.put(type.getSimpleName(), (Class<? extends DomainEvent>) type);
+        }
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "domain-events");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Picks up retries that came due, expired leases and events left by a restart
+    @Scheduled(fixedDelayString = "${app.domain-events.poll-ms:1000}")
+    public void poll() {
+        dispatch();
+    }
+
+    // Coalesces wake-ups: commits arriving while a dispatch is queued ride along with it
+    void dispatchSoon() {
+        if (!dispatchQueued.getAndSet(true)) {
+            try {
+                worker.execute(this::dispatch);
+            } catch (RejectedExecutionException e) {
+                dispatchQueued.set(false);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void dispatch() {
+        dispatchQueued.set(false);
+        synchronized (dispatchLock) {
+            try {
+                // a full batch means more may be waiting
+                while (dispatchBatch() == batchSize) {
+                    if (Thread.currentThread().isInterrupted()) return;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Domain event dispatch failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int dispatchBatch() {
+        String token = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Timestamp at = Timestamp.from(now);
+        int claimed = jdbc.update(CLAIM_SQL, token, Timestamp.from(now.plusMillis(leaseMs)), at, at, batchSize, at);
+        if (claimed == 0) return 0;
+
+        List<Claimed> batch = jdbc.query(CLAIMED_SQL, (rs, i) -> new Claimed(rs.getLong(1), rs.getString(2),
+                rs.getString(3), rs.getInt(4)), token);
+        List<Long> done = new ArrayList<>(batch.size());
+        for (Claimed event : batch) {
+            DomainEvent domainEvent;
+            try {
+                domainEvent = read(event);
+            } catch (RuntimeException e) {
+                park(event, e);
+                continue;
+            }
+            try {
+                publisher.publishEvent(domainEvent);
+                done.add(event.id());
+                delivered.increment();
+            } catch (RuntimeException e) {
+                if (event.attempts() >= maxAttempts) {
+                    park(event, e);
+                    continue;
+                }
+                failed.increment();
+                long delay = Math.min(retryMaxMs, retryBaseMs << Math.min(event.attempts() - 1, 20));
+                log.warn("Domain event {} ({}) failed on attempt {}, retrying in {} ms: {}",
+                        event.id(), event.type(), event.attempts(), delay, e.toString());
+                jdbc.update(RESCHEDULE_SQL, Timestamp.from(Instant.now().plusMillis(delay)), truncate(e.toString()), event.id());
+            }
+        }
+        if (!done.isEmpty()) {
+            jdbc.batchUpdate(DELETE_SQL, done, done.size(), (ps, id) -> ps.setLong(1, id));
+        }
+        return claimed;
+    }
+
+    private void park(Claimed event, RuntimeException e) {
+        parked.increment();
+        log.warn("Domain event {} ({}) parked after attempt {}: {}", event.id(), event.type(), event.attempts(), e.toString());
+        jdbc.update(PARK_SQL, Timestamp.from(Instant.now()), truncate(e.toString()), event.id());
+    }
+
+    private DomainEvent read(Claimed event) {
+        Class<? extends DomainEvent> type = types.get(event.type());
+        if (type == null) throw new IllegalStateException("Unknown domain event type " + event.type());
+        try {
+            return objectMapper.readValue(event.payload(), type);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable " + event.type() + " payload", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
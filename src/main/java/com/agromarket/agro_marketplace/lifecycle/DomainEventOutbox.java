@@ -0,0 +1,53 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// Writes domain events to the domain_events outbox in the caller's transaction: an event exists exactly when
+// the change it describes committed. One insert per event is all the publisher pays; subscribers run later on
+// the dispatcher, so a new reaction to orders doesn't add to checkout latency.
+@Component
+public class DomainEventOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO domain_events (event_type, payload, attempts, next_attempt_at, created_at) VALUES (?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final DomainEventDispatcher dispatcher;
+
+    public DomainEventOutbox(JdbcTemplate jdbc, ObjectMapper objectMapper, DomainEventDispatcher dispatcher) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Domain event is not serializable", e);
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbc.update(INSERT_SQL, event.getClass().getSimpleName(), payload, now, now);
+
+        // delivered as soon as it is committed instead of on the next poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.dispatchSoon();
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.agromarket.agro_marketplace.entity.Order;
+import com.agromarket.agro_marketplace.entity.OrderItem;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+
+public record OrderCreated(
+        Long orderId,
+        Long buyerId,
+        BigDecimal totalAmount,
+        Set<String> sellerEmails,
+        Instant at
+) implements DomainEvent {
+
+    // The order must have its items, products and sellers loaded
+    public static OrderCreated of(Order order) {
+        Set<String> sellers = new TreeSet<>();
+        for (OrderItem item : order.getItems()) sellers.add(item.getProduct().getSeller().getEmail());
+        return new OrderCreated(order.getId(), order.getBuyer().getId(), order.getTotalAmount(), sellers, order.getCreatedAt());
+    }
+}
@@ -0,0 +1,40 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+import com.agromarket.agro_marketplace.events.UserEventHub;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Pushes order and payment changes to the people involved over server-sent events. A repeated delivery just
+// makes a client refetch once more.
+@Component
+public class OrderNotifications {
+
+    private final UserEventHub hub;
+
+    public OrderNotifications(UserEventHub hub) {
+        this.hub = hub;
+    }
+
+    // sellers see new orders without reloading
+    @EventListener
+    public void on(OrderCreated e) {
+        hub.orderStatusChanged(e.sellerEmails(), e.orderId(), OrderStatus.CREATED, e.at());
+    }
+
+    @EventListener
+    public void on(OrderStatusChanged e) {
+        Set<String> recipients = new LinkedHashSet<>();
+        recipients.add(e.buyerEmail());
+        recipients.addAll(e.sellerEmails());
+        hub.orderStatusChanged(recipients, e.orderId(), e.to(), e.at());
+    }
+
+    @EventListener
+    public void on(PaymentCompleted e) {
+        hub.paymentStatusChanged(e.buyerEmail(), e.orderId(), e.status(), e.failureReason(), e.at());
+    }
+}
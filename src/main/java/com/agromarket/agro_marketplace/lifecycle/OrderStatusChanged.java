@@ -0,0 +1,34 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.agromarket.agro_marketplace.entity.Order;
+import com.agromarket.agro_marketplace.entity.OrderItem;
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public record OrderStatusChanged(
+        Long orderId,
+        Long buyerId,
+        String buyerEmail,
+        Set<String> sellerEmails,
+        List<Long> productIds,
+        OrderStatus from,
+        OrderStatus to,
+        Instant at
+) implements DomainEvent {
+
+    // The order must have its items, products and sellers loaded
+    public static OrderStatusChanged of(Order order, OrderStatus from) {
+        Set<String> sellers = new TreeSet<>();
+        Set<Long> products = new TreeSet<>();
+        for (OrderItem item : order.getItems()) {
+            sellers.add(item.getProduct().getSeller().getEmail());
+            products.add(item.getProduct().getId());
+        }
+        return new OrderStatusChanged(order.getId(), order.getBuyer().getId(), order.getBuyer().getEmail(), sellers,
+                List.copyOf(products), from, order.getStatus(), Instant.now());
+    }
+}
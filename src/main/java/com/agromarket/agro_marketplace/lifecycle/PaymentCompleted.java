@@ -0,0 +1,22 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.agromarket.agro_marketplace.entity.Payment;
+import com.agromarket.agro_marketplace.entity.PaymentStatus;
+
+import java.time.Instant;
+
+// A payment left PENDING: SUCCESS, FAILED with the gateway's reason, or REFUND_DUE when its order had moved on
+public record PaymentCompleted(
+        Long paymentId,
+        Long orderId,
+        String buyerEmail,
+        PaymentStatus status,
+        String failureReason,
+        Instant at
+) implements DomainEvent {
+
+    public static PaymentCompleted of(Payment payment) {
+        return new PaymentCompleted(payment.getId(), payment.getOrder().getId(), payment.getOrder().getBuyer().getEmail(),
+                payment.getStatus(), payment.getFailureReason(), Instant.now());
+    }
+}
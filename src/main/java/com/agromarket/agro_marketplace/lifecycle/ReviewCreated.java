@@ -0,0 +1,11 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import java.time.Instant;
+
+public record ReviewCreated(
+        Long reviewId,
+        Long productId,
+        Long reviewerId,
+        int rating,
+        Instant at
+) implements DomainEvent {}
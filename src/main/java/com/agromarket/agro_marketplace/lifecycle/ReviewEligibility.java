@@ -0,0 +1,37 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+// A delivered order makes its buyer eligible to review each product in it (delivered_purchases).
+// The insert ignores rows that already exist, so a repeated delivery changes nothing; product ids arrive
+// sorted, so concurrent deliveries can't deadlock.
+@Component
+public class ReviewEligibility {
+
+    private static final String RECORD_SQL = "INSERT INTO delivered_purchases (buyer_id, product_id, delivered_at, reviewed) " +
+            "VALUES (?, ?, ?, FALSE) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbc;
+
+    public ReviewEligibility(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @EventListener
+    @Transactional
+    public void on(OrderStatusChanged e) {
+        if (e.to() != OrderStatus.DELIVERED || e.from() == OrderStatus.DELIVERED) return;
+        Timestamp at = Timestamp.from(e.at());
+        jdbc.batchUpdate(RECORD_SQL, e.productIds(), e.productIds().size(), (ps, productId) -> {
+            ps.setLong(1, e.buyerId());
+            ps.setLong(2, productId);
+            ps.setTimestamp(3, at);
+        });
+    }
+}
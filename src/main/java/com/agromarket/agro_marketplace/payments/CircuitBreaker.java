@@ -0,0 +1,60 @@
+package com.agromarket.agro_marketplace.payments;
+
+// Per-provider breaker: after failureThreshold consecutive failures (errors or timeouts) the provider is left
+// alone for openMs, then a single trial call decides whether it closes again or stays open for another openMs.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    // true when a call may start now; in HALF_OPEN only the one trial call gets through
+    public synchronized boolean tryAcquire(long nowMs) {
+        if (state == State.CLOSED) return true;
+        if (state == State.OPEN && nowMs - openedAt >= openMs) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    // true when tryAcquire would refuse; lets callers skip the provider's work without taking the trial
+    public synchronized boolean blocks(long nowMs) {
+        return state == State.HALF_OPEN || (state == State.OPEN && nowMs - openedAt < openMs);
+    }
+
+    // A permit that was acquired but never used for a call
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) state = State.OPEN;
+    }
+
+    public synchronized void onSuccess() {
+        // a late success from a call started before the breaker opened doesn't close it
+        if (state == State.OPEN) return;
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    public synchronized void onFailure(long nowMs) {
+        if (state == State.OPEN) return;
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nowMs;
+            failures = 0;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
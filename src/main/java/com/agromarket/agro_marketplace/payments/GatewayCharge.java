@@ -0,0 +1,12 @@
+package com.agromarket.agro_marketplace.payments;
+
+import java.math.BigDecimal;
+
+public record GatewayCharge(
+        Long paymentId,
+        Long orderId,
+        BigDecimal amount,
+        String provider,
+        String reference,
+        String idempotencyKey
+) {}
@@ -0,0 +1,15 @@
+package com.agromarket.agro_marketplace.payments;
+
+public record GatewayResult(
+        boolean approved,
+        String reference,
+        String declineReason
+) {
+    public static GatewayResult approved(String reference) {
+        return new GatewayResult(true, reference, null);
+    }
+
+    public static GatewayResult declined(String reason) {
+        return new GatewayResult(false, null, reason);
+    }
+}
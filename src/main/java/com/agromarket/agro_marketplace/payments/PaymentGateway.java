@@ -0,0 +1,15 @@
+package com.agromarket.agro_marketplace.payments;
+
+import java.time.Duration;
+
+// A payment provider. Gateways are tried in @Order order and the first one that supports the provider key
+// (the payment method, lower-cased, letters and digits only) gets the charge.
+// A decline is a result; an exception means the provider could not answer and the charge is retried later,
+// so charge() must be idempotent on GatewayCharge.idempotencyKey. The call should give up by itself within
+// the timeout; the worker is interrupted when it doesn't.
+public interface PaymentGateway {
+
+    boolean supports(String provider);
+
+    GatewayResult charge(GatewayCharge charge, Duration timeout) throws Exception;
+}
@@ -0,0 +1,334 @@
+package com.agromarket.agro_marketplace.payments;
+
+import com.agromarket.agro_marketplace.entity.Payment;
+import com.agromarket.agro_marketplace.entity.PaymentOutbox;
+import com.agromarket.agro_marketplace.entity.PaymentStatus;
+import com.agromarket.agro_marketplace.repository.PaymentOutboxRepository;
+import com.agromarket.agro_marketplace.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drains payment_outbox on a bounded worker pool. The dispatcher claims due rows only for free worker slots,
+// so little is held in memory and a restart just leaves rows for the next poll once their claim expires.
+// Every provider has its own timeout, circuit breaker and cap on concurrent calls
+// (app.payments.providers.<provider>.*, falling back to app.payments.*): a provider that hangs or fails
+// can hold at most its cap of workers, and once its breaker opens its rows are not even claimed.
+// Failed calls are retried with exponential backoff; after max-attempts the payment is marked FAILED.
+@Component
+public class PaymentProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    // a claim outlives the provider timeout by this much, covering the settle transaction
+    private static final long CLAIM_GRACE_MS = 30_000;
+
+    private final PaymentOutboxRepository outboxRepo;
+    private final PaymentRepository paymentRepo;
+    private final PaymentSettlement settlement;
+    private final List<PaymentGateway> gateways;
+    private final TransactionTemplate tx;
+    private final Environment env;
+    private final MeterRegistry meters;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final int workerCount;
+
+    private final Map<String, Provider> providers = new ConcurrentHashMap<>();
+    // one per worker; a claim holds its slot until the job is done
+    private final Semaphore slots;
+    private final ExecutorService workers;
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService watchdog;
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+    private final Object dispatchLock = new Object();
+
+    public PaymentProcessor(PaymentOutboxRepository outboxRepo, PaymentRepository paymentRepo,
+                            PaymentSettlement settlement, List<PaymentGateway> gateways, TransactionTemplate tx,
+                            Environment env, MeterRegistry meters,
+                            @Value("${app.payments.workers:8}") int workerCount,
+                            @Value("${app.payments.max-attempts:5}") int maxAttempts,
+                            @Value("${app.payments.retry-base-ms:2000}") long retryBaseMs,
+                            @Value("${app.payments.retry-max-ms:300000}") long retryMaxMs) {
+        this.outboxRepo = outboxRepo;
+        this.paymentRepo = paymentRepo;
+        this.settlement = settlement;
+        this.gateways = gateways;
+        this.tx = tx;
+        this.env = env;
+        this.meters = meters;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.workerCount = workerCount;
+        this.slots = new Semaphore(workerCount);
+        this.workers = Executors.newFixedThreadPool(workerCount, daemon("payment-worker"));
+        this.dispatcher = Executors.newSingleThreadExecutor(daemon("payment-dispatcher"));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(daemon("payment-watchdog"));
+    }
+
+    // Called by pay(): the new row is dispatched as soon as it is committed instead of on the next poll
+    public void dispatchAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatchSoon();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatchSoon();
+            }
+        });
+    }
+
+    // Catches rows whose retry came due, whose claim expired or that were left by a restart
+    @Scheduled(fixedDelayString = "${app.payments.poll-ms:1000}")
+    public void poll() {
+        dispatch();
+    }
+
+    public CircuitBreaker.State circuitState(String provider) {
+        return provider(provider).breaker.state();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    private void dispatchSoon() {
+        if (!dispatchQueued.getAndSet(true)) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RejectedExecutionException e) {
+                dispatchQueued.set(false);
+            }
+        }
+    }
+
+    private void dispatch() {
+        dispatchQueued.set(false);
+        synchronized (dispatchLock) {
+            int free = slots.availablePermits();
+            if (free == 0) return;
+
+            Instant now = Instant.now();
+            long nowMs = now.toEpochMilli();
+            // "" keeps the NOT IN list non-empty
+            Set<String> skipped = new HashSet<>(Set.of(""));
+            providers.forEach((name, p) -> { if (p.busy(nowMs)) skipped.add(name); });
+
+            // the whole batch is claimed in one transaction; workers only see it once it's committed
+            List<Claim> claimed = new ArrayList<>();
+            try {
+                tx.executeWithoutResult(status -> {
+                    for (PaymentOutbox job : outboxRepo.findDue(now, skipped, Limit.of(free))) {
+                        if (!slots.tryAcquire()) return;
+                        Provider provider = provider(job.getProvider());
+                        if (!provider.tryAcquire(nowMs)) {
+                            slots.release();
+                            continue;
+                        }
+                        Claim claim = new Claim(job, provider);
+                        claimed.add(claim);
+                        if (outboxRepo.claim(job.getId(), now, now.plusMillis(provider.timeoutMs + CLAIM_GRACE_MS)) == 0) {
+                            claimed.remove(claim);
+                            provider.abandon();
+                            slots.release();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Claiming due payments failed: {}", e.toString());
+                for (Claim c : claimed) {
+                    c.provider.abandon();
+                    slots.release();
+                }
+                return;
+            }
+            for (Claim c : claimed) workers.execute(() -> process(c.job, c.provider));
+        }
+    }
+
+    private void process(PaymentOutbox job, Provider provider) {
+        int attempt = job.getAttempts() + 1;
+        boolean called = false;
+        try {
+            Payment payment = paymentRepo.findById(job.getPaymentId()).orElse(null);
+            if (payment == null || payment.getStatus() != PaymentStatus.PENDING) {
+                settlement.discard(job.getPaymentId());
+                return;
+            }
+            PaymentGateway gateway = gateways.stream().filter(g -> g.supports(provider.name)).findFirst().orElse(null);
+            if (gateway == null) {
+                settlement.decline(payment.getId(), "Unsupported payment method");
+                return;
+            }
+
+            // one key per pay() attempt: retries of this outbox row replay it, paying again after a decline
+            // gets a fresh one (the FAILED payment row is reused, its outbox row is not)
+            GatewayCharge charge = new GatewayCharge(payment.getId(), payment.getOrder().getId(), payment.getAmount(),
+                    provider.name, payment.getReference(), "payment-" + payment.getId() + "-" + job.getId());
+            called = true;
+            GatewayResult result;
+            try {
+                result = call(gateway, charge, provider);
+            } catch (Exception e) {
+                retryOrGiveUp(job, attempt, e.toString());
+                return;
+            }
+
+            if (result.approved()) settlement.approve(payment.getId(), result.reference());
+            else settlement.decline(payment.getId(), result.declineReason() != null ? result.declineReason() : "Declined");
+        } catch (Exception e) {
+            // our side failed (database, settle); the charge itself is idempotent, so just try again later
+            log.warn("Payment {} could not be processed: {}", job.getPaymentId(), e.toString());
+            retryOrGiveUp(job, attempt, e.toString());
+        } finally {
+            if (!called) provider.abandon();
+            slots.release();
+            dispatchSoon();
+        }
+    }
+
+    // The gateway call under the provider's timeout. The worker is interrupted when the gateway overruns;
+    // an answer that still arrives late is used, but counts as a failure for the breaker.
+    private GatewayResult call(PaymentGateway gateway, GatewayCharge charge, Provider provider) throws Exception {
+        Thread worker = Thread.currentThread();
+        AtomicBoolean finished = new AtomicBoolean();
+        ScheduledFuture<?> alarm = watchdog.schedule(() -> {
+            if (finished.compareAndSet(false, true)) worker.interrupt();
+        }, provider.timeoutMs, TimeUnit.MILLISECONDS);
+
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            GatewayResult result = gateway.charge(charge, Duration.ofMillis(provider.timeoutMs));
+            boolean late = (System.nanoTime() - started) / 1_000_000 > provider.timeoutMs;
+            outcome = late ? "late" : result.approved() ? "approved" : "declined";
+            provider.finished(!late);
+            return result;
+        } catch (Exception e) {
+            provider.finished(false);
+            // finished is only set here when the alarm fired
+            if (!finished.get()) throw e;
+            outcome = "timeout";
+            throw new TimeoutException("Timed out after " + provider.timeoutMs + " ms");
+        } finally {
+            if (!finished.compareAndSet(false, true)) {
+                // the alarm won the race; let its interrupt land before clearing it
+                while (!alarm.isDone()) Thread.onSpinWait();
+            }
+            alarm.cancel(false);
+            Thread.interrupted();
+            Counter.builder("app.payments.gateway.calls").description("Payment gateway calls by outcome")
+                    .tag("provider", provider.name).tag("outcome", outcome).register(meters).increment();
+        }
+    }
+
+    private void retryOrGiveUp(PaymentOutbox job, int attempt, String error) {
+        try {
+            if (attempt >= maxAttempts) {
+                log.warn("Payment {} failed after {} attempts: {}", job.getPaymentId(), attempt, error);
+                settlement.decline(job.getPaymentId(), "Payment provider unavailable, please try again");
+                return;
+            }
+            long backoff = Math.min(retryMaxMs, retryBaseMs << Math.min(attempt - 1, 20));
+            outboxRepo.reschedule(job.getId(), Instant.now().plusMillis(backoff), truncate(error));
+        } catch (Exception e) {
+            // the claim expires and the row is picked up again
+            log.warn("Payment {} could not be rescheduled: {}", job.getPaymentId(), e.toString());
+        }
+    }
+
+    private Provider provider(String name) {
+        return providers.computeIfAbsent(name, n -> new Provider(n,
+                setting(n, "timeout-ms", 5_000),
+                (int) setting(n, "max-in-flight", Math.max(1, workerCount * 3 / 4)),
+                new CircuitBreaker((int) setting(n, "failure-threshold", 5), setting(n, "open-ms", 30_000))));
+    }
+
+    private long setting(String provider, String key, long fallback) {
+        Long own = env.getProperty("app.payments.providers." + provider + "." + key, Long.class);
+        return own != null ? own : env.getProperty("app.payments." + key, Long.class, fallback);
+    }
+
+    private static String truncate(String s) {
+        return s == null || s.length() <= 500 ? s : s.substring(0, 500);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private record Claim(PaymentOutbox job, Provider provider) {}
+
+    // Breaker plus a cap on calls in flight, so a slow provider can only tie up its share of the workers
+    private static final class Provider {
+        final String name;
+        final long timeoutMs;
+        final int maxInFlight;
+        final CircuitBreaker breaker;
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        Provider(String name, long timeoutMs, int maxInFlight, CircuitBreaker breaker) {
+            this.name = name;
+            this.timeoutMs = timeoutMs;
+            this.maxInFlight = maxInFlight;
+            this.breaker = breaker;
+        }
+
+        boolean busy(long nowMs) {
+            return inFlight.get() >= maxInFlight || breaker.blocks(nowMs);
+        }
+
+        boolean tryAcquire(long nowMs) {
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                return false;
+            }
+            if (!breaker.tryAcquire(nowMs)) {
+                inFlight.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        // a permit that was never used for a call
+        void abandon() {
+            inFlight.decrementAndGet();
+            breaker.release();
+        }
+
+        // ok: the provider answered in time, approved or declined; false for errors and timeouts
+        void finished(boolean ok) {
+            inFlight.decrementAndGet();
+            if (ok) breaker.onSuccess();
+            else breaker.onFailure(System.currentTimeMillis());
+        }
+    }
+}
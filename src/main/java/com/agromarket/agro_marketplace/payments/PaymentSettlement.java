@@ -0,0 +1,90 @@
+package com.agromarket.agro_marketplace.payments;
+
+import com.agromarket.agro_marketplace.analytics.SalesRollup;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.lifecycle.DomainEventOutbox;
+import com.agromarket.agro_marketplace.lifecycle.OrderStatusChanged;
+import com.agromarket.agro_marketplace.lifecycle.PaymentCompleted;
+import com.agromarket.agro_marketplace.repository.OrderRepository;
+import com.agromarket.agro_marketplace.repository.PaymentOutboxRepository;
+import com.agromarket.agro_marketplace.repository.PaymentRepository;
+import com.agromarket.agro_marketplace.revenue.SellerRevenueLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+// Applies a gateway outcome in one short transaction, after the call has returned: the payment leaves PENDING,
+// its outbox row goes away and, for an approval, the order, revenue ledger and rollups move with it.
+// The PENDING guard makes settling twice (e.g. after an expired claim) a no-op. An approval only pays an order
+// still in CREATED; one cancelled while the charge was out keeps its status and the payment becomes REFUND_DUE.
+@Component
+public class PaymentSettlement {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentSettlement.class);
+
+    private final PaymentRepository paymentRepo;
+    private final PaymentOutboxRepository outboxRepo;
+    private final OrderRepository orderRepo;
+    private final SellerRevenueLedger revenueLedger;
+    private final SalesRollup salesRollup;
+    private final DomainEventOutbox domainEvents;
+
+    public PaymentSettlement(PaymentRepository paymentRepo, PaymentOutboxRepository outboxRepo, OrderRepository orderRepo,
+                             SellerRevenueLedger revenueLedger, SalesRollup salesRollup, DomainEventOutbox domainEvents) {
+        this.paymentRepo = paymentRepo;
+        this.outboxRepo = outboxRepo;
+        this.orderRepo = orderRepo;
+        this.revenueLedger = revenueLedger;
+        this.salesRollup = salesRollup;
+        this.domainEvents = domainEvents;
+    }
+
+    @Transactional
+    public boolean approve(Long paymentId, String providerReference) {
+        Instant paidAt = Instant.now();
+        outboxRepo.deleteByPaymentId(paymentId);
+        if (paymentRepo.settle(paymentId, PaymentStatus.SUCCESS, paidAt, null, providerReference) == 0) return false;
+
+        // decided by the update itself, before anything is loaded, so a concurrent status change can't slip in
+        if (orderRepo.markPaidByPayment(paymentId) == 0) {
+            paymentRepo.flagRefundDue(paymentId, "Order was no longer awaiting payment when the charge settled");
+            Payment owed = paymentRepo.findById(paymentId).orElseThrow();
+            log.warn("Payment {} settled for order {} in status {}; refund due", paymentId, owed.getOrder().getId(),
+                    owed.getOrder().getStatus());
+            domainEvents.publish(PaymentCompleted.of(owed));
+            return true;
+        }
+
+        Payment payment = paymentRepo.findById(paymentId).orElseThrow();
+        // items, products and sellers in one select for the ledger and rollups
+        Order order = orderRepo.findWithDetailsById(payment.getOrder().getId()).orElseThrow();
+        OrderStatus previous = OrderStatus.CREATED;
+
+        // Seller revenue: appended to the ledger, folded into users.revenue later (no users row lock here)
+        revenueLedger.record(order, paidAt);
+
+        salesRollup.statusChanged(order, previous);
+        salesRollup.orderPaid(order, paidAt);
+        domainEvents.publish(OrderStatusChanged.of(order, previous));
+        domainEvents.publish(PaymentCompleted.of(payment));
+        return true;
+    }
+
+    @Transactional
+    public boolean decline(Long paymentId, String reason) {
+        outboxRepo.deleteByPaymentId(paymentId);
+        if (paymentRepo.settle(paymentId, PaymentStatus.FAILED, null, reason, null) == 0) return false;
+
+        domainEvents.publish(PaymentCompleted.of(paymentRepo.findById(paymentId).orElseThrow()));
+        return true;
+    }
+
+    // The payment was settled or removed elsewhere; only the outbox row is left
+    @Transactional
+    public void discard(Long paymentId) {
+        outboxRepo.deleteByPaymentId(paymentId);
+    }
+}
@@ -0,0 +1,60 @@
+package com.agromarket.agro_marketplace.payments;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// In-process stand-in for real providers: answers every provider after a fixed latency and approves all
+// but a configurable share of charges. Tests script a single provider's behaviour with behave().
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.payments.simulator.enabled", havingValue = "true", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    @FunctionalInterface
+    public interface Behaviour {
+        GatewayResult charge(GatewayCharge charge, Duration timeout) throws Exception;
+    }
+
+    private final Map<String, Behaviour> behaviours = new ConcurrentHashMap<>();
+    private final long latencyMs;
+    private final double declineRate;
+
+    public SimulatedPaymentGateway(@Value("${app.payments.simulator.latency-ms:200}") long latencyMs,
+                                   @Value("${app.payments.simulator.decline-rate:0}") double declineRate) {
+        this.latencyMs = latencyMs;
+        this.declineRate = declineRate;
+    }
+
+    public void behave(String provider, Behaviour behaviour) {
+        behaviours.put(provider, behaviour);
+    }
+
+    public void reset() {
+        behaviours.clear();
+    }
+
+    @Override
+    public boolean supports(String provider) {
+        return true;
+    }
+
+    @Override
+    public GatewayResult charge(GatewayCharge charge, Duration timeout) throws Exception {
+        Behaviour scripted = behaviours.get(charge.provider());
+        if (scripted != null) return scripted.charge(charge, timeout);
+
+        if (latencyMs > 0) Thread.sleep(latencyMs);
+        if (declineRate > 0 && ThreadLocalRandom.current().nextDouble() < declineRate) {
+            return GatewayResult.declined("Declined by the simulated provider");
+        }
+        return GatewayResult.approved("SIM-" + charge.idempotencyKey());
+    }
+}
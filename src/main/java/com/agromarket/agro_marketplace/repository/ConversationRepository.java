@@ -0,0 +1,44 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.entity.Conversation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ConversationRepository extends JpaRepository<Conversation, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO conversations (id, user_low_id, user_high_id, unread_low, unread_high) " +
+            "VALUES (:id, :lowId, :highId, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("id") String id, @Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    // The receiver gets one more unread message; the sender has obviously seen the thread
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageAt = :sentAt, " +
+            "c.unreadLow = CASE WHEN c.userLow.id = :receiverId THEN c.unreadLow + 1 ELSE 0 END, " +
+            "c.unreadHigh = CASE WHEN c.userHigh.id = :receiverId THEN c.unreadHigh + 1 ELSE 0 END " +
+            "WHERE c.id = :id")
+    int recordMessage(@Param("id") String id, @Param("receiverId") Long receiverId, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.unreadLow = CASE WHEN c.userLow.id = :userId THEN 0 ELSE c.unreadLow END, " +
+            "c.unreadHigh = CASE WHEN c.userHigh.id = :userId THEN 0 ELSE c.unreadHigh END " +
+            "WHERE c.id = :id")
+    int markRead(@Param("id") String id, @Param("userId") Long userId);
+
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.userLow JOIN FETCH c.userHigh " +
+            "WHERE c.userLow.id = :userId OR c.userHigh.id = :userId ORDER BY c.lastMessageAt DESC")
+    List<Conversation> findForUser(@Param("userId") Long userId);
+
+    // sums the stored per-conversation counters, one row per conversation partner
+    @Query("SELECT COALESCE(SUM(CASE WHEN c.userLow.id = :userId THEN c.unreadLow ELSE c.unreadHigh END), 0) " +
+            "FROM Conversation c WHERE c.userLow.id = :userId OR c.userHigh.id = :userId")
+    long unreadTotal(@Param("userId") Long userId);
+}
@@ -0,0 +1,16 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.entity.DeliveredPurchase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DeliveredPurchaseRepository extends JpaRepository<DeliveredPurchase, DeliveredPurchase.Key> {
+
+    // Eligibility check and duplicate guard in one primary-key update: 1 when the buyer may review now
+    @Modifying
+    @Query("UPDATE DeliveredPurchase d SET d.reviewed = TRUE " +
+            "WHERE d.buyerId = :buyerId AND d.productId = :productId AND d.reviewed = FALSE")
+    int claimReview(@Param("buyerId") Long buyerId, @Param("productId") Long productId);
+}
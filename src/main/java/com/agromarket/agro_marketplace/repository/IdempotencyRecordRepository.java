@@ -0,0 +1,25 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // A plain insert, not save()'s merge: a second writer of the same key must fail on the primary key
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, request_hash, status_code, response_body, created_at, expires_at) " +
+            "VALUES (:id, :requestHash, :statusCode, :body, :createdAt, :expiresAt)", nativeQuery = true)
+    void insert(@Param("id") String id, @Param("requestHash") String requestHash, @Param("statusCode") int statusCode,
+                @Param("body") String body, @Param("createdAt") Instant createdAt, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
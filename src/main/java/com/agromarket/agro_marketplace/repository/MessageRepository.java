@@ -1,10 +1,33 @@
 package com.agromarket.agro_marketplace.repository;
 
+import com.agromarket.agro_marketplace.dto.message.MessageDTO;
 import com.agromarket.agro_marketplace.entity.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    List<Message> findByReceiver_EmailOrderBySentAtDesc(String email);
+
+    String MESSAGE_SELECT = "SELECT new com.agromarket.agro_marketplace.dto.message.MessageDTO(" +
+            "m.id, m.conversationId, s.email, r.email, m.content, m.sentAt) " +
+            "FROM Message m JOIN m.sender s JOIN m.receiver r ";
+    String BEFORE_CURSOR = "AND (m.sentAt < :beforeAt OR (m.sentAt = :beforeAt AND m.id < :beforeId)) " +
+            "ORDER BY m.sentAt DESC, m.id DESC";
+
+    // Keyset pages, newest first: (sentAt, id) strictly before the last message of the previous page
+    @Query(MESSAGE_SELECT + "WHERE m.receiver.id = :receiverId " + BEFORE_CURSOR)
+    List<MessageDTO> pageInbox(@Param("receiverId") Long receiverId,
+                               @Param("beforeAt") Instant beforeAt,
+                               @Param("beforeId") long beforeId,
+                               Limit limit);
+
+    @Query(MESSAGE_SELECT + "WHERE m.conversationId = :conversationId " + BEFORE_CURSOR)
+    List<MessageDTO> pageConversation(@Param("conversationId") String conversationId,
+                                      @Param("beforeAt") Instant beforeAt,
+                                      @Param("beforeId") long beforeId,
+                                      Limit limit);
 }
@@ -2,19 +2,76 @@ package com.agromarket.agro_marketplace.repository;
 
 import com.agromarket.agro_marketplace.entity.Order;
 import com.agromarket.agro_marketplace.entity.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    // Listing methods fetch the "Order.details" graph (buyer, items, products, sellers) in the same select
+    @EntityGraph("Order.details")
     List<Order> findByBuyer_Email(String email);
 
-    // for review rule (buyer must have delivered order containing that product)
-    boolean existsByBuyer_EmailAndStatusAndItems_Product_Id(String email, OrderStatus status, Long productId);
+    @EntityGraph("Order.details")
+    Optional<Order> findWithDetailsById(Long id);
+
+    @EntityGraph("Order.details")
+    List<Order> findWithDetailsByIdIn(Collection<Long> ids);
+
+    // Status changes are compare-and-set: 0 when the order is no longer in the status the caller read
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id = :id AND o.status = :from")
+    int moveStatus(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    // CREATED -> PAID for the order of a payment; 0 when it was cancelled or moved on before the charge settled
+    @Modifying
+    @Query("UPDATE Order o SET o.status = com.agromarket.agro_marketplace.entity.OrderStatus.PAID " +
+            "WHERE o.status = com.agromarket.agro_marketplace.entity.OrderStatus.CREATED " +
+            "AND o.id = (SELECT p.order.id FROM Payment p WHERE p.id = :paymentId)")
+    int markPaidByPayment(@Param("paymentId") Long paymentId);
+
+    // Admin feed: filters select order ids only (newest first); details are loaded per page with the graph
+    String ADMIN_FILTER = "FROM Order o " +
+            "WHERE (:status IS NULL OR o.status = :status) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:buyerId IS NULL OR o.buyer.id = :buyerId) " +
+            "AND (:sellerId IS NULL OR EXISTS " +
+            "(SELECT 1 FROM OrderItem i WHERE i.order = o AND i.product.seller.id = :sellerId)) ";
+
+    @Query("SELECT o.id " + ADMIN_FILTER + "AND o.id < :beforeId ORDER BY o.id DESC")
+    List<Long> pageIdsForAdmin(@Param("status") OrderStatus status,
+                               @Param("from") Instant from,
+                               @Param("to") Instant to,
+                               @Param("buyerId") Long buyerId,
+                               @Param("sellerId") Long sellerId,
+                               @Param("beforeId") long beforeId,
+                               Limit limit);
+
+    // Forward-only cursor over every matching id, for exports
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id " + ADMIN_FILTER + "ORDER BY o.id DESC")
+    Stream<Long> streamIdsForAdmin(@Param("status") OrderStatus status,
+                                   @Param("from") Instant from,
+                                   @Param("to") Instant to,
+                                   @Param("buyerId") Long buyerId,
+                                   @Param("sellerId") Long sellerId);
 
-    // Find orders that contain products sold by a specific seller
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.items i WHERE i.product.seller.email = :sellerEmail")
+    // Find orders that contain products sold by a specific seller (with all their items, not only the seller's)
+    @EntityGraph("Order.details")
+    @Query("SELECT o FROM Order o WHERE o.id IN " +
+            "(SELECT i.order.id FROM OrderItem i WHERE i.product.seller.email = :sellerEmail)")
     List<Order> findOrdersBySeller(@Param("sellerEmail") String sellerEmail);
 }
@@ -0,0 +1,38 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.entity.PaymentOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Long> {
+
+    // Due and unlocked rows, oldest first; skipped holds the providers whose circuit is open
+    @Query("SELECT o FROM PaymentOutbox o WHERE o.nextAttemptAt <= :now " +
+            "AND (o.lockedUntil IS NULL OR o.lockedUntil < :now) AND o.provider NOT IN :skipped " +
+            "ORDER BY o.nextAttemptAt, o.id")
+    List<PaymentOutbox> findDue(@Param("now") Instant now, @Param("skipped") Collection<String> skipped, Limit limit);
+
+    // 1 when this worker won the row; the attempt is counted up front so a crash mid-call still counts
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.lockedUntil = :until, o.attempts = o.attempts + 1 " +
+            "WHERE o.id = :id AND (o.lockedUntil IS NULL OR o.lockedUntil < :now)")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.lockedUntil = NULL, o.nextAttemptAt = :next, o.lastError = :error WHERE o.id = :id")
+    int reschedule(@Param("id") Long id, @Param("next") Instant next, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM PaymentOutbox o WHERE o.paymentId = :paymentId")
+    int deleteByPaymentId(@Param("paymentId") Long paymentId);
+}
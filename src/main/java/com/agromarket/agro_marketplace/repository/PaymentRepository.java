@@ -1,10 +1,34 @@
 package com.agromarket.agro_marketplace.repository;
 
 import com.agromarket.agro_marketplace.entity.Payment;
+import com.agromarket.agro_marketplace.entity.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrder_Id(Long orderId);
+
+    // payments for a whole page of orders in one select
+    List<Payment> findByOrder_IdIn(Collection<Long> orderIds);
+
+    // Moves a PENDING payment to its outcome; 0 when someone else already settled it
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.paidAt = :paidAt, p.failureReason = :reason, " +
+            "p.reference = COALESCE(p.reference, :reference) " +
+            "WHERE p.id = :id AND p.status = com.agromarket.agro_marketplace.entity.PaymentStatus.PENDING")
+    int settle(@Param("id") Long id, @Param("status") PaymentStatus status, @Param("paidAt") Instant paidAt,
+               @Param("reason") String reason, @Param("reference") String reference);
+
+    // A settled charge whose order was no longer awaiting payment: the money is owed back to the buyer
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = com.agromarket.agro_marketplace.entity.PaymentStatus.REFUND_DUE, " +
+            "p.failureReason = :reason WHERE p.id = :id")
+    int flagRefundDue(@Param("id") Long id, @Param("reason") String reason);
 }
@@ -0,0 +1,28 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.entity.ProductRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface ProductRatingRepository extends JpaRepository<ProductRating, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO product_ratings (product_id, rating_count, rating_sum, stars1, stars2, stars3, stars4, stars5) " +
+            "VALUES (:productId, 0, 0, 0, 0, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("productId") Long productId);
+
+    // in-place increment, so concurrent reviews of one product never lose a count
+    @Modifying
+    @Query("UPDATE ProductRating r SET r.ratingCount = r.ratingCount + 1, r.ratingSum = r.ratingSum + :rating, " +
+            "r.stars1 = r.stars1 + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+            "r.stars2 = r.stars2 + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "r.stars3 = r.stars3 + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+            "r.stars4 = r.stars4 + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "r.stars5 = r.stars5 + CASE WHEN :rating = 5 THEN 1 ELSE 0 END, " +
+            "r.updatedAt = :at WHERE r.productId = :productId")
+    int addRating(@Param("productId") Long productId, @Param("rating") int rating, @Param("at") Instant at);
+}
@@ -1,11 +1,78 @@
 package com.agromarket.agro_marketplace.repository;
 
+import com.agromarket.agro_marketplace.dto.catalog.ProductResponse;
 import com.agromarket.agro_marketplace.entity.Product;
+import com.agromarket.agro_marketplace.search.IndexedProduct;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategory_Id(Long categoryId);
-    List<Product> findByNameContainingIgnoreCase(String q);
+    // SELECT ... FOR UPDATE, rows locked in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Validators for GET /api/products/{id}: a scalar probe, the product itself is only loaded on a cache miss
+    @Query("SELECT p.version, p.updatedAt, r.ratingCount, r.updatedAt FROM Product p " +
+            "LEFT JOIN ProductRating r ON r.productId = p.id WHERE p.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.agromarket.agro_marketplace.search.IndexedProduct(p.id, p.name, p.description, p.category.id, p.seller.id) FROM Product p")
+    Stream<IndexedProduct> streamForSearchIndex();
+
+    // Listing projection: product + category name + seller name + rating totals in one select, no entity hydration
+    String LISTING_SELECT = "SELECT new com.agromarket.agro_marketplace.dto.catalog.ProductResponse(" +
+            "p.id, p.name, p.description, p.price, p.stockQty, c.id, c.name, s.id, s.fullName, " +
+            "r.ratingCount, r.ratingSum, r.stars1, r.stars2, r.stars3, r.stars4, r.stars5) " +
+            "FROM Product p JOIN p.category c JOIN p.seller s LEFT JOIN ProductRating r ON r.productId = p.id ";
+    String LISTING = LISTING_SELECT +
+            "WHERE (:categoryId IS NULL OR c.id = :categoryId) " +
+            "AND (:sellerId IS NULL OR s.id = :sellerId) ";
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+            "AND (:sellerId IS NULL OR p.seller.id = :sellerId)")
+    long countListing(@Param("categoryId") Long categoryId, @Param("sellerId") Long sellerId);
+
+    @Query(LISTING_SELECT + "WHERE p.id = :id")
+    Optional<ProductResponse> findListingById(@Param("id") Long id);
+
+    // Rows for one page of search hits (the search index decides which ids and in what order)
+    @Query(LISTING_SELECT + "WHERE p.id IN :ids")
+    List<ProductResponse> findListingByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages: (sortKey, id) strictly after the cursor of the previous page
+    @Query(LISTING + "AND p.id > :afterId ORDER BY p.id")
+    List<ProductResponse> pageById(@Param("categoryId") Long categoryId,
+                                   @Param("sellerId") Long sellerId,
+                                   @Param("afterId") long afterId,
+                                   Limit limit);
+
+    @Query(LISTING + "AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId)) ORDER BY p.price, p.id")
+    List<ProductResponse> pageByPrice(@Param("categoryId") Long categoryId,
+                                      @Param("sellerId") Long sellerId,
+                                      @Param("afterPrice") BigDecimal afterPrice,
+                                      @Param("afterId") long afterId,
+                                      Limit limit);
+
+    @Query(LISTING + "AND (p.name > :afterName OR (p.name = :afterName AND p.id > :afterId)) ORDER BY p.name, p.id")
+    List<ProductResponse> pageByName(@Param("categoryId") Long categoryId,
+                                     @Param("sellerId") Long sellerId,
+                                     @Param("afterName") String afterName,
+                                     @Param("afterId") long afterId,
+                                     Limit limit);
 }
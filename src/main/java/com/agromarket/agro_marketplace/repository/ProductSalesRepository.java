@@ -0,0 +1,21 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.dto.analytics.TopProduct;
+import com.agromarket.agro_marketplace.entity.ProductSales;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+    String TOP_SELECT = "SELECT new com.agromarket.agro_marketplace.dto.analytics.TopProduct(ps.productId, p.name, ps.unitsSold, ps.revenue) " +
+            "FROM ProductSales ps JOIN Product p ON p.id = ps.productId ";
+
+    @Query(TOP_SELECT + "ORDER BY ps.unitsSold DESC, ps.productId")
+    List<TopProduct> findTop(Limit limit);
+
+    @Query(TOP_SELECT + "WHERE ps.sellerId = :sellerId ORDER BY ps.unitsSold DESC, ps.productId")
+    List<TopProduct> findTopBySeller(@Param("sellerId") Long sellerId, Limit limit);
+}
@@ -1,10 +1,19 @@
 package com.agromarket.agro_marketplace.repository;
 
+import com.agromarket.agro_marketplace.dto.review.ReviewDTO;
 import com.agromarket.agro_marketplace.entity.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByProduct_Id(Long productId);
+
+    // Newest first, keyset on id; a projection, so no Review or reviewer User is hydrated
+    @Query("SELECT new com.agromarket.agro_marketplace.dto.review.ReviewDTO(" +
+            "r.id, r.product.id, u.email, r.rating, r.comment, r.createdAt) " +
+            "FROM Review r JOIN r.reviewer u WHERE r.product.id = :productId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<ReviewDTO> pageByProduct(@Param("productId") Long productId, @Param("beforeId") long beforeId, Limit limit);
 }
@@ -0,0 +1,28 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.dto.analytics.DailyRevenue;
+import com.agromarket.agro_marketplace.entity.SellerDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SellerDailySalesRepository extends JpaRepository<SellerDailySales, SellerDailySales.Key> {
+    @Query("SELECT new com.agromarket.agro_marketplace.dto.analytics.DailyRevenue(s.day, s.revenue, s.unitsSold, s.ordersPaid) " +
+            "FROM SellerDailySales s WHERE s.sellerId = :sellerId AND s.day >= :from ORDER BY s.day")
+    List<DailyRevenue> findDays(@Param("sellerId") Long sellerId, @Param("from") LocalDate from);
+
+    // [revenue, units] over every day on record
+    @Query("SELECT COALESCE(SUM(s.revenue), 0), COALESCE(SUM(s.unitsSold), 0) FROM SellerDailySales s WHERE s.sellerId = :sellerId")
+    List<Object[]> totals(@Param("sellerId") Long sellerId);
+
+    // marketplace-wide: every seller's row for the day, each paid order counted once
+    @Query("SELECT new com.agromarket.agro_marketplace.dto.analytics.DailyRevenue(s.day, SUM(s.revenue), SUM(s.unitsSold), SUM(s.leadOrdersPaid)) " +
+            "FROM SellerDailySales s WHERE s.day >= :from GROUP BY s.day ORDER BY s.day")
+    List<DailyRevenue> findMarketplaceDays(@Param("from") LocalDate from);
+
+    @Query("SELECT COALESCE(SUM(s.revenue), 0), COALESCE(SUM(s.unitsSold), 0) FROM SellerDailySales s")
+    List<Object[]> marketplaceTotals();
+}
@@ -0,0 +1,15 @@
+package com.agromarket.agro_marketplace.repository;
+
+import com.agromarket.agro_marketplace.entity.SellerOrderStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface SellerOrderStatusCountRepository extends JpaRepository<SellerOrderStatusCount, SellerOrderStatusCount.Key> {
+    List<SellerOrderStatusCount> findBySellerId(Long sellerId);
+
+    // [status, orders] marketplace-wide
+    @Query("SELECT c.status, SUM(c.leadOrders) FROM SellerOrderStatusCount c GROUP BY c.status")
+    List<Object[]> marketplaceCounts();
+}
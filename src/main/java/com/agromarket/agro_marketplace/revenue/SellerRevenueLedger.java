@@ -0,0 +1,111 @@
+package com.agromarket.agro_marketplace.revenue;
+
+import com.agromarket.agro_marketplace.entity.Order;
+import com.agromarket.agro_marketplace.entity.OrderItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+// Seller revenue without a hot users row: a payment only appends rows to seller_revenue_ledger,
+// and compact() periodically folds unapplied rows into users.revenue with atomic increments.
+// Reads add a seller's unapplied rows to users.revenue in one statement, so they are exact at any time.
+@Component
+public class SellerRevenueLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(SellerRevenueLedger.class);
+
+    private static final int COMPACT_BATCH = 1000;
+
+    private static final String APPEND_SQL =
+            "INSERT INTO seller_revenue_ledger (seller_id, order_id, amount, created_at, applied) VALUES (?, ?, ?, ?, FALSE)";
+    private static final String REVENUE_SQL =
+            "SELECT COALESCE(u.revenue, 0) + COALESCE((SELECT SUM(l.amount) FROM seller_revenue_ledger l " +
+            "WHERE l.seller_id = u.id AND l.applied = FALSE), 0) FROM users u WHERE u.id = ?";
+    private static final String ALL_REVENUE_SQL =
+            "SELECT u.id, COALESCE(u.revenue, 0) + COALESCE(SUM(l.amount), 0) FROM users u " +
+            "LEFT JOIN seller_revenue_ledger l ON l.seller_id = u.id AND l.applied = FALSE GROUP BY u.id, u.revenue";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    public SellerRevenueLedger(JdbcTemplate jdbc, TransactionTemplate tx) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+    }
+
+    // One ledger row per seller in the order, written as a single batch
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, Instant paidAt) {
+        SortedMap<Long, BigDecimal> bySeller = new TreeMap<>();
+        for (OrderItem item : order.getItems()) {
+            bySeller.merge(item.getProduct().getSeller().getId(), item.getLineTotal(), BigDecimal::add);
+        }
+
+        Timestamp at = Timestamp.from(paidAt);
+        List<Map.Entry<Long, BigDecimal>> rows = new ArrayList<>(bySeller.entrySet());
+        jdbc.batchUpdate(APPEND_SQL, rows, rows.size(), (ps, e) -> {
+            ps.setLong(1, e.getKey());
+            ps.setLong(2, order.getId());
+            ps.setBigDecimal(3, e.getValue());
+            ps.setTimestamp(4, at);
+        });
+    }
+
+    public BigDecimal revenueOf(Long sellerId) {
+        List<BigDecimal> rows = jdbc.queryForList(REVENUE_SQL, BigDecimal.class, sellerId);
+        return rows.isEmpty() ? BigDecimal.ZERO : rows.get(0);
+    }
+
+    // userId -> revenue, every user
+    public Map<Long, BigDecimal> revenueOfAll() {
+        Map<Long, BigDecimal> revenue = new HashMap<>();
+        jdbc.query(ALL_REVENUE_SQL, rs -> {
+            revenue.put(rs.getLong(1), rs.getBigDecimal(2));
+        });
+        return revenue;
+    }
+
+    @Scheduled(fixedDelayString = "${app.revenue.compact-ms:5000}")
+    public void compact() {
+        int folded;
+        int total = 0;
+        do {
+            Integer n = tx.execute(s -> compactBatch());
+            folded = n == null ? 0 : n;
+            total += folded;
+        } while (folded == COMPACT_BATCH);
+        if (total > 0) log.debug("Compacted {} seller revenue ledger rows", total);
+    }
+
+    // Locks a batch of unapplied rows (a concurrent compactor waits, then finds them applied),
+    // adds them to users.revenue per seller and flags them applied, all in one transaction
+    private int compactBatch() {
+        List<Long> ids = new ArrayList<>();
+        SortedMap<Long, BigDecimal> bySeller = new TreeMap<>();
+        jdbc.query("SELECT id, seller_id, amount FROM seller_revenue_ledger WHERE applied = FALSE ORDER BY id LIMIT ? FOR UPDATE",
+                rs -> {
+                    ids.add(rs.getLong(1));
+                    bySeller.merge(rs.getLong(2), rs.getBigDecimal(3), BigDecimal::add);
+                }, COMPACT_BATCH);
+        if (ids.isEmpty()) return 0;
+
+        List<Map.Entry<Long, BigDecimal>> sellers = new ArrayList<>(bySeller.entrySet());
+        jdbc.batchUpdate("UPDATE users SET revenue = COALESCE(revenue, 0) + ? WHERE id = ?", sellers, sellers.size(), (ps, e) -> {
+            ps.setBigDecimal(1, e.getValue());
+            ps.setLong(2, e.getKey());
+        });
+        jdbc.batchUpdate("UPDATE seller_revenue_ledger SET applied = TRUE WHERE id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+        return ids.size();
+    }
+}
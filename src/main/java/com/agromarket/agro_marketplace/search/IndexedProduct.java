@@ -0,0 +1,10 @@
+package com.agromarket.agro_marketplace.search;
+
+// The slice of a product the search index needs; loaded as a projection at rebuild time
+public record IndexedProduct(
+        Long id,
+        String name,
+        String description,
+        Long categoryId,
+        Long sellerId
+) {}
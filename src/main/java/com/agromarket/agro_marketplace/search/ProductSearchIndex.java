@@ -0,0 +1,239 @@
+package com.agromarket.agro_marketplace.search;
+
+import com.agromarket.agro_marketplace.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-process inverted index over product name + description.
+// Terms live in a sorted dictionary so a query token matches every term it is a prefix of.
+// Kept in sync by ProductServiceImpl on create/update/delete and rebuilt from the database at startup.
+// Ranked results are kept per query for paging, until the next change to the index.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final double PREFIX_PENALTY = 0.5; // partial-word matches rank below whole words
+
+    private static final Comparator<SearchHit> RANK =
+            Comparator.comparingDouble(SearchHit::score).reversed().thenComparing(SearchHit::productId);
+
+    private record Doc(Long categoryId, Long sellerId, Set<String> terms) {}
+
+    private record Query(List<String> tokens, Long categoryId, Long sellerId) {}
+
+    private record Ranked(long generation, List<SearchHit> hits) {}
+
+    private final ProductRepository productRepo;
+    private final Cache<Query, Ranked> ranked;
+
+    // term -> (productId -> term weight in that product)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long generation; // bumped by every change, under the write lock
+
+    public ProductSearchIndex(ProductRepository productRepo,
+                              @Value("${app.search.result-cache.max-size:1000}") long resultCacheSize) {
+        this.productRepo = productRepo;
+        this.ranked = Caffeine.newBuilder().maximumSize(resultCacheSize).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            generation++;
+            postings.clear();
+            docs.clear();
+            try (Stream<IndexedProduct> rows = productRepo.streamForSearchIndex()) {
+                rows.forEach(this::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index rebuilt: {} products, {} terms in {} ms",
+                docs.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    public void upsert(IndexedProduct p) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            remove0(p.id());
+            add(p);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            remove0(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Products matching every query token (as a word or word prefix), best match first, ties by id
+    public List<SearchHit> search(String query, Long categoryId, Long sellerId) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            return rank(tokens, categoryId, sellerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to limit hits ranked after (afterScore, afterId), or from the top when afterScore is null.
+    // Later pages of the same query reuse the ranking of the first while the index is unchanged.
+    public List<SearchHit> page(String query, Long categoryId, Long sellerId, Double afterScore, long afterId, int limit) {
+        List<String> tokens = tokenize(query).stream().distinct().sorted().toList();
+        if (tokens.isEmpty()) return List.of();
+
+        Query key = new Query(tokens, categoryId, sellerId);
+        List<SearchHit> hits;
+        lock.readLock().lock();
+        try {
+            Ranked cached = ranked.getIfPresent(key);
+            if (cached == null || cached.generation() != generation) {
+                cached = new Ranked(generation, rank(tokens, categoryId, sellerId));
+                ranked.put(key, cached);
+            }
+            hits = cached.hits();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int from = 0;
+        if (afterScore != null) {
+            // insertion point of the cursor; the cursor hit itself (if still there) is skipped
+            int i = Collections.binarySearch(hits, new SearchHit(afterId, afterScore), RANK);
+            from = i >= 0 ? i + 1 : -i - 1;
+        }
+        return hits.subList(from, Math.min(from + limit, hits.size()));
+    }
+
+    // Caller holds the read lock
+    private List<SearchHit> rank(List<String> tokens, Long categoryId, Long sellerId) {
+        // AND semantics: start from the rarest token, later tokens only probe the surviving candidates
+        List<String> ordered = tokens.stream().sorted(Comparator.comparingInt(this::postingCount)).toList();
+
+        Map<Long, Double> scores = null;
+        for (String token : ordered) {
+            scores = scoreToken(token, scores, categoryId, sellerId);
+            if (scores.isEmpty()) return List.of();
+        }
+
+        List<SearchHit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, s) -> hits.add(new SearchHit(id, s)));
+        hits.sort(RANK);
+        return Collections.unmodifiableList(hits);
+    }
+
+    private int postingCount(String token) {
+        int count = 0;
+        for (Map<Long, Float> ids : prefixRange(token).values()) count += ids.size();
+        return count;
+    }
+
+    private SortedMap<String, Map<Long, Float>> prefixRange(String token) {
+        return postings.subMap(token, token + Character.MAX_VALUE);
+    }
+
+    // Best term score per product for one query token; with candidates, only those products are kept
+    // and the token score is added to what they already have
+    private Map<Long, Double> scoreToken(String token, Map<Long, Double> candidates, Long categoryId, Long sellerId) {
+        Map<Long, Double> best = new HashMap<>();
+        int n = Math.max(docs.size(), 1);
+
+        for (Map.Entry<String, Map<Long, Float>> term : prefixRange(token).entrySet()) {
+            Map<Long, Float> ids = term.getValue();
+            double weight = Math.log(1 + (double) n / ids.size()) * (term.getKey().equals(token) ? 1.0 : PREFIX_PENALTY);
+
+            if (candidates == null) {
+                for (Map.Entry<Long, Float> posting : ids.entrySet()) {
+                    Long id = posting.getKey();
+                    if (categoryId != null || sellerId != null) {
+                        Doc doc = docs.get(id);
+                        if (categoryId != null && !categoryId.equals(doc.categoryId())) continue;
+                        if (sellerId != null && !sellerId.equals(doc.sellerId())) continue;
+                    }
+                    best.merge(id, posting.getValue() * weight, Math::max);
+                }
+            } else if (candidates.size() < ids.size()) {
+                for (Long id : candidates.keySet()) {
+                    Float w = ids.get(id);
+                    if (w != null) best.merge(id, w * weight, Math::max);
+                }
+            } else {
+                for (Map.Entry<Long, Float> posting : ids.entrySet()) {
+                    if (candidates.containsKey(posting.getKey()))
+                        best.merge(posting.getKey(), posting.getValue() * weight, Math::max);
+                }
+            }
+        }
+
+        if (candidates != null) best.replaceAll((id, s) -> s + candidates.get(id));
+        return best;
+    }
+
+    private void add(IndexedProduct p) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String t : tokenize(p.name())) weights.merge(t, NAME_WEIGHT, Float::sum);
+        for (String t : tokenize(p.description())) weights.merge(t, DESCRIPTION_WEIGHT, Float::sum);
+
+        weights.forEach((term, w) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(p.id(), w));
+        docs.put(p.id(), new Doc(p.categoryId(), p.sellerId(), weights.keySet()));
+    }
+
+    private void remove0(Long productId) {
+        Doc doc = docs.remove(productId);
+        if (doc == null) return;
+        for (String term : doc.terms()) {
+            Map<Long, Float> ids = postings.get(term);
+            if (ids == null) continue;
+            ids.remove(productId);
+            if (ids.isEmpty()) postings.remove(term);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String t : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) tokens.add(t);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,3 @@
+package com.agromarket.agro_marketplace.search;
+
+public record SearchHit(Long productId, double score) {}
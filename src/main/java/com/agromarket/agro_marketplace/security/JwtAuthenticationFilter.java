@@ -1,9 +1,13 @@
 package com.agromarket.agro_marketplace.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,10 +19,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final JwtPrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   JwtPrincipalCache principalCache, TokenRevocationList revocationList) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -32,11 +41,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 String token = auth.substring(7);
 
                 // if token is empty -> just continue
-                if (!token.isBlank()) {
-                    String email = jwtService.extractSubject(token);
+                if (!token.isBlank() && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // cache hit = this exact token was verified before and has not expired
+                    UserDetails userDetails = principalCache.get(token);
+                    if (userDetails == null) {
+                        Claims claims = jwtService.parse(token);
+                        if (jwtService.isStatelessAccessToken(claims)) {
+                            // roles come from the verified claims: no user lookup, only the revocation check
+                            if (!revocationList.isRevoked(jwtService.userId(claims), jwtService.issuedAtMs(claims))) {
+                                userDetails = fromClaims(claims);
+                            }
+                        } else if (!jwtService.isRefreshToken(claims) && claims.getSubject() != null) {
+                            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                            principalCache.put(token, userDetails, claims.getExpiration());
+                        }
+                    }
 
-                    if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                        var userDetails = userDetailsService.loadUserByUsername(email);
+                    if (userDetails != null) {
                         var authentication = new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities()
                         );
@@ -52,4 +73,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    private UserDetails fromClaims(Claims claims) {
+        var authorities = jwtService.roles(claims).stream()
+                .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
+                .toList();
+        return new User(claims.getSubject(), "", authorities);
+    }
 }
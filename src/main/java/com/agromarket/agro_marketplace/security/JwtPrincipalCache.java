@@ -0,0 +1,84 @@
+package com.agromarket.agro_marketplace.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+// Verified token -> principal, so repeat requests with the same token skip signature checks and the users query.
+// Keyed by SHA-256 of the token; an entry never outlives the token's own exp claim.
+@Component
+public class JwtPrincipalCache {
+
+    private record Entry(UserDetails user, long expiresAtMs) {}
+
+    private final Cache<String, Entry> cache;
+    private final long ttlMs;
+
+    public JwtPrincipalCache(@Value("${app.jwt.principal-cache.max-size:10000}") long maxSize,
+                             @Value("${app.jwt.principal-cache.ttl-ms:300000}") long ttlMs,
+                             MeterRegistry meterRegistry) {
+        this.ttlMs = ttlMs;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry e, long currentTime) {
+                        long remainingMs = Math.max(0, e.expiresAtMs() - System.currentTimeMillis());
+                        return TimeUnit.MILLISECONDS.toNanos(remainingMs);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry e, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, e, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry e, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.principal");
+    }
+
+    public UserDetails get(String token) {
+        Entry e = cache.getIfPresent(hash(token));
+        return e == null ? null : e.user();
+    }
+
+    public void put(String token, UserDetails user, Date tokenExpiration) {
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        if (tokenExpiration != null) expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        // keep the password hash out of a long-lived cache
+        UserDetails principal = new org.springframework.security.core.userdetails.User(
+                user.getUsername(), "", user.getAuthorities());
+        cache.put(hash(token), new Entry(principal, expiresAt));
+    }
+
+    // Drops every cached token of this user (account deleted, roles changed)
+    public void invalidateUser(String email) {
+        cache.asMap().values().removeIf(e -> e.user().getUsername().equals(email));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,22 +1,52 @@
 package com.agromarket.agro_marketplace.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 @Service
 public class JwtService {
+    // claims carried by stateless tokens
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_TYPE = "token_type";
+    // iat only has whole seconds; revocation checks need to tell apart tokens issued within one second
+    public static final String CLAIM_ISSUED_AT_MS = "iat_ms";
+    private static final String TYPE_ACCESS = "access";
+    private static final String TYPE_REFRESH = "refresh";
+
     private final SecretKey key;
     private final long expirationMs;
+    private final JwtParser parser; // immutable and thread-safe, built once
+
+    private final boolean stateless;
+    private final long accessExpirationMs;
+    private final long refreshExpirationMs;
 
     public JwtService(@Value("${app.jwt.secret}") String secret,
-                      @Value("${app.jwt.expirationMs}") long expirationMs) {
+                      @Value("${app.jwt.expirationMs}") long expirationMs,
+                      @Value("${app.jwt.stateless:false}") boolean stateless,
+                      @Value("${app.jwt.accessExpirationMs:900000}") long accessExpirationMs,
+                      @Value("${app.jwt.refreshExpirationMs:604800000}") long refreshExpirationMs) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.stateless = stateless;
+        this.accessExpirationMs = accessExpirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    // Stateless mode: login issues short-lived access tokens with id + roles, plus a refresh token
+    public boolean isStateless() {
+        return stateless;
     }
 
     public String generateToken(String subjectEmail) {
@@ -30,8 +60,65 @@ public class JwtService {
                 .compact();
     }
 
+    public String generateAccessToken(String subjectEmail, Long userId, Collection<String> roles) {
+        Date now = new Date();
+        return Jwts.builder()
+                .subject(subjectEmail)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLES, List.copyOf(roles))
+                .claim(CLAIM_TOKEN_TYPE, TYPE_ACCESS)
+                .claim(CLAIM_ISSUED_AT_MS, now.getTime())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + accessExpirationMs))
+                .signWith(key)
+                .compact();
+    }
+
+    public String generateRefreshToken(String subjectEmail, Long userId) {
+        Date now = new Date();
+        return Jwts.builder()
+                .subject(subjectEmail)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_TOKEN_TYPE, TYPE_REFRESH)
+                .claim(CLAIM_ISSUED_AT_MS, now.getTime())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + refreshExpirationMs))
+                .signWith(key)
+                .compact();
+    }
+
+    // Verifies signature and expiry
+    public Claims parse(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     public String extractSubject(String token) {
-        return Jwts.parser().verifyWith(key).build()
-                .parseSignedClaims(token).getPayload().getSubject();
+        return parse(token).getSubject();
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    public boolean isStatelessAccessToken(Claims claims) {
+        return TYPE_ACCESS.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    public Long userId(Claims claims) {
+        Number id = claims.get(CLAIM_USER_ID, Number.class);
+        return id == null ? null : id.longValue();
+    }
+
+    // Tokens issued before iat_ms existed fall back to the start of their iat second, the earliest they can be from
+    public Long issuedAtMs(Claims claims) {
+        Number ms = claims.get(CLAIM_ISSUED_AT_MS, Number.class);
+        if (ms != null) return ms.longValue();
+        return claims.getIssuedAt() == null ? null : claims.getIssuedAt().getTime();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> roles(Claims claims) {
+        List<String> roles = claims.get(CLAIM_ROLES, List.class);
+        return roles == null ? List.of() : roles;
     }
 }
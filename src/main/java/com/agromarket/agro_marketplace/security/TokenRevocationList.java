@@ -0,0 +1,41 @@
+package com.agromarket.agro_marketplace.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory "not before" list for stateless tokens: once a user is revoked, every token issued
+// to them up to that moment is rejected. Entries are dropped once no such token can still be valid.
+// The list lives in this JVM only: with several nodes, a revocation is only enforced by the node that recorded it.
+@Component
+public class TokenRevocationList {
+
+    private final Map<Long, Long> revokedAtMs = new ConcurrentHashMap<>();
+    private final long retentionMs;
+
+    public TokenRevocationList(@Value("${app.jwt.refreshExpirationMs:604800000}") long refreshExpirationMs) {
+        this.retentionMs = refreshExpirationMs;
+    }
+
+    public void revoke(Long userId) {
+        revokedAtMs.put(userId, System.currentTimeMillis());
+    }
+
+    // issuedAtMs as read by JwtService.issuedAtMs; a token issued after the revocation, even within the
+    // same second, is accepted
+    public boolean isRevoked(Long userId, Long issuedAtMs) {
+        if (userId == null) return true;
+        Long revokedAt = revokedAtMs.get(userId);
+        if (revokedAt == null) return false;
+        return issuedAtMs == null || issuedAtMs <= revokedAt;
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        revokedAtMs.values().removeIf(at -> at < cutoff);
+    }
+}
@@ -0,0 +1,9 @@
+package com.agromarket.agro_marketplace.service;
+
+import com.agromarket.agro_marketplace.dto.analytics.DashboardStats;
+
+public interface AnalyticsService {
+    DashboardStats sellerStats(String sellerEmail, int days);
+    // sellerId null: marketplace-wide
+    DashboardStats stats(Long sellerId, int days);
+}
@@ -5,4 +5,5 @@ import com.agromarket.agro_marketplace.dto.auth.*;
 public interface AuthService {
     void register(RegisterRequest req);
     LoginResponse login(LoginRequest req);
+    LoginResponse refresh(RefreshRequest req);
 }
@@ -1,10 +1,12 @@
 package com.agromarket.agro_marketplace.service;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
 import com.agromarket.agro_marketplace.dto.catalog.CategoryDTO;
 import java.util.List;
 
 public interface CategoryService {
     CategoryDTO create(String name);
     List<CategoryDTO> list();
+    CatalogVersion version();
     void delete(Long id);
 }
@@ -6,5 +6,9 @@ import java.util.List;
 
 public interface MessageService {
     MessageDTO send(SendMessageRequest req, String senderEmail);
-    List<MessageDTO> inbox(String receiverEmail);
+    MessagePage inbox(String receiverEmail, String after, int limit);
+    List<ConversationDTO> conversations(String userEmail);
+    MessagePage conversation(String conversationId, String userEmail, String after, int limit);
+    void markRead(String conversationId, String userEmail);
+    long unreadCount(String userEmail);
 }
@@ -4,12 +4,14 @@ import com.agromarket.agro_marketplace.dto.order.*;
 import com.agromarket.agro_marketplace.entity.OrderStatus;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
     OrderDTO create(CreateOrderRequest req, String buyerEmail);
     List<OrderDTO> myOrders(String buyerEmail);
     List<OrderDTO> sellerOrders(String sellerEmail);
-    List<OrderDTO> allOrders();
+    OrderPage adminOrders(OrderFilter filter, String after, int limit);
+    void exportOrders(OrderFilter filter, Consumer<OrderDTO> sink);
     OrderDTO getById(Long id, String requesterEmail, boolean isAdmin);
     OrderDTO updateStatus(Long id, OrderStatus status, String userEmail, boolean isAdmin);
 }
@@ -1,12 +1,16 @@
 package com.agromarket.agro_marketplace.service;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
 import com.agromarket.agro_marketplace.dto.catalog.*;
-import java.util.List;
 
 public interface ProductService {
     ProductResponse create(ProductCreateRequest req, String sellerEmail);
-    List<ProductResponse> list(Long categoryId, String q);
+    ProductPage list(Long categoryId, Long sellerId, String q, String after, int limit, String sort);
+    long count(Long categoryId, Long sellerId);
     ProductResponse get(Long id);
+    CatalogVersion listingVersion();
+    CatalogVersion version(Long id);
     ProductResponse update(Long id, ProductCreateRequest req, String sellerEmail);
     void delete(Long id, String sellerEmail, boolean isAdmin);
+    ProductResponse setHot(Long id, boolean hot); // admin only
 }
@@ -1,10 +1,10 @@
 package com.agromarket.agro_marketplace.service;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
 import com.agromarket.agro_marketplace.dto.review.*;
 
-import java.util.List;
-
 public interface ReviewService {
     ReviewDTO create(CreateReviewRequest req, String reviewerEmail);
-    List<ReviewDTO> getByProduct(Long productId);
+    ReviewPage getByProduct(Long productId, String after, int limit);
+    CatalogVersion version();
 }
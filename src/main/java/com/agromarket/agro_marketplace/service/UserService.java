@@ -1,11 +1,14 @@
 package com.agromarket.agro_marketplace.service;
 
 import com.agromarket.agro_marketplace.dto.user.UserDTO;
+import com.agromarket.agro_marketplace.entity.Roles;
 
 import java.util.List;
+import java.util.Set;
 
 public interface UserService {
     UserDTO me(String email);
     List<UserDTO> listAll(); // admin only
     void delete(Long id); // admin only
+    UserDTO updateRoles(Long id, Set<Roles> roles); // admin only
 }
@@ -0,0 +1,85 @@
+package com.agromarket.agro_marketplace.service.impl;
+
+import com.agromarket.agro_marketplace.dto.analytics.DailyRevenue;
+import com.agromarket.agro_marketplace.dto.analytics.DashboardStats;
+import com.agromarket.agro_marketplace.dto.analytics.TopProduct;
+import com.agromarket.agro_marketplace.entity.OrderStatus;
+import com.agromarket.agro_marketplace.entity.SellerOrderStatusCount;
+import com.agromarket.agro_marketplace.entity.User;
+import com.agromarket.agro_marketplace.repository.*;
+import com.agromarket.agro_marketplace.service.AnalyticsService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Dashboard KPIs read straight from the rollup tables maintained by SalesRollup:
+// cost depends on the number of days asked for (times sellers, marketplace-wide), not on how many orders exist
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    static final int MAX_DAYS = 366;
+    private static final int TOP_PRODUCTS = 10;
+
+    private final SellerDailySalesRepository dailyRepo;
+    private final SellerOrderStatusCountRepository statusRepo;
+    private final ProductSalesRepository productSalesRepo;
+    private final UserRepository userRepo;
+
+    public AnalyticsServiceImpl(SellerDailySalesRepository dailyRepo, SellerOrderStatusCountRepository statusRepo,
+                                ProductSalesRepository productSalesRepo, UserRepository userRepo) {
+        this.dailyRepo = dailyRepo;
+        this.statusRepo = statusRepo;
+        this.productSalesRepo = productSalesRepo;
+        this.userRepo = userRepo;
+    }
+
+    @Override
+    public DashboardStats sellerStats(String sellerEmail, int days) {
+        User seller = userRepo.findByEmail(sellerEmail).orElseThrow(() -> new RuntimeException("User not found"));
+        return stats(seller.getId(), days);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public DashboardStats stats(Long sellerId, int days) {
+        boolean marketplace = sellerId == null;
+        int span = Math.max(1, Math.min(days, MAX_DAYS));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = today.minusDays(span - 1);
+
+        // one entry per day, zeros where nothing was sold
+        List<DailyRevenue> rows = marketplace ? dailyRepo.findMarketplaceDays(from) : dailyRepo.findDays(sellerId, from);
+        Map<LocalDate, DailyRevenue> recorded = rows.stream()
+                .collect(Collectors.toMap(DailyRevenue::day, Function.identity()));
+        List<DailyRevenue> revenueByDay = new ArrayList<>(span);
+        for (LocalDate day = from; !day.isAfter(today); day = day.plusDays(1)) {
+            revenueByDay.add(recorded.getOrDefault(day, new DailyRevenue(day, BigDecimal.ZERO, 0, 0)));
+        }
+
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) ordersByStatus.put(status, 0L);
+        if (marketplace) {
+            for (Object[] c : statusRepo.marketplaceCounts()) ordersByStatus.put((OrderStatus) c[0], ((Number) c[1]).longValue());
+        } else {
+            for (SellerOrderStatusCount c : statusRepo.findBySellerId(sellerId)) ordersByStatus.put(c.getStatus(), c.getOrders());
+        }
+        long totalOrders = ordersByStatus.values().stream().mapToLong(Long::longValue).sum();
+
+        Object[] totals = (marketplace ? dailyRepo.marketplaceTotals() : dailyRepo.totals(sellerId)).get(0);
+        BigDecimal totalRevenue = (BigDecimal) totals[0];
+        long totalUnits = ((Number) totals[1]).longValue();
+
+        List<TopProduct> topProducts = marketplace
+                ? productSalesRepo.findTop(Limit.of(TOP_PRODUCTS))
+                : productSalesRepo.findTopBySeller(sellerId, Limit.of(TOP_PRODUCTS));
+
+        return new DashboardStats(sellerId, totalRevenue, totalUnits, totalOrders, ordersByStatus, revenueByDay, topProducts);
+    }
+}
@@ -5,11 +5,15 @@ import com.agromarket.agro_marketplace.entity.Roles;
 import com.agromarket.agro_marketplace.entity.User;
 import com.agromarket.agro_marketplace.repository.UserRepository;
 import com.agromarket.agro_marketplace.security.JwtService;
+import com.agromarket.agro_marketplace.security.TokenRevocationList;
 import com.agromarket.agro_marketplace.service.AuthService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.security.authentication.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -19,13 +23,16 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final TokenRevocationList revocationList;
 
     public AuthServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                           AuthenticationManager authenticationManager, JwtService jwtService) {
+                           AuthenticationManager authenticationManager, JwtService jwtService,
+                           TokenRevocationList revocationList) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -54,7 +61,45 @@ public class AuthServiceImpl implements AuthService {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.email(), req.password())
         );
-        String token = jwtService.generateToken(req.email());
-        return new LoginResponse(token);
+        if (!jwtService.isStateless()) {
+            String token = jwtService.generateToken(req.email());
+            return new LoginResponse(token, null);
+        }
+
+        User user = userRepository.findByEmail(req.email())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return issueTokens(user);
+    }
+
+    @Override
+    public LoginResponse refresh(RefreshRequest req) {
+        if (!jwtService.isStateless())
+            throw new RuntimeException("Refresh tokens are not enabled");
+
+        Claims claims;
+        try {
+            claims = jwtService.parse(req.refreshToken());
+        } catch (JwtException e) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (!jwtService.isRefreshToken(claims))
+            throw new RuntimeException("Invalid refresh token");
+
+        Long userId = jwtService.userId(claims);
+        if (revocationList.isRevoked(userId, jwtService.issuedAtMs(claims)))
+            throw new RuntimeException("Refresh token revoked");
+
+        // reload so the new access token carries current roles
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return issueTokens(user);
+    }
+
+    private LoginResponse issueTokens(User user) {
+        List<String> roles = user.getRoles().stream().map(Enum::name).toList();
+        return new LoginResponse(
+                jwtService.generateAccessToken(user.getEmail(), user.getId(), roles),
+                jwtService.generateRefreshToken(user.getEmail(), user.getId())
+        );
     }
 }
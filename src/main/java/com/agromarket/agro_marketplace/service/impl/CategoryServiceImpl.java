@@ -1,5 +1,8 @@
 package com.agromarket.agro_marketplace.service.impl;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
+import com.agromarket.agro_marketplace.cache.CatalogVersions;
+import com.agromarket.agro_marketplace.cache.CategoryCache;
 import com.agromarket.agro_marketplace.dto.catalog.CategoryDTO;
 import com.agromarket.agro_marketplace.entity.Category;
 import com.agromarket.agro_marketplace.repository.CategoryRepository;
@@ -12,25 +15,38 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository repo;
+    private final CategoryCache cache;
+    private final CatalogVersions catalogVersions;
 
-    public CategoryServiceImpl(CategoryRepository repo) {
+    public CategoryServiceImpl(CategoryRepository repo, CategoryCache cache, CatalogVersions catalogVersions) {
         this.repo = repo;
+        this.cache = cache;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
     public CategoryDTO create(String name) {
-        repo.findByNameIgnoreCase(name).ifPresent(c -> { throw new RuntimeException("Category exists"); });
+        // the unique index on lower(categories.name) still guards against a concurrent create
+        cache.idByName(name).ifPresent(id -> { throw new RuntimeException("Category exists"); });
         Category saved = repo.save(Category.builder().name(name).build());
+        cache.changed();
         return new CategoryDTO(saved.getId(), saved.getName());
     }
 
     @Override
     public List<CategoryDTO> list() {
-        return repo.findAll().stream().map(c -> new CategoryDTO(c.getId(), c.getName())).toList();
+        return cache.snapshot().categories();
+    }
+
+    // the content hash is the ETag; the counter (moved by the cache's invalidation topic) only supplies Last-Modified
+    @Override
+    public CatalogVersion version() {
+        return new CatalogVersion(cache.snapshot().etag(), catalogVersions.current(CatalogVersions.CATEGORIES).lastModified());
     }
 
     @Override
     public void delete(Long id) {
         repo.deleteById(id);
+        cache.changed();
     }
 }
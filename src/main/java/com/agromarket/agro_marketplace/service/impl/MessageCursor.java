@@ -0,0 +1,35 @@
+package com.agromarket.agro_marketplace.service.impl;
+
+import com.agromarket.agro_marketplace.dto.message.MessageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor for newest-first message pages: "<sentAt>|<id>" of the last message, base64url encoded
+record MessageCursor(Instant sentAt, long id) {
+
+    // later than any stored message
+    private static final MessageCursor FIRST = new MessageCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    static MessageCursor after(MessageDTO last) {
+        return new MessageCursor(last.sentAt(), last.id());
+    }
+
+    static MessageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return FIRST;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new MessageCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sentAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
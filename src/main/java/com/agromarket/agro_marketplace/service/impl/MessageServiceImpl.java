@@ -1,12 +1,17 @@
 package com.agromarket.agro_marketplace.service.impl;
 
 import com.agromarket.agro_marketplace.dto.message.*;
+import com.agromarket.agro_marketplace.entity.Conversation;
 import com.agromarket.agro_marketplace.entity.Message;
 import com.agromarket.agro_marketplace.entity.User;
+import com.agromarket.agro_marketplace.events.UserEventHub;
+import com.agromarket.agro_marketplace.repository.ConversationRepository;
 import com.agromarket.agro_marketplace.repository.MessageRepository;
 import com.agromarket.agro_marketplace.repository.UserRepository;
 import com.agromarket.agro_marketplace.service.MessageService;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -14,14 +19,23 @@ import java.util.List;
 @Service
 public class MessageServiceImpl implements MessageService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final MessageRepository messageRepo;
+    private final ConversationRepository conversationRepo;
     private final UserRepository userRepo;
+    private final UserEventHub events;
 
-    public MessageServiceImpl(MessageRepository messageRepo, UserRepository userRepo) {
+    public MessageServiceImpl(MessageRepository messageRepo, ConversationRepository conversationRepo,
+                              UserRepository userRepo, UserEventHub events) {
         this.messageRepo = messageRepo;
+        this.conversationRepo = conversationRepo;
         this.userRepo = userRepo;
+        this.events = events;
     }
 
+    // The conversation row is created on first contact and its counters move in the same transaction as the insert
+    @Transactional
     @Override
     public MessageDTO send(SendMessageRequest req, String senderEmail) {
         User sender = userRepo.findByEmail(senderEmail)
@@ -30,25 +44,93 @@ public class MessageServiceImpl implements MessageService {
         User receiver = userRepo.findById(req.receiverId())
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
+        if (sender.getId().equals(receiver.getId())) throw new RuntimeException("You cannot message yourself");
+
+        String conversationId = Conversation.idFor(sender.getId(), receiver.getId());
+        conversationRepo.createIfAbsent(conversationId,
+                Math.min(sender.getId(), receiver.getId()), Math.max(sender.getId(), receiver.getId()));
+
         Message saved = messageRepo.save(Message.builder()
                 .sender(sender)
                 .receiver(receiver)
+                .conversationId(conversationId)
                 .content(req.content())
                 .sentAt(Instant.now())
                 .build());
+        conversationRepo.recordMessage(conversationId, receiver.getId(), saved.getSentAt());
+
+        MessageDTO dto = toDTO(saved);
+        events.publishAfterCommit(List.of(receiver.getEmail()), "message", dto);
+        return dto;
+    }
+
+    @Override
+    public MessagePage inbox(String receiverEmail, String after, int limit) {
+        Long receiverId = userId(receiverEmail);
+        int size = pageSize(limit);
+        MessageCursor cursor = MessageCursor.decode(after);
+        return page(messageRepo.pageInbox(receiverId, cursor.sentAt(), cursor.id(), Limit.of(size + 1)), size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ConversationDTO> conversations(String userEmail) {
+        Long userId = userId(userEmail);
+        return conversationRepo.findForUser(userId).stream().map(c -> {
+            boolean low = c.getUserLow().getId().equals(userId);
+            User other = low ? c.getUserHigh() : c.getUserLow();
+            return new ConversationDTO(c.getId(), other.getId(), other.getFullName(), other.getEmail(),
+                    c.getLastMessageAt(), low ? c.getUnreadLow() : c.getUnreadHigh());
+        }).toList();
+    }
 
-        return toDTO(saved);
+    @Override
+    public MessagePage conversation(String conversationId, String userEmail, String after, int limit) {
+        requireMember(conversationId, userId(userEmail));
+        int size = pageSize(limit);
+        MessageCursor cursor = MessageCursor.decode(after);
+        return page(messageRepo.pageConversation(conversationId, cursor.sentAt(), cursor.id(), Limit.of(size + 1)), size);
     }
 
     @Override
-    public List<MessageDTO> inbox(String receiverEmail) {
-        return messageRepo.findByReceiver_EmailOrderBySentAtDesc(receiverEmail)
-                .stream().map(this::toDTO).toList();
+    public void markRead(String conversationId, String userEmail) {
+        Long userId = userId(userEmail);
+        requireMember(conversationId, userId);
+        conversationRepo.markRead(conversationId, userId);
+    }
+
+    @Override
+    public long unreadCount(String userEmail) {
+        return conversationRepo.unreadTotal(userId(userEmail));
+    }
+
+    private Long userId(String email) {
+        return userRepo.findByEmail(email).map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    // membership follows from the id itself, so no lookup is needed
+    private static void requireMember(String conversationId, Long userId) {
+        String[] ids = conversationId.split(":");
+        if (ids.length != 2 || !(ids[0].equals(userId.toString()) || ids[1].equals(userId.toString())))
+            throw new RuntimeException("Conversation not found");
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // rows were fetched with one extra to know whether another page exists
+    private static MessagePage page(List<MessageDTO> rows, int size) {
+        if (rows.size() <= size) return new MessagePage(rows, null);
+        List<MessageDTO> items = rows.subList(0, size);
+        return new MessagePage(items, MessageCursor.after(items.get(size - 1)).encode());
     }
 
     private MessageDTO toDTO(Message m) {
         return new MessageDTO(
                 m.getId(),
+                m.getConversationId(),
                 m.getSender().getEmail(),
                 m.getReceiver().getEmail(),
                 m.getContent(),
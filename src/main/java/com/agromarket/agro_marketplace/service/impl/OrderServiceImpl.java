@@ -1,30 +1,55 @@
 package com.agromarket.agro_marketplace.service.impl;
 
+import com.agromarket.agro_marketplace.analytics.SalesRollup;
 import com.agromarket.agro_marketplace.dto.order.*;
 import com.agromarket.agro_marketplace.dto.payment.PaymentDTO;
 import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.inventory.StockReservation;
+import com.agromarket.agro_marketplace.inventory.StockReservationEngine;
+import com.agromarket.agro_marketplace.lifecycle.DomainEventOutbox;
+import com.agromarket.agro_marketplace.lifecycle.OrderCreated;
+import com.agromarket.agro_marketplace.lifecycle.OrderStatusChanged;
 import com.agromarket.agro_marketplace.repository.*;
 import com.agromarket.agro_marketplace.service.OrderService;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepo;
-    private final ProductRepository productRepo;
     private final UserRepository userRepo;
     private final PaymentRepository paymentRepo;
-
-    public OrderServiceImpl(OrderRepository orderRepo, ProductRepository productRepo, UserRepository userRepo, PaymentRepository paymentRepo) {
+    private final StockReservationEngine stockReservation;
+    private final SalesRollup salesRollup;
+    private final EntityManager entityManager;
+    private final DomainEventOutbox domainEvents;
+
+    public OrderServiceImpl(OrderRepository orderRepo, UserRepository userRepo, PaymentRepository paymentRepo,
+                            StockReservationEngine stockReservation, SalesRollup salesRollup, EntityManager entityManager,
+                            DomainEventOutbox domainEvents) {
         this.orderRepo = orderRepo;
-        this.productRepo = productRepo;
         this.userRepo = userRepo;
         this.paymentRepo = paymentRepo;
+        this.stockReservation = stockReservation;
+        this.salesRollup = salesRollup;
+        this.entityManager = entityManager;
+        this.domainEvents = domainEvents;
     }
 
     @Transactional
@@ -39,19 +64,15 @@ public class OrderServiceImpl implements OrderService {
                 .createdAt(Instant.now())
                 .build();
 
+        // one locking select + one batched decrement for the whole cart
+        Map<Long, Integer> quantities = req.items().stream()
+                .collect(Collectors.toMap(OrderItemRequest::productId, OrderItemRequest::quantity, Integer::sum));
+        StockReservation reservation = stockReservation.reserve(quantities);
+
         BigDecimal total = BigDecimal.ZERO;
 
         for (OrderItemRequest itemReq : req.items()) {
-            Product product = productRepo.findById(itemReq.productId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + itemReq.productId()));
-
-            if (product.getStockQty() < itemReq.quantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            }
-
-            // reduce stock
-            product.setStockQty(product.getStockQty() - itemReq.quantity());
-            productRepo.save(product);
+            Product product = reservation.products().get(itemReq.productId());
 
             BigDecimal unitPrice = product.getPrice();
             BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(itemReq.quantity()));
@@ -62,6 +83,7 @@ public class OrderServiceImpl implements OrderService {
                     .quantity(itemReq.quantity())
                     .unitPrice(unitPrice)
                     .lineTotal(lineTotal)
+                    .stockApplied(!reservation.deferredProductIds().contains(itemReq.productId()))
                     .build();
 
             order.getItems().add(oi);
@@ -71,37 +93,92 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalAmount(total);
 
         Order saved = orderRepo.save(order);
-        return toDTO(saved);
+        domainEvents.publish(OrderCreated.of(saved));
+        salesRollup.orderCreated(saved); // last, so the shared rollup rows stay locked only until commit
+        return toDTO(saved, null); // a new order has no payment yet
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<OrderDTO> myOrders(String buyerEmail) {
-        return orderRepo.findByBuyer_Email(buyerEmail).stream().map(this::toDTO).toList();
+        return toDTOs(orderRepo.findByBuyer_Email(buyerEmail));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<OrderDTO> sellerOrders(String sellerEmail) {
-        return orderRepo.findOrdersBySeller(sellerEmail).stream().map(this::toDTO).toList();
+        return toDTOs(orderRepo.findOrdersBySeller(sellerEmail));
     }
 
+    // Keyset paginated, newest first; the cursor is the id of the last order on the previous page
+    @Transactional(readOnly = true)
     @Override
-    public List<OrderDTO> allOrders() {
-        return orderRepo.findAll().stream().map(this::toDTO).toList();
+    public OrderPage adminOrders(OrderFilter filter, String after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long beforeId = after == null || after.isBlank() ? Long.MAX_VALUE : decodeCursor(after);
+
+        List<Long> ids = orderRepo.pageIdsForAdmin(filter.status(), filter.from(), filter.to(),
+                filter.buyerId(), filter.sellerId(), beforeId, Limit.of(size + 1));
+        boolean hasMore = ids.size() > size;
+        if (hasMore) ids = ids.subList(0, size);
+
+        String next = hasMore ? Long.toString(ids.get(ids.size() - 1)) : null;
+        return new OrderPage(toDTOs(loadDetails(ids)), next);
     }
 
+    // Walks a forward-only id cursor and loads details a chunk at a time, so memory stays flat however many orders match
+    @Transactional(readOnly = true)
+    @Override
+    public void exportOrders(OrderFilter filter, Consumer<OrderDTO> sink) {
+        try (Stream<Long> ids = orderRepo.streamIdsForAdmin(filter.status(), filter.from(), filter.to(),
+                filter.buyerId(), filter.sellerId())) {
+            List<Long> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            ids.forEach(id -> {
+                chunk.add(id);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exportChunk(chunk, sink);
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) exportChunk(chunk, sink);
+        }
+    }
+
+    private void exportChunk(List<Long> ids, Consumer<OrderDTO> sink) {
+        toDTOs(loadDetails(ids)).forEach(sink);
+        entityManager.clear(); // drop the written orders from the persistence context
+    }
+
+    // details-graph orders in the same order as ids
+    private List<Order> loadDetails(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Order> byId = orderRepo.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return ids.stream().map(byId::get).toList();
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public OrderDTO getById(Long id, String requesterEmail, boolean isAdmin) {
-        Order order = orderRepo.findById(id).orElseThrow(() -> new RuntimeException("Order not found"));
+        Order order = orderRepo.findWithDetailsById(id).orElseThrow(() -> new RuntimeException("Order not found"));
         if (!isAdmin && !order.getBuyer().getEmail().equals(requesterEmail)) {
             throw new RuntimeException("Not allowed to view this order");
         }
-        return toDTO(order);
+        return toDTO(order, paymentRepo.findByOrder_Id(id).orElse(null));
     }
 
     @Transactional
     @Override
     public OrderDTO updateStatus(Long id, OrderStatus status, String userEmail, boolean isAdmin) {
-        Order order = orderRepo.findById(id).orElseThrow(() -> new RuntimeException("Order not found"));
+        Order order = orderRepo.findWithDetailsById(id).orElseThrow(() -> new RuntimeException("Order not found"));
         
         // Farmers can only update status for orders containing their products
         if (!isAdmin) {
@@ -112,11 +189,29 @@ public class OrderServiceImpl implements OrderService {
             }
         }
         
+        OrderStatus previous = order.getStatus();
+        // a payment settling meanwhile moves CREATED to PAID; don't overwrite what this request didn't see
+        if (orderRepo.moveStatus(id, previous, status) == 0) {
+            throw new RuntimeException("Order status changed meanwhile, reload and try again");
+        }
         order.setStatus(status);
-        return toDTO(orderRepo.save(order));
+        Order saved = orderRepo.save(order);
+        salesRollup.statusChanged(saved, previous);
+        // notifications and review eligibility follow from the event
+        if (previous != status) domainEvents.publish(OrderStatusChanged.of(saved, previous));
+        return toDTO(saved, paymentRepo.findByOrder_Id(id).orElse(null));
+    }
+
+    // Orders must come from a details-graph query; their payments are loaded in one batched select
+    private List<OrderDTO> toDTOs(List<Order> orders) {
+        if (orders.isEmpty()) return List.of();
+        Map<Long, Payment> payments = paymentRepo.findByOrder_IdIn(orders.stream().map(Order::getId).toList()).stream()
+                .collect(Collectors.toMap(p -> p.getOrder().getId(), p -> p));
+        return orders.stream().map(o -> toDTO(o, payments.get(o.getId()))).toList();
     }
 
-    private OrderDTO toDTO(Order o) {
+    // package-private for the mapper benchmarks
+    static OrderDTO toDTO(Order o, Payment payment) {
         List<OrderItemDTO> items = o.getItems().stream()
                 .map(i -> new OrderItemDTO(
                         i.getProduct().getId(),
@@ -130,10 +225,9 @@ public class OrderServiceImpl implements OrderService {
                 ))
                 .toList();
 
-        // Fetch payment if exists
-        PaymentDTO paymentDTO = paymentRepo.findByOrder_Id(o.getId())
-                .map(p -> new PaymentDTO(p.getId(), p.getOrder().getId(), p.getAmount(), p.getStatus(), p.getMethod(), p.getReference(), p.getPaidAt()))
-                .orElse(null);
+        PaymentDTO paymentDTO = payment == null ? null
+                : new PaymentDTO(payment.getId(), o.getId(), payment.getAmount(), payment.getStatus(),
+                        payment.getMethod(), payment.getReference(), payment.getPaidAt(), payment.getFailureReason());
 
         return new OrderDTO(
                 o.getId(), 
@@ -2,29 +2,34 @@ package com.agromarket.agro_marketplace.service.impl;
 
 import com.agromarket.agro_marketplace.dto.payment.*;
 import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.payments.PaymentProcessor;
 import com.agromarket.agro_marketplace.repository.*;
 import com.agromarket.agro_marketplace.service.PaymentService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Locale;
 
 @Service
 public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepo;
+    private final PaymentOutboxRepository outboxRepo;
     private final OrderRepository orderRepo;
-    private final UserRepository userRepo;
+    private final PaymentProcessor processor;
 
-    public PaymentServiceImpl(PaymentRepository paymentRepo, OrderRepository orderRepo, UserRepository userRepo) {
+    public PaymentServiceImpl(PaymentRepository paymentRepo, PaymentOutboxRepository outboxRepo,
+                              OrderRepository orderRepo, PaymentProcessor processor) {
         this.paymentRepo = paymentRepo;
+        this.outboxRepo = outboxRepo;
         this.orderRepo = orderRepo;
-        this.userRepo = userRepo;
+        this.processor = processor;
     }
 
+    // Only records the intent: a PENDING payment plus an outbox row in one transaction. The gateway is called by
+    // PaymentProcessor after the commit and PaymentSettlement applies the outcome (order, revenue, rollups).
+    // A FAILED payment can be paid again, reusing its row.
     @Transactional
     @Override
     public PaymentDTO pay(CreatePaymentRequest req, String buyerEmail, boolean isAdmin) {
@@ -35,40 +40,31 @@ public class PaymentServiceImpl implements PaymentService {
             throw new RuntimeException("Not allowed to pay for this order");
         }
 
-        paymentRepo.findByOrder_Id(order.getId())
-                .ifPresent(p -> { throw new RuntimeException("Payment already exists for this order"); });
-
-        // Demo payment: mark as success immediately
-        Payment payment = Payment.builder()
-                .order(order)
-                .amount(order.getTotalAmount())
-                .status(PaymentStatus.SUCCESS)
-                .method(req.method())
-                .reference(req.reference())
-                .paidAt(Instant.now())
-                .build();
-
-        Payment saved = paymentRepo.save(payment);
-
-        order.setStatus(OrderStatus.PAID);
-        orderRepo.save(order);
-
-        // Add revenue to each seller based on their items in this order
-        Map<Long, BigDecimal> sellerRevenue = new HashMap<>();
-        for (OrderItem item : order.getItems()) {
-            Long sellerId = item.getProduct().getSeller().getId();
-            BigDecimal lineTotal = item.getLineTotal();
-            sellerRevenue.merge(sellerId, lineTotal, BigDecimal::add);
+        Payment payment = paymentRepo.findByOrder_Id(order.getId()).orElse(null);
+        if (payment != null && payment.getStatus() != PaymentStatus.FAILED) {
+            throw new RuntimeException("Payment already exists for this order");
         }
-
-        for (Map.Entry<Long, BigDecimal> entry : sellerRevenue.entrySet()) {
-            User seller = userRepo.findById(entry.getKey()).orElse(null);
-            if (seller != null) {
-                BigDecimal currentRevenue = seller.getRevenue() != null ? seller.getRevenue() : BigDecimal.ZERO;
-                seller.setRevenue(currentRevenue.add(entry.getValue()));
-                userRepo.save(seller);
-            }
+        if (order.getStatus() != OrderStatus.CREATED) {
+            throw new RuntimeException("Order is not awaiting payment");
         }
+        if (payment == null) payment = Payment.builder().order(order).build();
+
+        payment.setAmount(order.getTotalAmount());
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setMethod(req.method());
+        payment.setReference(req.reference());
+        payment.setPaidAt(null);
+        payment.setFailureReason(null);
+        Payment saved = paymentRepo.save(payment);
+
+        Instant now = Instant.now();
+        outboxRepo.save(PaymentOutbox.builder()
+                .paymentId(saved.getId())
+                .provider(provider(req.method()))
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        processor.dispatchAfterCommit();
 
         return toDTO(saved);
     }
@@ -93,7 +89,13 @@ public class PaymentServiceImpl implements PaymentService {
                 p.getStatus(),
                 p.getMethod(),
                 p.getReference(),
-                p.getPaidAt()
+                p.getPaidAt(),
+                p.getFailureReason()
         );
     }
+
+    // Gateway routing key: "Bank Transfer" and "BankTransfer" go to the same provider
+    static String provider(String method) {
+        return method.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
 }
@@ -0,0 +1,48 @@
+package com.agromarket.agro_marketplace.service.impl;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductResponse;
+import com.agromarket.agro_marketplace.search.SearchHit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor: "<sort>|<last sort value>|<last id>", base64url encoded
+record ProductCursor(String sort, String value, long id) {
+
+    static ProductCursor first(String sort) {
+        return new ProductCursor(sort, null, 0L);
+    }
+
+    static ProductCursor after(String sort, ProductResponse last) {
+        String value = switch (sort) {
+            case "price" -> last.price().toPlainString();
+            case "name" -> last.name();
+            default -> null;
+        };
+        return new ProductCursor(sort, value, last.id());
+    }
+
+    static ProductCursor after(SearchHit last) {
+        return new ProductCursor("relevance", Double.toString(last.score()), last.productId());
+    }
+
+    static ProductCursor decode(String cursor, String sort) {
+        if (cursor == null || cursor.isBlank()) return first(sort);
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf('|');
+            int last = raw.lastIndexOf('|');
+            String cursorSort = raw.substring(0, first);
+            if (!cursorSort.equals(sort)) throw new RuntimeException("Cursor does not match sort: " + sort);
+            String value = first == last - 1 ? null : raw.substring(first + 1, last);
+            return new ProductCursor(cursorSort, value, Long.parseLong(raw.substring(last + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sort + "|" + (value == null ? "" : value) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
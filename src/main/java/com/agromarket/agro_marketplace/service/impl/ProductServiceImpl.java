@@ -1,12 +1,26 @@
 package com.agromarket.agro_marketplace.service.impl;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
+import com.agromarket.agro_marketplace.cache.CatalogVersions;
 import com.agromarket.agro_marketplace.dto.catalog.*;
 import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.inventory.HotStockLedger;
 import com.agromarket.agro_marketplace.repository.*;
+import com.agromarket.agro_marketplace.search.IndexedProduct;
+import com.agromarket.agro_marketplace.search.ProductSearchIndex;
+import com.agromarket.agro_marketplace.search.SearchHit;
 import com.agromarket.agro_marketplace.service.ProductService;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -15,10 +29,21 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryRepository categoryRepo;
     private final UserRepository userRepo;
 
-    public ProductServiceImpl(ProductRepository productRepo, CategoryRepository categoryRepo, UserRepository userRepo) {
+    static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> SORT_KEYS = Set.of("id", "price", "name", "relevance");
+
+    private final ProductSearchIndex searchIndex;
+    private final HotStockLedger hotStock;
+    private final CatalogVersions catalogVersions;
+
+    public ProductServiceImpl(ProductRepository productRepo, CategoryRepository categoryRepo, UserRepository userRepo,
+                              ProductSearchIndex searchIndex, HotStockLedger hotStock, CatalogVersions catalogVersions) {
         this.productRepo = productRepo;
         this.categoryRepo = categoryRepo;
         this.userRepo = userRepo;
+        this.searchIndex = searchIndex;
+        this.hotStock = hotStock;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
@@ -38,28 +63,90 @@ public class ProductServiceImpl implements ProductService {
                 .seller(seller)
                 .build());
 
+        searchIndex.upsert(toIndexed(saved));
+        catalogVersions.changed(CatalogVersions.PRODUCTS);
         return toRes(saved);
     }
 
     @Override
-    public List<ProductResponse> list(Long categoryId, String q) {
-        List<Product> products;
-        if (categoryId != null) products = productRepo.findByCategory_Id(categoryId);
-        else if (q != null && !q.isBlank()) products = productRepo.findByNameContainingIgnoreCase(q);
-        else products = productRepo.findAll();
+    public ProductPage list(Long categoryId, Long sellerId, String q, String after, int limit, String sort) {
+        boolean search = q != null && !q.isBlank();
+        if (sort != null && !SORT_KEYS.contains(sort)) throw new RuntimeException("Unsupported sort: " + sort);
+        if (!search && "relevance".equals(sort)) throw new RuntimeException("Sort by relevance needs a search query");
+        // search results are always ranked by relevance; a sort picked for the plain listing is ignored
+        String sortKey = search ? "relevance" : sort != null ? sort : "id";
+
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ProductCursor cursor = ProductCursor.decode(after, sortKey);
+        if (search) return searchPage(categoryId, sellerId, q, cursor, size);
+
+        // fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(size + 1);
+        List<ProductResponse> rows = switch (sortKey) {
+            case "price" -> productRepo.pageByPrice(categoryId, sellerId,
+                    cursor.value() == null ? BigDecimal.valueOf(-1) : new BigDecimal(cursor.value()), cursor.id(), fetch);
+            case "name" -> productRepo.pageByName(categoryId, sellerId,
+                    cursor.value() == null ? "" : cursor.value(), cursor.id(), fetch);
+            default -> productRepo.pageById(categoryId, sellerId, cursor.id(), fetch);
+        };
+
+        if (rows.size() <= size) return new ProductPage(rows, null);
+        List<ProductResponse> items = rows.subList(0, size);
+        return new ProductPage(items, ProductCursor.after(sortKey, items.get(size - 1)).encode());
+    }
 
-        return products.stream().map(this::toRes).toList();
+    @Override
+    public long count(Long categoryId, Long sellerId) {
+        return productRepo.countListing(categoryId, sellerId);
+    }
+
+    private ProductPage searchPage(Long categoryId, Long sellerId, String q, ProductCursor cursor, int size) {
+        // one extra hit to know whether another page exists
+        Double afterScore = cursor.value() == null ? null : Double.valueOf(cursor.value());
+        List<SearchHit> hits = searchIndex.page(q, categoryId, sellerId, afterScore, cursor.id(), size + 1);
+        if (hits.isEmpty()) return new ProductPage(List.of(), null);
+
+        List<SearchHit> pageHits = hits.subList(0, Math.min(size, hits.size()));
+        Map<Long, ProductResponse> rows = productRepo.findListingByIdIn(pageHits.stream().map(SearchHit::productId).toList())
+                .stream().collect(Collectors.toMap(ProductResponse::id, r -> r));
+        List<ProductResponse> items = pageHits.stream().map(h -> rows.get(h.productId())).filter(Objects::nonNull).toList();
+
+        String next = hits.size() > size ? ProductCursor.after(pageHits.get(pageHits.size() - 1)).encode() : null;
+        return new ProductPage(items, next);
     }
 
     @Override
     public ProductResponse get(Long id) {
-        return productRepo.findById(id).map(this::toRes)
+        return productRepo.findListingById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    // Any product change, or a product selling out, moves the listing version, whatever page or filter the client
+    // asked for; the stock counts of a revalidated listing may trail sales that left some stock, hence a weak tag
+    @Override
+    public CatalogVersion listingVersion() {
+        return catalogVersions.current(CatalogVersions.PRODUCTS).weak();
+    }
+
+    @Override
+    public CatalogVersion version(Long id) {
+        List<Object[]> rows = productRepo.findVersionById(id);
+        if (rows.isEmpty()) throw new RuntimeException("Product not found");
+        Object[] row = rows.get(0);
+        // the product's own version plus its review count, since the response carries the rating totals
+        long ratings = row[2] == null ? 0 : (Long) row[2];
+        long modified = Math.max(millis((Instant) row[1]), millis((Instant) row[3]));
+        return new CatalogVersion("\"product-" + id + "-" + row[0] + "-" + ratings + "\"", modified);
+    }
+
     @Override
     public ProductResponse update(Long id, ProductCreateRequest req, String sellerEmail) {
+        // hot SKU: apply pending reservations first so the new stock level replaces them
+        boolean hot = hotStock.isHot(id);
+        if (hot) hotStock.flush(id);
+
         Product p = productRepo.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
+        int stockBefore = p.getStockQty();
         if (!p.getSeller().getEmail().equals(sellerEmail))
             throw new RuntimeException("Only seller can update");
 
@@ -72,7 +159,12 @@ public class ProductServiceImpl implements ProductService {
         p.setStockQty(req.stockQty());
         p.setCategory(category);
 
-        return toRes(productRepo.save(p));
+        Product saved = save(p);
+        // the version check on save means no write-back landed in between, so the counter moves by the same amount
+        if (hot) hotStock.adjust(id, saved.getStockQty() - stockBefore);
+        searchIndex.upsert(toIndexed(saved));
+        catalogVersions.changed(CatalogVersions.PRODUCTS);
+        return get(saved.getId());
     }
 
     @Override
@@ -81,13 +173,46 @@ public class ProductServiceImpl implements ProductService {
         if (!isAdmin && !p.getSeller().getEmail().equals(sellerEmail))
             throw new RuntimeException("Only seller/admin can delete");
         productRepo.delete(p);
+        searchIndex.remove(p.getId());
+        if (p.isHot()) hotStock.untrack(p.getId());
+        catalogVersions.changed(CatalogVersions.PRODUCTS);
+    }
+
+    @Override
+    public ProductResponse setHot(Long id, boolean hot) {
+        Product p = productRepo.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
+        p.setHot(hot);
+        Product saved = save(p);
+        if (hot) hotStock.track(id);
+        else hotStock.untrack(id);
+        return get(saved.getId());
+    }
+
+    private static long millis(Instant at) {
+        return at == null ? -1 : at.toEpochMilli();
+    }
+
+    // the version check turns a write that raced a checkout into a retryable error instead of a lost update
+    private Product save(Product p) {
+        try {
+            return productRepo.save(p);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new RuntimeException("Product was changed by another request, please retry");
+        }
+    }
+
+    private IndexedProduct toIndexed(Product p) {
+        return new IndexedProduct(p.getId(), p.getName(), p.getDescription(), p.getCategory().getId(), p.getSeller().getId());
     }
 
-    private ProductResponse toRes(Product p) {
+    // only used for a product that was just created, so there are no reviews yet
+    // package-private for the mapper benchmarks
+    static ProductResponse toRes(Product p) {
         return new ProductResponse(
                 p.getId(), p.getName(), p.getDescription(), p.getPrice(), p.getStockQty(),
                 p.getCategory().getId(), p.getCategory().getName(),
-                p.getSeller().getId(), p.getSeller().getFullName()
+                p.getSeller().getId(), p.getSeller().getFullName(),
+                RatingSummary.NONE
         );
     }
 }
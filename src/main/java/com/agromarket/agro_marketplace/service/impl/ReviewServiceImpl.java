@@ -1,10 +1,16 @@
 package com.agromarket.agro_marketplace.service.impl;
 
+import com.agromarket.agro_marketplace.cache.CatalogVersion;
+import com.agromarket.agro_marketplace.cache.CatalogVersions;
 import com.agromarket.agro_marketplace.dto.review.*;
 import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.lifecycle.DomainEventOutbox;
+import com.agromarket.agro_marketplace.lifecycle.ReviewCreated;
 import com.agromarket.agro_marketplace.repository.*;
 import com.agromarket.agro_marketplace.service.ReviewService;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -15,58 +21,85 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepo;
     private final ProductRepository productRepo;
     private final UserRepository userRepo;
-    private final OrderRepository orderRepo;
+    private final DeliveredPurchaseRepository purchaseRepo;
+    private final ProductRatingRepository ratingRepo;
+    private final CatalogVersions catalogVersions;
+    private final DomainEventOutbox domainEvents;
 
-    public ReviewServiceImpl(ReviewRepository reviewRepo, ProductRepository productRepo,
-                             UserRepository userRepo, OrderRepository orderRepo) {
+    static final int MAX_PAGE_SIZE = 100;
+
+    public ReviewServiceImpl(ReviewRepository reviewRepo, ProductRepository productRepo, UserRepository userRepo,
+                             DeliveredPurchaseRepository purchaseRepo, ProductRatingRepository ratingRepo, CatalogVersions catalogVersions,
+                             DomainEventOutbox domainEvents) {
         this.reviewRepo = reviewRepo;
+        this.ratingRepo = ratingRepo;
         this.productRepo = productRepo;
         this.userRepo = userRepo;
-        this.orderRepo = orderRepo;
+        this.purchaseRepo = purchaseRepo;
+        this.catalogVersions = catalogVersions;
+        this.domainEvents = domainEvents;
     }
 
+    // The review and the product's rating totals commit together
+    @Transactional
     @Override
     public ReviewDTO create(CreateReviewRequest req, String reviewerEmail) {
-        User reviewer = userRepo.findByEmail(reviewerEmail)
+        Long reviewerId = userRepo.findIdByEmail(reviewerEmail)
                 .orElseThrow(() -> new RuntimeException("Reviewer not found"));
 
-        Product product = productRepo.findById(req.productId())
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        // Professional rule: only allow review if buyer has DELIVERED order with this product
-        boolean canReview = orderRepo.existsByBuyer_EmailAndStatusAndItems_Product_Id(
-                reviewerEmail, OrderStatus.DELIVERED, req.productId()
-        );
-
-        if (!canReview) {
+        // Professional rule: only allow review if buyer has a DELIVERED order with this product, and only once.
+        // Claiming the delivered purchase is a single primary-key update that also settles concurrent attempts.
+        if (purchaseRepo.claimReview(reviewerId, req.productId()) == 0) {
+            if (purchaseRepo.existsById(new DeliveredPurchase.Key(reviewerId, req.productId()))) {
+                throw new RuntimeException("You have already reviewed this product");
+            }
             throw new RuntimeException("You can review only after delivery of this product");
         }
 
         Review review = Review.builder()
-                .product(product)
-                .reviewer(reviewer)
+                .product(productRepo.getReferenceById(req.productId()))
+                .reviewer(userRepo.getReferenceById(reviewerId))
                 .rating(req.rating())
                 .comment(req.comment())
                 .createdAt(Instant.now())
                 .build();
 
         Review saved = reviewRepo.save(review);
-        return toDTO(saved);
+        ratingRepo.createIfAbsent(req.productId());
+        ratingRepo.addRating(req.productId(), saved.getRating(), saved.getCreatedAt());
+
+        // product responses carry the rating totals too
+        catalogVersions.changed(CatalogVersions.REVIEWS);
+        catalogVersions.changed(CatalogVersions.PRODUCTS);
+        domainEvents.publish(new ReviewCreated(saved.getId(), req.productId(), reviewerId, saved.getRating(),
+                saved.getCreatedAt()));
+        return new ReviewDTO(saved.getId(), req.productId(), reviewerEmail, saved.getRating(), saved.getComment(),
+                saved.getCreatedAt());
     }
 
+    // Keyset paginated, newest first; the cursor is the id of the last review on the previous page
     @Override
-    public List<ReviewDTO> getByProduct(Long productId) {
-        return reviewRepo.findByProduct_Id(productId).stream().map(this::toDTO).toList();
+    public ReviewPage getByProduct(Long productId, String after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long beforeId = after == null || after.isBlank() ? Long.MAX_VALUE : decodeCursor(after);
+
+        List<ReviewDTO> rows = reviewRepo.pageByProduct(productId, beforeId, Limit.of(size + 1));
+        if (rows.size() <= size) return new ReviewPage(rows, null);
+        List<ReviewDTO> items = rows.subList(0, size);
+        return new ReviewPage(items, String.valueOf(items.get(size - 1).id()));
     }
 
-    private ReviewDTO toDTO(Review r) {
-        return new ReviewDTO(
-                r.getId(),
-                r.getProduct().getId(),
-                r.getReviewer().getEmail(),
-                r.getRating(),
-                r.getComment(),
-                r.getCreatedAt()
-        );
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    // one counter for all reviews: any new review changes the tag of every product's review list
+    @Override
+    public CatalogVersion version() {
+        return catalogVersions.current(CatalogVersions.REVIEWS);
     }
 }
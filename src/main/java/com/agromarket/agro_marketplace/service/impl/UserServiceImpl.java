@@ -1,42 +1,89 @@
 package com.agromarket.agro_marketplace.service.impl;
 
 import com.agromarket.agro_marketplace.dto.user.UserDTO;
+import com.agromarket.agro_marketplace.entity.Roles;
 import com.agromarket.agro_marketplace.entity.User;
 import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.revenue.SellerRevenueLedger;
+import com.agromarket.agro_marketplace.security.JwtPrincipalCache;
+import com.agromarket.agro_marketplace.security.TokenRevocationList;
 import com.agromarket.agro_marketplace.service.UserService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepo;
+    private final JwtPrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    private final SellerRevenueLedger revenueLedger;
 
-    public UserServiceImpl(UserRepository userRepo) {
+    public UserServiceImpl(UserRepository userRepo, JwtPrincipalCache principalCache,
+                           TokenRevocationList revocationList, SellerRevenueLedger revenueLedger) {
         this.userRepo = userRepo;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
+        this.revenueLedger = revenueLedger;
     }
 
     @Override
     public UserDTO me(String email) {
         User user = userRepo.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-        return toDTO(user);
+        return toDTO(user, revenueLedger.revenueOf(user.getId()));
     }
 
     @Override
     public List<UserDTO> listAll() {
-        return userRepo.findAll().stream().map(this::toDTO).toList();
+        Map<Long, BigDecimal> revenue = revenueLedger.revenueOfAll();
+        return userRepo.findAll().stream().map(u -> toDTO(u, revenue.get(u.getId()))).toList();
     }
 
+    @Transactional
     @Override
     public void delete(Long id) {
         User user = userRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepo.delete(user);
+        dropTokensAfterCommit(user);
     }
 
-    private UserDTO toDTO(User u) {
+    @Transactional
+    @Override
+    public UserDTO updateRoles(Long id, Set<Roles> roles) {
+        User user = userRepo.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setRoles(new HashSet<>(roles));
+        User saved = userRepo.save(user);
+        dropTokensAfterCommit(saved); // stateless tokens carry the old roles
+        return toDTO(saved, revenueLedger.revenueOf(saved.getId()));
+    }
+
+    // Cached principals and issued tokens hold the old account. Done once the change is visible: before the commit,
+    // a request could still load the old roles into the cache, or a login could get a token with them
+    private void dropTokensAfterCommit(User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principalCache.invalidateUser(email);
+                revocationList.revoke(userId);
+            }
+        });
+    }
+
+    // revenue includes ledger entries not yet compacted into users.revenue
+    private UserDTO toDTO(User u, BigDecimal revenue) {
         return new UserDTO(
                 u.getId(),
                 u.getFullName(),
@@ -44,7 +91,7 @@ public class UserServiceImpl implements UserService {
                 u.getPhone(),
                 u.getCity(),
                 u.getRoles() == null ? null : u.getRoles().stream().map(Enum::name).collect(Collectors.toSet()),
-                u.getRevenue() != null ? u.getRevenue() : java.math.BigDecimal.ZERO
+                revenue != null ? revenue : BigDecimal.ZERO
         );
     }
 }
@@ -0,0 +1,105 @@
+package com.agromarket.agro_marketplace.threads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Reports which threads serve requests (spring.threads.virtual.enabled switches Tomcat, @Async and @Scheduled work
+// to virtual threads, but only on a Java 21+ runtime; the build targets 17, where the flag has no effect).
+// In virtual mode it streams the JDK's jdk.VirtualThreadPinned JFR events into metrics: a virtual thread that blocks
+// inside a synchronized block (common in JDBC drivers and Hibernate) holds its carrier thread, and enough of those
+// at once starve every request. Pins are tagged by the first known library on the stack.
+@Component
+public class RequestThreadMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestThreadMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // innermost match wins, so a pin inside the driver called from Hibernate counts as the driver's
+    private static final List<Map.Entry<String, String>> SOURCES = List.of(
+            Map.entry("org.postgresql.", "jdbc-driver"),
+            Map.entry("org.h2.", "jdbc-driver"),
+            Map.entry("com.zaxxer.hikari.", "hikari"),
+            Map.entry("org.hibernate.", "hibernate"),
+            Map.entry("org.apache.", "tomcat"),
+            Map.entry("com.agromarket.", "app"));
+
+    private final MeterRegistry meters;
+    private final boolean virtualRequested;
+    private final boolean virtual;
+    private final Duration pinnedThreshold;
+    private RecordingStream pins;
+
+    public RequestThreadMonitor(MeterRegistry meters,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested,
+                                @Value("${app.threads.pinned-threshold-ms:20}") long pinnedThresholdMs) {
+        this.meters = meters;
+        this.virtualRequested = virtualRequested;
+        this.virtual = virtualRequested && Runtime.version().feature() >= 21;
+        this.pinnedThreshold = Duration.ofMillis(pinnedThresholdMs);
+        Gauge.builder("app.threads.virtual", () -> virtual ? 1 : 0)
+                .description("1 when requests run on virtual threads")
+                .register(meters);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (virtualRequested && !virtual) {
+            log.warn("Virtual threads requested but the runtime is Java {}; requests stay on platform threads",
+                    Runtime.version().feature());
+        }
+        log.info("Request threads: {}", virtual ? "virtual" : "platform");
+        if (!virtual || pins != null) return;
+
+        pins = new RecordingStream();
+        pins.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        pins.onEvent(PINNED_EVENT, this::pinned);
+        pins.startAsync();
+    }
+
+    private void pinned(RecordedEvent event) {
+        String source = source(event);
+        Counter.builder("app.threads.pinned").description("Virtual threads pinned to their carrier while blocked")
+                .tag("source", source).register(meters).increment();
+        Timer.builder("app.threads.pinned.duration").tag("source", source).register(meters)
+                .record(event.getDuration());
+        if (log.isDebugEnabled()) log.debug("Virtual thread pinned for {} ms in {}", event.getDuration().toMillis(), source);
+    }
+
+    private static String source(RecordedEvent event) {
+        if (event.getStackTrace() == null) return "unknown";
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.getMethod() == null || frame.getMethod().getType() == null) continue;
+            String type = frame.getMethod().getType().getName();
+            for (Map.Entry<String, String> s : SOURCES) {
+                if (type.startsWith(s.getKey())) return s.getValue();
+            }
+        }
+        return "other";
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pins != null) pins.close();
+    }
+}
@@ -0,0 +1,42 @@
+-- H2 variant of db/postgresql/V20: H2 has no named sequence behind a bigserial column, so each identity column
+-- becomes a plain column defaulting to a new sequence that steps by 50 and starts above the highest id
+
+CREATE SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE categories_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM categories);
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE categories ALTER COLUMN id SET DEFAULT nextval('categories_id_seq');
+
+CREATE SEQUENCE messages_id_seq INCREMENT BY 50;
+ALTER SEQUENCE messages_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM messages);
+ALTER TABLE messages ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE messages ALTER COLUMN id SET DEFAULT nextval('messages_id_seq');
+
+CREATE SEQUENCE order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM order_items);
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_id_seq');
+
+CREATE SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM orders);
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_id_seq');
+
+CREATE SEQUENCE payments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM payments);
+ALTER TABLE payments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE payments ALTER COLUMN id SET DEFAULT nextval('payments_id_seq');
+
+CREATE SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM products);
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_id_seq');
+
+CREATE SEQUENCE reviews_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reviews_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM reviews);
+ALTER TABLE reviews ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE reviews ALTER COLUMN id SET DEFAULT nextval('reviews_id_seq');
+
+CREATE SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_id_seq');
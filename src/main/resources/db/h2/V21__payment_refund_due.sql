@@ -0,0 +1,8 @@
+-- H2 variant of db/postgresql/V21: the baseline check has a generated name here, so the column is rebuilt,
+-- which drops the check with it, and the new check is added under the PostgreSQL name
+
+ALTER TABLE payments ADD COLUMN status_new varchar(255);
+UPDATE payments SET status_new = status;
+ALTER TABLE payments DROP COLUMN status;
+ALTER TABLE payments ALTER COLUMN status_new RENAME TO status;
+ALTER TABLE payments ADD CONSTRAINT payments_status_check CHECK (status IN ('PENDING', 'SUCCESS', 'FAILED', 'REFUND_DUE'));
@@ -0,0 +1,14 @@
+-- H2 variant of db/postgresql/V22: H2 can't index an expression, so the index is on a generated lower-case column
+
+-- Categories whose names differ only in case are merged into the oldest one first, products and all
+
+UPDATE products SET category_id = (
+    SELECT MIN(k.id) FROM categories c JOIN categories k ON LOWER(k.name) = LOWER(c.name) WHERE c.id = products.category_id)
+WHERE category_id IN (
+    SELECT c.id FROM categories c WHERE EXISTS (SELECT 1 FROM categories k WHERE LOWER(k.name) = LOWER(c.name) AND k.id < c.id));
+
+DELETE FROM categories WHERE EXISTS (
+    SELECT 1 FROM categories k WHERE LOWER(k.name) = LOWER(categories.name) AND k.id < categories.id);
+
+ALTER TABLE categories ADD COLUMN name_lower varchar(255) GENERATED ALWAYS AS (LOWER(name));
+CREATE UNIQUE INDEX uq_categories_name_lower ON categories (name_lower);
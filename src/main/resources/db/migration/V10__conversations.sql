@@ -0,0 +1,20 @@
+-- One row per pair of users who have exchanged messages, with an unread counter per side
+create table conversations (
+    unread_high integer not null,
+    unread_low integer not null,
+    last_message_at timestamp(6) with time zone,
+    user_high_id bigint not null,
+    user_low_id bigint not null,
+    id varchar(41) not null,
+    primary key (id)
+);
+
+ALTER TABLE messages ADD COLUMN conversation_id varchar(41);
+
+create index idx_conversations_low_last on conversations (user_low_id, last_message_at);
+create index idx_conversations_high_last on conversations (user_high_id, last_message_at);
+create index idx_messages_receiver_sent on messages (receiver_id, sent_at, id);
+create index idx_messages_conversation_sent on messages (conversation_id, sent_at, id);
+
+alter table if exists conversations add constraint FKq37f5g5xr7b0fng6wdnrvdo4x foreign key (user_high_id) references users;
+alter table if exists conversations add constraint FKhg6flv5tx4yav2c121bep7qpe foreign key (user_low_id) references users;
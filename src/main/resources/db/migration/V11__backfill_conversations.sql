@@ -0,0 +1,9 @@
+-- Group messages sent before conversations existed. The id is "<lower user id>:<higher user id>".
+UPDATE messages SET conversation_id = CONCAT(LEAST(sender_id, receiver_id), ':', GREATEST(sender_id, receiver_id))
+WHERE conversation_id IS NULL;
+
+INSERT INTO conversations (id, user_low_id, user_high_id, unread_low, unread_high, last_message_at)
+SELECT m.conversation_id, MIN(LEAST(m.sender_id, m.receiver_id)), MAX(GREATEST(m.sender_id, m.receiver_id)), 0, 0, MAX(m.sent_at)
+FROM messages m
+WHERE NOT EXISTS (SELECT 1 FROM conversations c WHERE c.id = m.conversation_id)
+GROUP BY m.conversation_id;
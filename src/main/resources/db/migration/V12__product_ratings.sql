@@ -0,0 +1,15 @@
+-- Running review totals per product, and keyset pages of a product's reviews
+create table product_ratings (
+    product_id bigint not null,
+    rating_count bigint not null,
+    rating_sum bigint not null,
+    stars1 bigint not null,
+    stars2 bigint not null,
+    stars3 bigint not null,
+    stars4 bigint not null,
+    stars5 bigint not null,
+    updated_at timestamp(6) with time zone,
+    primary key (product_id)
+);
+
+create index idx_reviews_product_id on reviews (product_id, id);
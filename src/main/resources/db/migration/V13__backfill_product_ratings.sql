@@ -0,0 +1,13 @@
+-- Older versions let a buyer review a product more than once; the newest review stands (V14 makes it unique)
+DELETE FROM reviews r
+WHERE EXISTS (SELECT 1 FROM reviews n WHERE n.product_id = r.product_id AND n.reviewer_id = r.reviewer_id AND n.id > r.id);
+
+-- Rating totals for reviews written before they were kept
+INSERT INTO product_ratings (product_id, rating_count, rating_sum, stars1, stars2, stars3, stars4, stars5, updated_at)
+SELECT r.product_id, COUNT(*), SUM(r.rating),
+       SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END), CURRENT_TIMESTAMP
+FROM reviews r
+WHERE NOT EXISTS (SELECT 1 FROM product_ratings pr WHERE pr.product_id = r.product_id)
+GROUP BY r.product_id;
@@ -0,0 +1,10 @@
+-- Review eligibility: one row per (buyer, product) received, claimed by the buyer's single review of it
+create table delivered_purchases (
+    reviewed boolean not null,
+    buyer_id bigint not null,
+    delivered_at timestamp(6) with time zone,
+    product_id bigint not null,
+    primary key (buyer_id, product_id)
+);
+
+ALTER TABLE reviews ADD CONSTRAINT uk_reviews_product_reviewer UNIQUE (product_id, reviewer_id);
@@ -0,0 +1,8 @@
+-- Review eligibility for orders delivered before purchases were recorded; purchases already reviewed are claimed
+INSERT INTO delivered_purchases (buyer_id, product_id, delivered_at, reviewed)
+SELECT o.buyer_id, i.product_id, MAX(o.created_at),
+       EXISTS (SELECT 1 FROM reviews r WHERE r.reviewer_id = o.buyer_id AND r.product_id = i.product_id)
+FROM orders o JOIN order_items i ON i.order_id = o.id
+WHERE o.status = 'DELIVERED'
+  AND NOT EXISTS (SELECT 1 FROM delivered_purchases d WHERE d.buyer_id = o.buyer_id AND d.product_id = i.product_id)
+GROUP BY o.buyer_id, i.product_id;
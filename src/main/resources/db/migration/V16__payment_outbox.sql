@@ -0,0 +1,16 @@
+-- Payments are charged asynchronously: pay() leaves a PENDING payment and an outbox row for the workers
+ALTER TABLE payments ADD COLUMN failure_reason varchar(255);
+
+create table payment_outbox (
+    attempts integer not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    locked_until timestamp(6) with time zone,
+    next_attempt_at timestamp(6) with time zone not null,
+    payment_id bigint not null unique,
+    last_error varchar(500),
+    provider varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_payment_outbox_due on payment_outbox (next_attempt_at);
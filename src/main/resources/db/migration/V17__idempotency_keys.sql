@@ -0,0 +1,12 @@
+-- Responses of POSTs sent with an Idempotency-Key, replayed to retries until they expire
+create table idempotency_keys (
+    status_code integer not null,
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone not null,
+    request_hash varchar(64) not null,
+    id varchar(64) not null,
+    response_body text not null,
+    primary key (id)
+);
+
+create index idx_idempotency_keys_expires on idempotency_keys (expires_at);
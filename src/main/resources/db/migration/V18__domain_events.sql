@@ -0,0 +1,17 @@
+-- Outbox of domain events (order created, status changed, payment completed, review created), delivered
+-- to in-process subscribers after the transaction that wrote them commits
+create table domain_events (
+    attempts integer not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    locked_until timestamp(6) with time zone,
+    next_attempt_at timestamp(6) with time zone not null,
+    claimed_by varchar(36),
+    event_type varchar(100) not null,
+    last_error varchar(500),
+    payload text not null,
+    primary key (id)
+);
+
+create index idx_domain_events_due on domain_events (next_attempt_at);
+create index idx_domain_events_claimed on domain_events (claimed_by);
@@ -0,0 +1,4 @@
+-- Seller stock-keeping codes, the key the bulk catalog import matches rows on
+ALTER TABLE products ADD COLUMN sku varchar(100);
+
+ALTER TABLE products ADD CONSTRAINT uk_products_seller_sku UNIQUE (seller_id, sku);
@@ -0,0 +1,96 @@
+-- Schema as Hibernate created it with ddl-auto=update before migrations were introduced. Databases that already
+-- have it are baselined at version 1 (spring.flyway.baseline-on-migrate) and start from V2.
+
+create table categories (
+    id bigserial not null,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table messages (
+    id bigserial not null,
+    receiver_id bigint not null,
+    sender_id bigint not null,
+    sent_at timestamp(6) with time zone,
+    content varchar(2000) not null,
+    primary key (id)
+);
+
+create table order_items (
+    line_total numeric(38,2) not null,
+    quantity integer not null,
+    unit_price numeric(38,2) not null,
+    id bigserial not null,
+    order_id bigint not null,
+    product_id bigint not null,
+    primary key (id)
+);
+
+create table orders (
+    total_amount numeric(38,2),
+    buyer_id bigint not null,
+    created_at timestamp(6) with time zone,
+    id bigserial not null,
+    status varchar(255) check (status in ('CREATED','PAID','SHIPPED','DELIVERED','CANCELLED')),
+    primary key (id)
+);
+
+create table payments (
+    amount numeric(38,2) not null,
+    id bigserial not null,
+    order_id bigint not null unique,
+    paid_at timestamp(6) with time zone,
+    method varchar(255),
+    reference varchar(255),
+    status varchar(255) check (status in ('PENDING','SUCCESS','FAILED')),
+    primary key (id)
+);
+
+create table products (
+    price numeric(38,2) not null,
+    stock_qty integer not null,
+    category_id bigint not null,
+    id bigserial not null,
+    seller_id bigint not null,
+    description varchar(2000),
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table reviews (
+    rating integer not null,
+    created_at timestamp(6) with time zone,
+    id bigserial not null,
+    product_id bigint not null,
+    reviewer_id bigint not null,
+    comment varchar(2000),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role varchar(255) check (role in ('ADMIN','FARMER','BUYER'))
+);
+
+create table users (
+    revenue NUMERIC(12,2) DEFAULT 0,
+    id bigserial not null,
+    city varchar(255),
+    email varchar(255) not null unique,
+    full_name varchar(255) not null,
+    password_hash varchar(255) not null,
+    phone varchar(255),
+    primary key (id)
+);
+
+alter table if exists messages add constraint FKt05r0b6n0iis8u7dfna4xdh73 foreign key (receiver_id) references users;
+alter table if exists messages add constraint FK4ui4nnwntodh6wjvck53dbk9m foreign key (sender_id) references users;
+alter table if exists order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders;
+alter table if exists order_items add constraint FKocimc7dtr037rh4ls4l95nlfi foreign key (product_id) references products;
+alter table if exists orders add constraint FKhtx3insd5ge6w486omk4fnk54 foreign key (buyer_id) references users;
+alter table if exists payments add constraint FK81gagumt0r8y3rmudcgpbk42l foreign key (order_id) references orders;
+alter table if exists products add constraint FKog2rp4qthbtt2lfyhfo32lsw9 foreign key (category_id) references categories;
+alter table if exists products add constraint FKbgw3lyxhsml3kfqnfr45o0vbj foreign key (seller_id) references users;
+alter table if exists reviews add constraint FKpl51cejpw4gy5swfar8br9ngi foreign key (product_id) references products;
+alter table if exists reviews add constraint FKd1isgfajhtdl8mgg29up6mofi foreign key (reviewer_id) references users;
+alter table if exists user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users;
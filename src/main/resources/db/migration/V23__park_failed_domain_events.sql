@@ -0,0 +1,3 @@
+-- Domain events that can never be delivered (unknown type, unreadable payload, out of attempts) are parked
+-- with their last error instead of being retried forever; the dispatcher skips rows with failed_at set
+ALTER TABLE domain_events ADD COLUMN failed_at timestamp(6) with time zone;
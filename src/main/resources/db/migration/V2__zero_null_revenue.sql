@@ -0,0 +1,2 @@
+-- users created before the revenue column existed
+UPDATE users SET revenue = 0 WHERE revenue IS NULL;
@@ -0,0 +1,5 @@
+-- Keyset pages of the product listing: (sort key, id) per filter and sort order
+create index idx_products_category_id on products (category_id, id);
+create index idx_products_seller_id on products (seller_id, id);
+create index idx_products_price_id on products (price, id);
+create index idx_products_name_id on products (name, id);
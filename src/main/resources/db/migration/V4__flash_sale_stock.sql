@@ -0,0 +1,5 @@
+-- Flash-sale products reserve stock in memory; their order lines are flagged until the stock is written back
+ALTER TABLE products ADD COLUMN hot BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE order_items ADD COLUMN stock_applied BOOLEAN DEFAULT TRUE NOT NULL;
+
+create index idx_order_items_product_pending on order_items (product_id, stock_applied);
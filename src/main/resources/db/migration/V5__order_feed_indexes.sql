@@ -0,0 +1,5 @@
+-- Admin order feed: keyset pages by status, buyer and date, and the lines of a page of orders
+create index idx_orders_status_id on orders (status, id);
+create index idx_orders_buyer_id on orders (buyer_id, id);
+create index idx_orders_created_at on orders (created_at);
+create index idx_order_items_order_id on order_items (order_id);
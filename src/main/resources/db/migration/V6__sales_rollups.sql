@@ -0,0 +1,29 @@
+-- Dashboard rollups kept up to date by SalesRollup as orders are created, paid and moved
+create table product_sales (
+    revenue numeric(14,2) not null,
+    product_id bigint not null,
+    seller_id bigint not null,
+    units_sold bigint not null,
+    primary key (product_id)
+);
+
+create table seller_daily_sales (
+    revenue numeric(14,2) not null,
+    sales_day date not null,
+    lead_orders_paid bigint not null,
+    orders_paid bigint not null,
+    seller_id bigint not null,
+    units_sold bigint not null,
+    primary key (sales_day, seller_id)
+);
+
+create table seller_order_status_counts (
+    lead_orders bigint not null,
+    orders bigint not null,
+    seller_id bigint not null,
+    status varchar(20) not null check (status in ('CREATED','PAID','SHIPPED','DELIVERED','CANCELLED')),
+    primary key (seller_id, status)
+);
+
+create index idx_product_sales_seller_units on product_sales (seller_id, units_sold);
+create index idx_product_sales_units on product_sales (units_sold);
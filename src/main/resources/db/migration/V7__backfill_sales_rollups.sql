@@ -0,0 +1,32 @@
+-- Dashboard rollups for the orders and payments on record before SalesRollup kept them up to date.
+-- An order's lead seller is its lowest seller id; lead_* counts it only there. Rows that already exist are left alone.
+
+INSERT INTO seller_order_status_counts (seller_id, status, orders, lead_orders)
+SELECT os.seller_id, o.status, COUNT(*), SUM(CASE WHEN os.seller_id = lead_seller.seller_id THEN 1 ELSE 0 END)
+FROM orders o
+JOIN (SELECT DISTINCT i.order_id, p.seller_id FROM order_items i JOIN products p ON p.id = i.product_id) os ON os.order_id = o.id
+JOIN (SELECT i.order_id, MIN(p.seller_id) AS seller_id FROM order_items i JOIN products p ON p.id = i.product_id
+      GROUP BY i.order_id) lead_seller ON lead_seller.order_id = o.id
+WHERE o.status IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM seller_order_status_counts c WHERE c.seller_id = os.seller_id AND c.status = o.status)
+GROUP BY os.seller_id, o.status;
+
+INSERT INTO seller_daily_sales (seller_id, sales_day, revenue, units_sold, orders_paid, lead_orders_paid)
+SELECT p.seller_id, CAST(pay.paid_at AT TIME ZONE 'UTC' AS DATE), SUM(i.line_total), SUM(i.quantity), COUNT(DISTINCT o.id),
+       COUNT(DISTINCT CASE WHEN p.seller_id = lead_seller.seller_id THEN o.id END)
+FROM payments pay JOIN orders o ON o.id = pay.order_id
+JOIN order_items i ON i.order_id = o.id JOIN products p ON p.id = i.product_id
+JOIN (SELECT i.order_id, MIN(p.seller_id) AS seller_id FROM order_items i JOIN products p ON p.id = i.product_id
+      GROUP BY i.order_id) lead_seller ON lead_seller.order_id = o.id
+WHERE pay.status = 'SUCCESS' AND pay.paid_at IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM seller_daily_sales d
+                  WHERE d.seller_id = p.seller_id AND d.sales_day = CAST(pay.paid_at AT TIME ZONE 'UTC' AS DATE))
+GROUP BY p.seller_id, CAST(pay.paid_at AT TIME ZONE 'UTC' AS DATE);
+
+INSERT INTO product_sales (product_id, seller_id, units_sold, revenue)
+SELECT p.id, p.seller_id, SUM(i.quantity), SUM(i.line_total)
+FROM payments pay JOIN orders o ON o.id = pay.order_id
+JOIN order_items i ON i.order_id = o.id JOIN products p ON p.id = i.product_id
+WHERE pay.status = 'SUCCESS' AND pay.paid_at IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM product_sales s WHERE s.product_id = p.id)
+GROUP BY p.id, p.seller_id;
@@ -0,0 +1,12 @@
+-- Append-only seller revenue: one row per seller per paid order, folded into users.revenue
+create table seller_revenue_ledger (
+    amount numeric(14,2) not null,
+    applied BOOLEAN DEFAULT FALSE not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    order_id bigint not null,
+    seller_id bigint not null,
+    primary key (id)
+);
+
+create index idx_revenue_ledger_seller_pending on seller_revenue_ledger (seller_id, applied);
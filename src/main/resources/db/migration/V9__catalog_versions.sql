@@ -0,0 +1,7 @@
+-- Version and last-modified columns behind the ETag and Last-Modified of the public catalog
+ALTER TABLE categories ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE categories ADD COLUMN updated_at timestamp(6) with time zone;
+ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN updated_at timestamp(6) with time zone;
+ALTER TABLE reviews ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE reviews ADD COLUMN updated_at timestamp(6) with time zone;
@@ -0,0 +1,27 @@
+-- Ids are handed out 50 at a time (pooled sequences) so Hibernate can batch inserts. The bigserial sequences
+-- step by 50 from here on and restart above the highest id: Hibernate uses the range just below each value
+-- it draws, and plain SQL inserts still take their id from the column default
+
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+SELECT setval('categories_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM categories;
+
+ALTER SEQUENCE messages_id_seq INCREMENT BY 50;
+SELECT setval('messages_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM messages;
+
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+SELECT setval('order_items_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM order_items;
+
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+SELECT setval('orders_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM orders;
+
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+SELECT setval('payments_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM payments;
+
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+SELECT setval('products_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM products;
+
+ALTER SEQUENCE reviews_id_seq INCREMENT BY 50;
+SELECT setval('reviews_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM reviews;
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
@@ -0,0 +1,5 @@
+-- Payments charged after their order was cancelled are kept as REFUND_DUE; the baseline check only knew
+-- PENDING, SUCCESS and FAILED
+
+ALTER TABLE payments DROP CONSTRAINT payments_status_check;
+ALTER TABLE payments ADD CONSTRAINT payments_status_check CHECK (status IN ('PENDING', 'SUCCESS', 'FAILED', 'REFUND_DUE'));
@@ -0,0 +1,124 @@
+package com.agromarket.agro_marketplace;
+
+import com.agromarket.agro_marketplace.entity.Category;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database created by the last release (ddl-auto=update, no flyway_schema_history) holds the V1 schema and rows.
+// At startup it is baselined at V1, the later migrations add what the release lacks and fix its rows up, and the
+// mapping validates against the result.
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + LegacySchemaUpgradeTest.URL,
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class LegacySchemaUpgradeTest {
+
+    static final String URL = "jdbc:h2:mem:legacy;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static long buyer;
+    private static long farmer;
+    private static long category;
+    private static long product;
+
+    @Autowired private Flyway flyway;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private CategoryRepository categoryRepo;
+
+    // runs before the application context, so Flyway finds a populated database without a history table
+    @BeforeAll
+    static void seedLegacyDatabase() {
+        DataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+
+        legacy.update("INSERT INTO users (full_name, email, password_hash) VALUES ('Old Buyer', 'legacy-buyer@agro.com', 'x')");
+        legacy.update("INSERT INTO users (full_name, email, password_hash) VALUES ('Old Farmer', 'legacy-farmer@agro.com', 'x')");
+        legacy.update("UPDATE users SET revenue = NULL WHERE email = 'legacy-buyer@agro.com'");
+        buyer = legacy.queryForObject("SELECT id FROM users WHERE email = 'legacy-buyer@agro.com'", Long.class);
+        farmer = legacy.queryForObject("SELECT id FROM users WHERE email = 'legacy-farmer@agro.com'", Long.class);
+        legacy.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'BUYER'), (?, 'FARMER')", buyer, farmer);
+
+        legacy.update("INSERT INTO categories (name) VALUES ('Legacy grains')");
+        category = legacy.queryForObject("SELECT id FROM categories WHERE name = 'Legacy grains'", Long.class);
+        legacy.update("INSERT INTO products (name, price, stock_qty, category_id, seller_id) VALUES ('Old rice', 100, 10, ?, ?)", category, farmer);
+        product = legacy.queryForObject("SELECT id FROM products WHERE name = 'Old rice'", Long.class);
+
+        // the release compared category names case-sensitively
+        legacy.update("INSERT INTO categories (name) VALUES ('LEGACY GRAINS')");
+        long shouted = legacy.queryForObject("SELECT id FROM categories WHERE name = 'LEGACY GRAINS'", Long.class);
+        legacy.update("INSERT INTO products (name, price, stock_qty, category_id, seller_id) VALUES ('Old wheat', 80, 5, ?, ?)", shouted, farmer);
+
+        legacy.update("INSERT INTO orders (buyer_id, status, total_amount, created_at) VALUES (?, 'DELIVERED', 200, CURRENT_TIMESTAMP)", buyer);
+        long order = legacy.queryForObject("SELECT id FROM orders WHERE buyer_id = ?", Long.class, buyer);
+        legacy.update("INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES (?, ?, 2, 100, 200)", order, product);
+        legacy.update("INSERT INTO payments (order_id, amount, status, method, paid_at) VALUES (?, 200, 'SUCCESS', 'COD', CURRENT_TIMESTAMP)", order);
+
+        // the release let a buyer review a product twice
+        legacy.update("INSERT INTO reviews (product_id, reviewer_id, rating, created_at) VALUES (?, ?, 2, CURRENT_TIMESTAMP)", product, buyer);
+        legacy.update("INSERT INTO reviews (product_id, reviewer_id, rating, created_at) VALUES (?, ?, 5, CURRENT_TIMESTAMP)", product, buyer);
+
+        legacy.update("INSERT INTO messages (sender_id, receiver_id, content, sent_at) VALUES (?, ?, 'still fresh?', CURRENT_TIMESTAMP)", buyer, farmer);
+        legacy.update("INSERT INTO messages (sender_id, receiver_id, content, sent_at) VALUES (?, ?, 'picked today', CURRENT_TIMESTAMP)", farmer, buyer);
+    }
+
+    @Test
+    void legacyDatabaseIsBaselinedAndMigrated() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals(CoreMigrationType.BASELINE, applied[0].getType());
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertEquals("23", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void legacyRowsAreCarriedOverAndBackfilled() {
+        assertEquals(0, count("SELECT COUNT(*) FROM users WHERE revenue IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM products WHERE hot OR version <> 0"));
+        assertEquals(1, count("SELECT COUNT(*) FROM order_items WHERE product_id = ? AND stock_applied", product));
+
+        String conversation = Math.min(buyer, farmer) + ":" + Math.max(buyer, farmer);
+        assertEquals(2, count("SELECT COUNT(*) FROM messages WHERE conversation_id = ?", conversation));
+        assertEquals(1, count("SELECT COUNT(*) FROM conversations WHERE id = ?", conversation));
+
+        assertEquals(5, count("SELECT rating FROM reviews WHERE product_id = ? AND reviewer_id = ?", product, buyer));
+        assertEquals(1, count("SELECT rating_count FROM product_ratings WHERE product_id = ?", product));
+        assertEquals(5, count("SELECT rating_sum FROM product_ratings WHERE product_id = ?", product));
+        assertEquals(1, count("SELECT COUNT(*) FROM delivered_purchases WHERE buyer_id = ? AND product_id = ? AND reviewed", buyer, product));
+
+        assertEquals(2, count("SELECT units_sold FROM product_sales WHERE product_id = ?", product));
+        assertEquals(1, count("SELECT orders FROM seller_order_status_counts WHERE seller_id = ? AND status = 'DELIVERED'", farmer));
+        assertEquals(1, count("SELECT lead_orders FROM seller_order_status_counts WHERE seller_id = ? AND status = 'DELIVERED'", farmer));
+        assertEquals(1, count("SELECT orders_paid FROM seller_daily_sales WHERE seller_id = ?", farmer));
+        assertEquals(1, count("SELECT lead_orders_paid FROM seller_daily_sales WHERE seller_id = ?", farmer));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM categories WHERE name = 'LEGACY GRAINS'"));
+        assertEquals(category, count("SELECT category_id FROM products WHERE name = 'Old wheat'"));
+    }
+
+    @Test
+    void newRowsGetIdsAboveTheLegacyOnes() {
+        Category added = categoryRepo.save(Category.builder().name("Legacy pulses").build());
+        assertTrue(added.getId() > category);
+        jdbc.update("INSERT INTO categories (name) VALUES ('Legacy oilseeds')");
+        assertEquals(3, count("SELECT COUNT(*) FROM categories WHERE name LIKE 'Legacy %'"));
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Long.class, args);
+    }
+}
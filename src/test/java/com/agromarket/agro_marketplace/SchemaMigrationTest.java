@@ -0,0 +1,100 @@
+package com.agromarket.agro_marketplace;
+
+import com.agromarket.agro_marketplace.entity.Category;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The application's own startup path: Flyway builds the schema and Hibernate validates the mapping against it
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class SchemaMigrationTest {
+
+    private static final String[] DATA_FIXES = {
+            "db/migration/V2__zero_null_revenue.sql",
+            "db/migration/V7__backfill_sales_rollups.sql",
+            "db/migration/V11__backfill_conversations.sql",
+            "db/migration/V13__backfill_product_ratings.sql",
+            "db/migration/V15__backfill_delivered_purchases.sql"
+    };
+
+    @Autowired private Flyway flyway;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private DataSource dataSource;
+    @Autowired private CategoryRepository categoryRepo;
+
+    @Test
+    void migrationsMatchTheMappingAndAreRecorded() {
+        assertEquals("23", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    // Hibernate takes ids 50 at a time from the sequences the column defaults draw on, so the two never collide
+    @Test
+    void mappedAndPlainInsertsShareTheIdSequences() {
+        jdbc.update("INSERT INTO categories (name) VALUES ('Plain before')");
+        categoryRepo.save(Category.builder().name("Mapped first").build());
+        jdbc.update("INSERT INTO categories (name) VALUES ('Plain after')");
+        categoryRepo.save(Category.builder().name("Mapped second").build());
+        assertEquals(4, count("SELECT COUNT(*) FROM categories WHERE name IN ('Plain before', 'Plain after', 'Mapped first', 'Mapped second')"));
+    }
+
+    @Test
+    void categoryNamesAreUniqueRegardlessOfCase() {
+        jdbc.update("INSERT INTO categories (name) VALUES ('Mixed Case')");
+        assertThrows(DataIntegrityViolationException.class, () -> jdbc.update("INSERT INTO categories (name) VALUES ('MIXED case')"));
+    }
+
+    // A baselined database runs the data fixes over rows written by older versions; running them again changes nothing
+    @Test
+    void dataFixesRepairLegacyRowsOnce() {
+        jdbc.update("INSERT INTO users (full_name, email, password_hash) VALUES ('Old Buyer', 'mig-buyer@agro.com', 'x')");
+        jdbc.update("INSERT INTO users (full_name, email, password_hash, revenue) VALUES ('Old Farmer', 'mig-farmer@agro.com', 'x', 0)");
+        jdbc.update("UPDATE users SET revenue = NULL WHERE email = 'mig-buyer@agro.com'");
+        long buyer = jdbc.queryForObject("SELECT id FROM users WHERE email = 'mig-buyer@agro.com'", Long.class);
+        long farmer = jdbc.queryForObject("SELECT id FROM users WHERE email = 'mig-farmer@agro.com'", Long.class);
+        jdbc.update("INSERT INTO categories (name) VALUES ('Migrated')");
+        long category = jdbc.queryForObject("SELECT id FROM categories WHERE name = 'Migrated'", Long.class);
+        jdbc.update("INSERT INTO products (name, price, stock_qty, category_id, seller_id) VALUES ('Old rice', 100, 10, ?, ?)", category, farmer);
+        long product = jdbc.queryForObject("SELECT id FROM products WHERE name = 'Old rice'", Long.class);
+        jdbc.update("INSERT INTO orders (buyer_id, status, total_amount, created_at) VALUES (?, 'DELIVERED', 200, CURRENT_TIMESTAMP)", buyer);
+        long order = jdbc.queryForObject("SELECT id FROM orders WHERE buyer_id = ?", Long.class, buyer);
+        jdbc.update("INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES (?, ?, 2, 100, 200)", order, product);
+        jdbc.update("INSERT INTO payments (order_id, amount, status, method, paid_at) VALUES (?, 200, 'SUCCESS', 'COD', CURRENT_TIMESTAMP)", order);
+        jdbc.update("INSERT INTO reviews (product_id, reviewer_id, rating, created_at) VALUES (?, ?, 4, CURRENT_TIMESTAMP)", product, buyer);
+        jdbc.update("INSERT INTO messages (sender_id, receiver_id, content, sent_at) VALUES (?, ?, 'still fresh?', CURRENT_TIMESTAMP)", buyer, farmer);
+
+        for (int run = 0; run < 2; run++) {
+            for (String fix : DATA_FIXES) new ResourceDatabasePopulator(new ClassPathResource(fix)).execute(dataSource);
+        }
+
+        assertNull(jdbc.queryForObject("SELECT MIN(email) FROM users WHERE revenue IS NULL", String.class));
+        assertEquals(1, count("SELECT COUNT(*) FROM conversations WHERE id = ?", Math.min(buyer, farmer) + ":" + Math.max(buyer, farmer)));
+        assertEquals(1, count("SELECT rating_count FROM product_ratings WHERE product_id = ?", product));
+        assertEquals(1, count("SELECT COUNT(*) FROM delivered_purchases WHERE buyer_id = ? AND product_id = ? AND reviewed", buyer, product));
+        assertEquals(2, count("SELECT units_sold FROM product_sales WHERE product_id = ?", product));
+        assertEquals(1, count("SELECT orders FROM seller_order_status_counts WHERE seller_id = ? AND status = 'DELIVERED'", farmer));
+        assertEquals(1, count("SELECT lead_orders FROM seller_order_status_counts WHERE seller_id = ? AND status = 'DELIVERED'", farmer));
+        assertEquals(1, count("SELECT orders_paid FROM seller_daily_sales WHERE seller_id = ?", farmer));
+        assertEquals(1, count("SELECT lead_orders_paid FROM seller_daily_sales WHERE seller_id = ?", farmer));
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,22 @@
+package com.agromarket.agro_marketplace;
+
+import com.agromarket.agro_marketplace.entity.Roles;
+import com.agromarket.agro_marketplace.entity.User;
+
+import java.util.Set;
+
+// Shared by tests that create their own rows: test contexts (and their databases) are cached across test classes,
+// so emails, names and SKUs carry a per-run suffix to stay unique.
+public final class TestData {
+
+    private TestData() {}
+
+    public static String runId() {
+        return Long.toString(System.nanoTime());
+    }
+
+    // A user with a placeholder password hash; not saved
+    public static User user(String email, Roles role) {
+        return User.builder().fullName(email).email(email).passwordHash("x").roles(Set.of(role)).build();
+    }
+}
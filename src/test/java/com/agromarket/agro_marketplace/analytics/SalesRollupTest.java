@@ -0,0 +1,124 @@
+package com.agromarket.agro_marketplace.analytics;
+
+import com.agromarket.agro_marketplace.dto.analytics.DailyRevenue;
+import com.agromarket.agro_marketplace.dto.analytics.DashboardStats;
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.dto.payment.CreatePaymentRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.OrderRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.service.AnalyticsService;
+import com.agromarket.agro_marketplace.service.OrderService;
+import com.agromarket.agro_marketplace.service.PaymentService;
+import com.agromarket.agro_marketplace.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dashboard figures read from the rollups must equal the same figures recomputed from orders and payments,
+// marketplace-wide and per seller, while orders with one or several sellers are created, paid and moved.
+// Own database, so the marketplace-wide figures only cover this test's orders.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rollups;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class SalesRollupTest {
+
+    private static final String LINES = "FROM orders o JOIN order_items i ON i.order_id = o.id JOIN products p ON p.id = i.product_id ";
+    private static final String PAID_LINES = LINES + "JOIN payments pay ON pay.order_id = o.id WHERE pay.status = 'SUCCESS' ";
+
+    @Autowired private AnalyticsService analytics;
+    @Autowired private OrderService orderService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private ProductService productService;
+    @Autowired private OrderRepository orderRepo;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void rollupsMatchARecomputeAcrossStatusMoves() throws Exception {
+        Category category = categoryRepo.save(Category.builder().name("Rollups").build());
+        List<Long> sellers = new ArrayList<>();
+        List<Long> products = new ArrayList<>();
+        for (String name : List.of("a", "b", "c")) {
+            User seller = userRepo.save(user("rollup-seller-" + name + "@agro.com", Roles.FARMER));
+            sellers.add(seller.getId());
+            products.add(productService.create(new ProductCreateRequest("Rollup crop " + name, null,
+                    BigDecimal.valueOf(7 + sellers.size()), 1_000, category.getId()), seller.getEmail()).id());
+        }
+        String buyer = userRepo.save(user("rollup-buyer@agro.com", Roles.BUYER)).getEmail();
+        long a = products.get(0), b = products.get(1), c = products.get(2);
+
+        Long onlyA = order(buyer, a);
+        Long ab = order(buyer, a, b);
+        Long bc = order(buyer, b, c);
+        Long onlyC = order(buyer, c);
+        Long abc = order(buyer, a, b, c);
+        assertRollupsMatch(sellers);
+
+        for (Long id : List.of(onlyA, ab, bc, abc)) paymentService.pay(new CreatePaymentRequest(id, "COD", null), buyer, false);
+        await(() -> List.of(onlyA, ab, bc, abc).stream().allMatch(id -> status(id) == OrderStatus.PAID), "orders never paid");
+        assertRollupsMatch(sellers);
+
+        orderService.updateStatus(ab, OrderStatus.SHIPPED, null, true);
+        orderService.updateStatus(ab, OrderStatus.DELIVERED, null, true);
+        orderService.updateStatus(abc, OrderStatus.SHIPPED, null, true);
+        orderService.updateStatus(bc, OrderStatus.CANCELLED, null, true);
+        orderService.updateStatus(onlyC, OrderStatus.CANCELLED, null, true);
+        assertRollupsMatch(sellers);
+    }
+
+    private void assertRollupsMatch(List<Long> sellers) {
+        assertMatches(null);
+        sellers.forEach(this::assertMatches);
+    }
+
+    private void assertMatches(Long sellerId) {
+        DashboardStats stats = analytics.stats(sellerId, 2);
+        String seller = sellerId == null ? "" : "AND p.seller_id = " + sellerId + " ";
+        String label = sellerId == null ? "marketplace" : "seller " + sellerId;
+
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus s : OrderStatus.values()) byStatus.put(s, 0L);
+        jdbc.query("SELECT o.status, COUNT(DISTINCT o.id) " + LINES + "WHERE 1 = 1 " + seller + "GROUP BY o.status",
+                rs -> {
+                    byStatus.put(OrderStatus.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        assertEquals(byStatus, stats.ordersByStatus(), label + " orders by status");
+        assertEquals(byStatus.values().stream().mapToLong(Long::longValue).sum(), stats.totalOrders(), label + " orders");
+
+        Map<String, Object> paid = jdbc.queryForMap("SELECT COALESCE(SUM(i.line_total), 0) AS revenue, " +
+                "COALESCE(SUM(i.quantity), 0) AS units, COUNT(DISTINCT o.id) AS orders " + PAID_LINES + seller);
+        assertEquals(0, ((BigDecimal) paid.get("revenue")).compareTo(stats.totalRevenue()), label + " revenue");
+        assertEquals(((Number) paid.get("units")).longValue(), stats.totalUnitsSold(), label + " units");
+        // every payment here landed today or yesterday (UTC), inside the two days asked for
+        assertEquals(((Number) paid.get("orders")).longValue(),
+                stats.revenueByDay().stream().mapToLong(DailyRevenue::ordersPaid).sum(), label + " paid orders");
+    }
+
+    private Long order(String buyer, long... productIds) {
+        List<OrderItemRequest> items = Arrays.stream(productIds).mapToObj(id -> new OrderItemRequest(id, 2)).toList();
+        return orderService.create(new CreateOrderRequest(items), buyer).id();
+    }
+
+    private OrderStatus status(Long orderId) {
+        return orderRepo.findById(orderId).orElseThrow().getStatus();
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail(message);
+            Thread.sleep(20);
+        }
+    }
+}
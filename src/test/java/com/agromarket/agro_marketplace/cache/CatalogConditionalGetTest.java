@@ -0,0 +1,117 @@
+package com.agromarket.agro_marketplace.cache;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.service.OrderService;
+import com.agromarket.agro_marketplace.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+class CatalogConditionalGetTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ProductService productService;
+    @Autowired private OrderService orderService;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private EntityManagerFactory emf;
+
+    private Long productId;
+    private String buyerEmail;
+
+    @BeforeEach
+    void setUp() {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Conditional " + run).build());
+        User seller = userRepo.save(user("cond-seller-" + run + "@agro.com", Roles.FARMER));
+        buyerEmail = userRepo.save(user("cond-buyer-" + run + "@agro.com", Roles.BUYER)).getEmail();
+        productId = productService.create(new ProductCreateRequest("Okra " + run, "fresh", BigDecimal.TEN, 50,
+                category.getId()), seller.getEmail()).id();
+    }
+
+    @Test
+    void unchangedListingIsAnsweredWithoutQueries() throws Exception {
+        String etag = mvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        // the listing may trail partial sales, so it only claims to be equivalent
+        assertTrue(etag.startsWith("W/\""), etag);
+
+        Statistics stats = statistics();
+        mvc.perform(get("/api/products?categoryId=1&limit=5").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, stats.getPrepareStatementCount(), "a current listing tag must not reach the database");
+
+        // a sale that leaves stock keeps the tag; selling out moves it
+        orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 2))), buyerEmail);
+        mvc.perform(get("/api/products").header("If-None-Match", etag)).andExpect(status().isNotModified());
+        orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 48))), buyerEmail);
+        mvc.perform(get("/api/products").header("If-None-Match", etag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void productTagFollowsItsVersion() throws Exception {
+        String etag = mvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag.startsWith("\""), etag);
+
+        Statistics stats = statistics();
+        mvc.perform(get("/api/products/" + productId).header("If-None-Match", etag)).andExpect(status().isNotModified());
+        assertEquals(1, stats.getPrepareStatementCount(), "only the version probe runs");
+        assertEquals(0, stats.getEntityLoadCount());
+
+        orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 1))), buyerEmail);
+        String fresh = mvc.perform(get("/api/products/" + productId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, fresh);
+    }
+
+    @Test
+    void reviewListsRevalidateFromMemory() throws Exception {
+        String etag = mvc.perform(get("/api/reviews/product/" + productId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        Statistics stats = statistics();
+        mvc.perform(get("/api/reviews/product/" + productId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -0,0 +1,88 @@
+package com.agromarket.agro_marketplace.cache;
+
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.service.CategoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+class CategoryCacheTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private CategoryService categoryService;
+    @Autowired private CategoryCache cache;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private InvalidationBus bus;
+    @Autowired private EntityManagerFactory emf;
+
+    @Test
+    void listIsServedFromMemoryWithEtag() throws Exception {
+        categoryService.create("Cache fruits " + runId());
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        MvcResult first = mvc.perform(get("/api/categories")).andExpect(status().isOk()).andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mvc.perform(get("/api/categories").header("If-None-Match", etag)).andExpect(status().isNotModified());
+        assertEquals(0, stats.getPrepareStatementCount(), "category reads must not reach the database");
+
+        // a change produces a new tag, so clients holding the old one get the fresh list
+        categoryService.create("Cache grains " + runId());
+        mvc.perform(get("/api/categories").header("If-None-Match", etag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void duplicateNamesAreRejectedFromTheSnapshot() {
+        String name = "Cache spices " + runId();
+        categoryService.create(name);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> categoryService.create(name.toUpperCase()));
+        assertEquals("Category exists", e.getMessage());
+    }
+
+    @Test
+    void aChangeReloadsEachNodeOnce() {
+        // a bus of its own, so only this node is subscribed
+        CategoryCache node = new CategoryCache(categoryRepo, new LocalInvalidationBus());
+        node.snapshot();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        node.changed();
+        assertEquals(1, stats.getPrepareStatementCount(), "one reload per change");
+    }
+
+    @Test
+    void otherNodesRebuildOnInvalidation() {
+        // a second app node sharing the same broker
+        CategoryCache otherNode = new CategoryCache(categoryRepo, bus);
+        String before = otherNode.snapshot().etag();
+
+        String name = "Cache pulses " + runId();
+        Long id = categoryService.create(name).id();
+
+        assertNotEquals(before, otherNode.snapshot().etag());
+        assertEquals(id, otherNode.idByName(name).orElseThrow());
+        assertEquals(cache.snapshot(), otherNode.snapshot());
+
+        categoryService.delete(id);
+        assertTrue(otherNode.idByName(name).isEmpty());
+    }
+}
@@ -0,0 +1,167 @@
+package com.agromarket.agro_marketplace.events;
+
+import com.agromarket.agro_marketplace.dto.message.SendMessageRequest;
+import com.agromarket.agro_marketplace.entity.Roles;
+import com.agromarket.agro_marketplace.entity.User;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.security.JwtService;
+import com.agromarket.agro_marketplace.service.MessageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "app.events.buffer-size=4")
+// the result printer would read response headers while the sender thread is still writing the stream
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class UserEventHubTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private UserEventHub hub;
+    @Autowired private MessageService messageService;
+    @Autowired private UserRepository userRepo;
+    @Autowired private JwtService jwtService;
+    @Autowired private TransactionTemplate tx;
+
+    @Test
+    void messagesReachOnlyTheReceiversStream() throws Exception {
+        String run = runId();
+        User buyer = userRepo.save(user("sse-buyer-" + run + "@agro.com", Roles.BUYER));
+        User farmer = userRepo.save(user("sse-farmer-" + run + "@agro.com", Roles.FARMER));
+
+        MvcResult buyerStream = open(buyer);
+        MvcResult farmerStream = open(farmer);
+        awaitContains(buyerStream, "event:ready");
+
+        messageService.send(new SendMessageRequest(buyer.getId(), "fresh mangoes in stock"), farmer.getEmail());
+
+        awaitContains(buyerStream, "fresh mangoes in stock");
+        assertTrue(body(buyerStream).contains("event:message"));
+        assertFalse(body(farmerStream).contains("fresh mangoes"));
+    }
+
+    @Test
+    void eventsWaitForTheCommitAndAreDroppedOnRollback() throws Exception {
+        String email = "sse-rollback-" + runId() + "@agro.com";
+        MvcResult stream = open(userRepo.save(user(email, Roles.BUYER)));
+        awaitContains(stream, "event:ready");
+
+        tx.executeWithoutResult(s -> {
+            hub.publishAfterCommit(Set.of(email), "note", "rolled back");
+            s.setRollbackOnly();
+        });
+        tx.executeWithoutResult(s -> hub.publishAfterCommit(Set.of(email), "note", "committed"));
+
+        awaitContains(stream, "committed");
+        assertFalse(body(stream).contains("rolled back"));
+    }
+
+    @Test
+    void eventsKeepTheirOrderAndEveryGapIsAnnouncedWithResync() throws Exception {
+        String email = "sse-slow-" + runId() + "@agro.com";
+        MvcResult stream = open(userRepo.save(user(email, Roles.BUYER)));
+        awaitContains(stream, "event:ready");
+
+        // far more than the 4-event buffer in one burst: the oldest may be dropped, but never silently
+        for (int i = 0; i < 2_000; i++) hub.publish(email, "tick", i);
+        awaitContains(stream, "data:1999");
+
+        int last = -1;
+        boolean resync = false;
+        for (String event : body(stream).split("\n\n")) {
+            if (event.startsWith("event:resync")) resync = true;
+            if (!event.startsWith("event:tick")) continue;
+            int tick = Integer.parseInt(event.substring(event.indexOf("data:") + 5).trim());
+            assertTrue(tick > last, "ticks out of order");
+            if (tick != last + 1) assertTrue(resync, "ticks " + (last + 1) + ".." + (tick - 1) + " dropped without resync");
+            last = tick;
+            resync = false;
+        }
+        assertEquals(1_999, last);
+    }
+
+    @Test
+    void aClientThatStopsReadingIsDroppedWithoutStallingOthers() throws Exception {
+        // one sender thread, so a stuck send would hold up every other stream
+        UserEventHub hub = new UserEventHub(4, 5, 60_000, 1, 200);
+        CountDownLatch unblock = new CountDownLatch(1);
+        try {
+            hub.subscribe("stuck@agro.com", new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder event) {
+                    // like a socket write to a full window, and deaf to interrupts
+                    while (unblock.getCount() > 0) {
+                        try {
+                            unblock.await();
+                        } catch (InterruptedException ignored) {
+                        }
+                    }
+                }
+            });
+            List<String> received = new CopyOnWriteArrayList<>();
+            hub.subscribe("healthy@agro.com", new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder event) {
+                    event.build().forEach(part -> received.add(String.valueOf(part.getData())));
+                }
+            });
+            assertEquals(2, hub.streamCount());
+
+            Thread.sleep(300);
+            hub.dropStalledStreams();
+            assertEquals(1, hub.streamCount(), "the stuck stream is dropped");
+
+            hub.publish("healthy@agro.com", "note", "still flowing");
+            hub.publish("stuck@agro.com", "note", "nobody listening");
+            await(() -> received.stream().anyMatch(e -> e.contains("still flowing")), "healthy stream starved");
+        } finally {
+            unblock.countDown();
+            hub.shutdown();
+        }
+    }
+
+    private MvcResult open(User user) throws Exception {
+        return mvc.perform(get("/api/events").header("Authorization", "Bearer " + jwtService.generateToken(user.getEmail())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String body(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString();
+    }
+
+    private static void awaitContains(MvcResult result, String text) throws Exception {
+        await(() -> {
+            try {
+                return body(result).contains(text);
+            } catch (Exception e) {
+                return false;
+            }
+        }, "stream never received " + text);
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail(message);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.agromarket.agro_marketplace.idempotency;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.PaymentRepository;
+import com.agromarket.agro_marketplace.repository.ProductRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.security.JwtService;
+import com.agromarket.agro_marketplace.service.OrderService;
+import com.agromarket.agro_marketplace.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@AutoConfigureMockMvc
+class IdempotencyKeyTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JwtService jwtService;
+    @Autowired private ProductService productService;
+    @Autowired private OrderService orderService;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private PaymentRepository paymentRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private EntityManagerFactory emf;
+
+    private String buyer;
+    private String token;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Idempotency " + run).build());
+        User seller = userRepo.save(user("idem-seller-" + run + "@agro.com", Roles.FARMER));
+        buyer = userRepo.save(user("idem-buyer-" + run + "@agro.com", Roles.BUYER)).getEmail();
+        token = jwtService.generateToken(buyer);
+        productId = productService.create(new ProductCreateRequest("Lentils " + run, null, BigDecimal.TEN, 100,
+                category.getId()), seller.getEmail()).id();
+    }
+
+    @Test
+    void concurrentRetriesOfOneCheckoutCreateOneOrder() throws Exception {
+        String body = "{\"items\":[{\"productId\":" + productId + ",\"quantity\":3}]}";
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    return send("/api/orders", "checkout-1", body);
+                }));
+            }
+            start.countDown();
+
+            Set<Long> orderIds = new HashSet<>();
+            int replayed = 0;
+            for (Future<MockHttpServletResponse> call : calls) {
+                MockHttpServletResponse res = call.get(30, TimeUnit.SECONDS);
+                assertEquals(200, res.getStatus(), res.getContentAsString());
+                orderIds.add(json(res).get("id").asLong());
+                if ("true".equals(res.getHeader(IdempotentRequests.REPLAYED_HEADER))) replayed++;
+            }
+            assertEquals(1, orderIds.size());
+            assertEquals(7, replayed);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(97, productRepo.findById(productId).orElseThrow().getStockQty());
+        assertEquals(1, orderService.myOrders(buyer).size());
+    }
+
+    @Test
+    void completedRequestIsReplayedWithoutTouchingTheDatabase() throws Exception {
+        String body = "{\"items\":[{\"productId\":" + productId + ",\"quantity\":1}]}";
+        MockHttpServletResponse first = send("/api/orders", "checkout-2", body);
+        assertEquals(200, first.getStatus());
+        assertNull(first.getHeader(IdempotentRequests.REPLAYED_HEADER));
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        MockHttpServletResponse retry = send("/api/orders", "checkout-2", body);
+        assertEquals(0, stats.getPrepareStatementCount(), "a replay must not reach the database");
+        assertEquals(200, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotentRequests.REPLAYED_HEADER));
+        assertEquals(json(first), json(retry));
+
+        MockHttpServletResponse reused = send("/api/orders", "checkout-2",
+                "{\"items\":[{\"productId\":" + productId + ",\"quantity\":5}]}");
+        assertEquals(400, reused.getStatus());
+        assertEquals("Idempotency-Key was already used for a different request", json(reused).get("message").asText());
+        assertEquals(99, productRepo.findById(productId).orElseThrow().getStockQty());
+    }
+
+    @Test
+    void retriedPaymentReplaysTheAcceptedPayment() throws Exception {
+        Long orderId = orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 2))), buyer).id();
+        String body = "{\"orderId\":" + orderId + ",\"method\":\"COD\",\"reference\":\"R-1\"}";
+
+        MockHttpServletResponse first = send("/api/payments", "pay-1", body);
+        assertEquals(202, first.getStatus());
+        MockHttpServletResponse retry = send("/api/payments", "pay-1", body);
+        assertEquals(202, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotentRequests.REPLAYED_HEADER));
+        assertEquals(json(first).get("id"), json(retry).get("id"));
+
+        // without the key the retry runs again and is refused
+        MockHttpServletResponse unkeyed = send("/api/payments", null, body);
+        assertEquals(400, unkeyed.getStatus());
+        assertEquals("Payment already exists for this order", json(unkeyed).get("message").asText());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (paymentRepo.findByOrder_Id(orderId).orElseThrow().getStatus() == PaymentStatus.PENDING) {
+            if (System.currentTimeMillis() > deadline) fail("payment never settled");
+            Thread.sleep(20);
+        }
+    }
+
+    private MockHttpServletResponse send(String path, String key, String body) throws Exception {
+        var request = post(path).header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON).content(body);
+        if (key != null) request.header(IdempotentRequests.HEADER, key);
+        return mvc.perform(request).andReturn().getResponse();
+    }
+
+    private JsonNode json(MockHttpServletResponse res) throws Exception {
+        return objectMapper.readTree(res.getContentAsString());
+    }
+}
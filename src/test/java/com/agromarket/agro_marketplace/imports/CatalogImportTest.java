@@ -0,0 +1,183 @@
+package com.agromarket.agro_marketplace.imports;
+
+import com.agromarket.agro_marketplace.cache.CategoryCache;
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.catalog.ProductResponse;
+import com.agromarket.agro_marketplace.entity.Category;
+import com.agromarket.agro_marketplace.entity.Product;
+import com.agromarket.agro_marketplace.entity.Roles;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.ProductRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.security.JwtService;
+import com.agromarket.agro_marketplace.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// A chunk of three rows, so the uploads below span several transactions
+@SpringBootTest(properties = "app.catalog-import.chunk-size=3")
+@AutoConfigureMockMvc
+class CatalogImportTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JwtService jwtService;
+    @Autowired private ProductService productService;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private CategoryCache categoryCache;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private UserRepository userRepo;
+
+    private String run;
+    private String seller;
+    private String token;
+    private Category grains;
+
+    @BeforeEach
+    void setUp() {
+        run = runId();
+        grains = categoryRepo.save(Category.builder().name("Grains " + run).build());
+        categoryCache.changed();
+        seller = userRepo.save(user("import-seller-" + run + "@agro.com", Roles.FARMER)).getEmail();
+        token = jwtService.generateToken(seller);
+    }
+
+    @Test
+    void csvRowsAreCreatedOrReportedOneByOne() throws Exception {
+        String csv = "SKU,Name,Price,Stock,Category,Description\r\n" +
+                "W-1,Wheat " + run + ",12.50,100,Grains " + run + ",\"Hard, red\nwinter wheat\"\r\n" +
+                "W-2,Rye " + run + ",-1,10,Grains " + run + ",\r\n" +
+                "\r\n" +
+                "W-3,Oats " + run + ",9,10,Fruit " + run + ",\r\n" +
+                "W-4,,9,10,Grains " + run + ",\r\n" +
+                "W-5,Millet " + run + ",7.25,40,grains " + run + ",\"said \"\"fine\"\"\"\r\n" +
+                "W-1,Wheat again,1,1,Grains " + run + ",\r\n" +
+                "W-6,Sorghum " + run + ",3,5\r\n";
+
+        JsonNode report = upload("text/csv", csv);
+        List<String> outcome = new ArrayList<>();
+        for (JsonNode row : report.get("rows")) {
+            outcome.add(row.get("line").asLong() + " " + row.get("sku").asText() + " " + row.get("status").asText()
+                    + (row.get("error").isNull() ? "" : " " + row.get("error").asText()));
+        }
+        assertEquals(List.of(
+                "2 W-1 CREATED",
+                "4 W-2 FAILED price must be positive",
+                "6 W-3 FAILED Category not found",
+                "7 W-4 FAILED A new product needs name",
+                "8 W-5 CREATED",
+                "9 W-1 FAILED Duplicate sku in this file",
+                "10 W-6 FAILED Expected 6 cells but found 4"), outcome);
+        assertEquals(7, report.get("summary").get("rows").asLong());
+        assertEquals(2, report.get("summary").get("created").asLong());
+        assertEquals(5, report.get("summary").get("failed").asLong());
+
+        Product wheat = productRepo.findById(report.get("rows").get(0).get("productId").asLong()).orElseThrow();
+        assertEquals("W-1", wheat.getSku());
+        assertEquals("Hard, red\nwinter wheat", wheat.getDescription());
+        assertEquals(0, new BigDecimal("12.50").compareTo(wheat.getPrice()));
+        assertEquals(100, wheat.getStockQty());
+        assertEquals(grains.getId(), wheat.getCategory().getId());
+
+        // new products are listed and searchable right away
+        ProductResponse millet = productService.get(report.get("rows").get(4).get("productId").asLong());
+        assertEquals("said \"fine\"", millet.description());
+        assertTrue(productService.list(null, null, "Millet " + run, null, 10, null).items().stream()
+                .anyMatch(p -> p.id().equals(millet.id())));
+    }
+
+    @Test
+    void ndjsonSyncUpdatesPriceAndStockBySkuOrId() throws Exception {
+        upload("application/x-ndjson",
+                "{\"sku\":\"B-1\",\"name\":\"Barley " + run + "\",\"price\":5,\"stockQty\":50,\"categoryId\":" + grains.getId() + "}\n");
+        Long posted = productService.create(new ProductCreateRequest("Teff " + run, "from the web form", BigDecimal.TEN, 8,
+                grains.getId()), seller).id();
+        long versionBefore = productRepo.findById(posted).orElseThrow().getVersion();
+
+        StringBuilder sync = new StringBuilder();
+        sync.append("{\"sku\":\"B-1\",\"price\":\"5.75\",\"stock\":45}\n");
+        sync.append("\n");
+        sync.append("{\"id\":").append(posted).append(",\"sku\":\"T-1\",\"stockQty\":0}\n");
+        sync.append("{\"id\":999999999,\"price\":1}\n");
+        sync.append("not json\n");
+        sync.append("{\"sku\":\"B-1\",\"colour\":\"gold\"}\n");
+        sync.append("{\"sku\":\"T-1\",\"price\":11}\n");
+        JsonNode report = upload("application/x-ndjson", sync.toString());
+
+        List<String> statuses = new ArrayList<>();
+        for (JsonNode row : report.get("rows")) statuses.add(row.get("status").asText());
+        assertEquals(List.of("UPDATED", "UPDATED", "FAILED", "FAILED", "FAILED", "UPDATED"), statuses);
+        assertEquals("Product not found", report.get("rows").get(2).get("error").asText());
+        assertEquals("Unknown field: colour", report.get("rows").get(4).get("error").asText());
+
+        Product barley = productRepo.findById(report.get("rows").get(0).get("productId").asLong()).orElseThrow();
+        assertEquals(0, new BigDecimal("5.75").compareTo(barley.getPrice()));
+        assertEquals(45, barley.getStockQty());
+        assertEquals("Barley " + run, barley.getName());
+
+        // adopted by id, then matched by its new sku later in the same upload
+        Product teff = productRepo.findById(posted).orElseThrow();
+        assertEquals("T-1", teff.getSku());
+        assertEquals(0, teff.getStockQty());
+        assertEquals(0, new BigDecimal("11").compareTo(teff.getPrice()));
+        assertEquals("from the web form", teff.getDescription());
+        assertTrue(teff.getVersion() > versionBefore);
+    }
+
+    @Test
+    void overlongNdjsonLineIsReportedAndSkipped() throws Exception {
+        String huge = "{\"sku\":\"L-1\",\"description\":\"" + "x".repeat(20_000) + "\"}\n";
+        JsonNode report = upload("application/x-ndjson", huge
+                + "{\"sku\":\"L-2\",\"name\":\"Rye " + run + "\",\"price\":2,\"stockQty\":3,\"categoryId\":" + grains.getId() + "}\n");
+
+        assertEquals("Row is longer than 10000 characters", report.get("rows").get(0).get("error").asText());
+        assertEquals("CREATED", report.get("rows").get(1).get("status").asText());
+        assertEquals(2, report.get("rows").get(1).get("line").asLong());
+    }
+
+    @Test
+    void anotherSellersProductsAreOutOfReach() throws Exception {
+        String other = userRepo.save(user("import-other-" + run + "@agro.com", Roles.FARMER)).getEmail();
+        Long theirs = productService.create(new ProductCreateRequest("Spelt " + run, null, BigDecimal.ONE, 5,
+                grains.getId()), other).id();
+
+        JsonNode report = upload("application/x-ndjson", "{\"id\":" + theirs + ",\"price\":100}\n");
+        assertEquals("Product not found", report.get("rows").get(0).get("error").asText());
+        assertEquals(0, BigDecimal.ONE.compareTo(productRepo.findById(theirs).orElseThrow().getPrice()));
+    }
+
+    @Test
+    void unreadableHeaderRejectsTheUpload() throws Exception {
+        MockHttpServletResponse res = send("text/csv", "sku,name,prcie\nA,B,1\n");
+        assertEquals(400, res.getStatus());
+        assertEquals("Unknown CSV column: prcie", objectMapper.readTree(res.getContentAsString()).get("message").asText());
+    }
+
+    private JsonNode upload(String contentType, String body) throws Exception {
+        MockHttpServletResponse res = send(contentType, body);
+        assertEquals(200, res.getStatus(), res.getContentAsString());
+        return objectMapper.readTree(res.getContentAsString());
+    }
+
+    private MockHttpServletResponse send(String contentType, String body) throws Exception {
+        return mvc.perform(post("/api/products/import").header("Authorization", "Bearer " + token)
+                .contentType(contentType).content(body.getBytes(StandardCharsets.UTF_8))).andReturn().getResponse();
+    }
+}
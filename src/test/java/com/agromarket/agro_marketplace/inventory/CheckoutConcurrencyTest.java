@@ -0,0 +1,206 @@
+package com.agromarket.agro_marketplace.inventory;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderDTO;
+import com.agromarket.agro_marketplace.dto.order.OrderItemDTO;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.ProductRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.service.OrderService;
+import com.agromarket.agro_marketplace.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Many buyers check out the same two products at once, listing them in opposite orders.
+// Stock must never go negative, every sold unit must be accounted for, and nothing may deadlock.
+@SpringBootTest(properties = "app.inventory.hot-ledger.enabled=true")
+class CheckoutConcurrencyTest {
+
+    private static final int STOCK = 300;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+    private static final String BUYER = "stress-buyer@agro.com";
+
+    @Autowired private OrderService orderService;
+    @Autowired private ProductService productService;
+    @Autowired private HotStockLedger hotStock;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private TransactionTemplate tx;
+
+    private Category category;
+    private User farmer;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepo.findByNameIgnoreCase("Checkout stress")
+                .orElseGet(() -> categoryRepo.save(Category.builder().name("Checkout stress").build()));
+        farmer = userRepo.findByEmail("stress-farmer@agro.com").orElseGet(() -> userRepo.save(User.builder()
+                .fullName("Stress Farmer").email("stress-farmer@agro.com").passwordHash("x").roles(Set.of(Roles.FARMER)).build()));
+        if (!userRepo.existsByEmail(BUYER)) {
+            userRepo.save(User.builder().fullName("Stress Buyer").email(BUYER).passwordHash("x").roles(Set.of(Roles.BUYER)).build());
+        }
+    }
+
+    @Test
+    void lockedCheckoutsNeverOversell() throws Exception {
+        Long a = productRepo.save(product("Locked mango")).getId();
+        Long b = productRepo.save(product("Locked wheat")).getId();
+
+        Map<Long, Integer> sold = checkoutStorm("row-locked", a, b);
+
+        assertStockMatches(sold);
+    }
+
+    @Test
+    void hotSkuCheckoutsNeverOversell() throws Exception {
+        Long a = productRepo.save(product("Hot mango")).getId();
+        Long b = productRepo.save(product("Hot wheat")).getId();
+        productService.setHot(a, true);
+        productService.setHot(b, true);
+
+        Map<Long, Integer> sold = checkoutStorm("hot-sku", a, b);
+
+        // everything reserved in memory must land in products.stock_qty after write-back
+        hotStock.flushAll();
+        assertStockMatches(sold);
+    }
+
+    @Test
+    void restockingAHotSkuKeepsReservationsInFlight() throws Exception {
+        Long id = productRepo.save(product("Restocked mango")).getId();
+        productService.setHot(id, true);
+
+        // a checkout has taken units from the counter but not committed when the seller restocks, and another
+        // reservation is released afterwards, as a rolled-back checkout does
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch restocked = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> checkout = pool.submit(() -> checkoutHeldOpen(id, 10, reserved, restocked));
+        assertTrue(reserved.await(30, TimeUnit.SECONDS), "checkout did not reserve");
+        assertTrue(hotStock.tryReserve(id, 20));
+
+        productService.update(id, new ProductCreateRequest("Restocked mango", null, BigDecimal.TEN, STOCK + 50, category.getId()),
+                farmer.getEmail());
+        restocked.countDown();
+        checkout.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+        hotStock.release(id, 20);
+
+        hotStock.flushAll();
+        int left = productRepo.findById(id).orElseThrow().getStockQty();
+        assertEquals(STOCK + 50 - 10, left, "the committed checkout must come off the new stock level");
+        // once everything is written back the counter holds exactly the stock left
+        assertFalse(hotStock.tryReserve(id, left + 1), "counter must not run ahead of the stock");
+        assertTrue(hotStock.tryReserve(id, left), "counter must not fall behind the stock");
+    }
+
+    @Test
+    void writeBackWaitsWhenStockWasCutBelowWhatSold() throws Exception {
+        Long id = productRepo.save(product("Cut mango")).getId();
+        productService.setHot(id, true);
+
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch cut = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> checkout = pool.submit(() -> checkoutHeldOpen(id, 10, reserved, cut));
+        assertTrue(reserved.await(30, TimeUnit.SECONDS), "checkout did not reserve");
+        productService.update(id, new ProductCreateRequest("Cut mango", null, BigDecimal.TEN, 5, category.getId()),
+                farmer.getEmail());
+        cut.countDown();
+        checkout.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // the 10 sold units don't fit in the 5 left: nothing is written back and nothing more can be sold
+        hotStock.flushAll();
+        assertEquals(5, productRepo.findById(id).orElseThrow().getStockQty());
+        assertFalse(hotStock.tryReserve(id, 1));
+
+        // restocking lets the pending units land
+        productService.update(id, new ProductCreateRequest("Cut mango", null, BigDecimal.TEN, 20, category.getId()),
+                farmer.getEmail());
+        hotStock.flushAll();
+        assertEquals(10, productRepo.findById(id).orElseThrow().getStockQty());
+        assertFalse(hotStock.tryReserve(id, 11));
+        assertTrue(hotStock.tryReserve(id, 10));
+    }
+
+    private Void checkoutHeldOpen(Long productId, int qty, CountDownLatch reserved, CountDownLatch proceed) {
+        tx.executeWithoutResult(s -> {
+            orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, qty))), BUYER);
+            reserved.countDown();
+            try {
+                assertTrue(proceed.await(30, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return null;
+    }
+
+    private Map<Long, Integer> checkoutStorm(String label, Long a, Long b) throws Exception {
+        Map<Long, AtomicInteger> sold = Map.of(a, new AtomicInteger(), b, new AtomicInteger());
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            futures.add(pool.submit(() -> {
+                Random rnd = new Random(seed);
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    List<OrderItemRequest> items = new ArrayList<>(List.of(
+                            new OrderItemRequest(a, 1 + rnd.nextInt(3)),
+                            new OrderItemRequest(b, 1 + rnd.nextInt(3))));
+                    if (rnd.nextBoolean()) Collections.reverse(items);
+                    try {
+                        OrderDTO order = orderService.create(new CreateOrderRequest(items), BUYER);
+                        for (OrderItemDTO line : order.items()) sold.get(line.productId()).addAndGet(line.quantity());
+                    } catch (RuntimeException e) {
+                        if (e.getMessage() != null && e.getMessage().startsWith("Insufficient stock")) rejected.incrementAndGet();
+                        else unexpected.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> f : futures) f.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        assertTrue(unexpected.isEmpty(), () -> label + " checkout, unexpected failures: " + unexpected);
+        assertTrue(rejected.get() > 0, label + " checkout: demand should exceed stock so some checkouts are rejected");
+
+        return Map.of(a, sold.get(a).get(), b, sold.get(b).get());
+    }
+
+    private void assertStockMatches(Map<Long, Integer> sold) {
+        sold.forEach((id, units) -> {
+            int left = productRepo.findById(id).orElseThrow().getStockQty();
+            assertTrue(left >= 0, "stock went negative");
+            assertEquals(STOCK - left, units, "sold units must match the stock decrement");
+        });
+    }
+
+    private Product product(String name) {
+        return Product.builder().name(name).price(BigDecimal.TEN).stockQty(STOCK).category(category).seller(farmer).build();
+    }
+}
@@ -0,0 +1,191 @@
+package com.agromarket.agro_marketplace.lifecycle;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.DeliveredPurchaseRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.service.OrderService;
+import com.agromarket.agro_marketplace.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database: the dispatchers of other cached test contexts would otherwise deliver this test's events
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lifecycle;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "app.domain-events.poll-ms=100",
+        "app.domain-events.retry-base-ms=50",
+        "app.domain-events.max-attempts=4"
+})
+class DomainEventDispatchTest {
+
+    @TestConfiguration
+    static class RecorderConfig {
+        @Bean
+        Recorder recorder() {
+            return new Recorder();
+        }
+    }
+
+    // Records every event and fails the first deliveries of the review ids it is told to
+    static class Recorder {
+        final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+        final Map<Long, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+
+        @EventListener
+        public void on(DomainEvent event) {
+            received.add(event);
+            if (event instanceof ReviewCreated r) {
+                AtomicInteger left = failuresLeft.get(r.reviewId());
+                if (left != null && left.getAndDecrement() > 0) throw new IllegalStateException("subscriber down");
+            }
+        }
+
+        <T extends DomainEvent> List<T> of(Class<T> type) {
+            return received.stream().filter(type::isInstance).map(type::cast).toList();
+        }
+    }
+
+    @Autowired private Recorder recorder;
+    @Autowired private DomainEventOutbox outbox;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private OrderService orderService;
+    @Autowired private ProductService productService;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private DeliveredPurchaseRepository purchaseRepo;
+
+    private User buyer;
+    private User seller;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Lifecycle " + run).build());
+        seller = userRepo.save(user("life-seller-" + run + "@agro.com", Roles.FARMER));
+        buyer = userRepo.save(user("life-buyer-" + run + "@agro.com", Roles.BUYER));
+        productId = productService.create(new ProductCreateRequest("Barley " + run, null, BigDecimal.TEN, 100,
+                category.getId()), seller.getEmail()).id();
+    }
+
+    @Test
+    void orderLifecycleReachesSubscribersAfterCommit() throws Exception {
+        Long orderId = orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 2))),
+                buyer.getEmail()).id();
+        await(() -> recorder.of(OrderCreated.class).stream().anyMatch(e -> e.orderId().equals(orderId)), "order never announced");
+        OrderCreated created = recorder.of(OrderCreated.class).stream().filter(e -> e.orderId().equals(orderId)).findFirst().orElseThrow();
+        assertEquals(buyer.getId(), created.buyerId());
+        assertEquals(Set.of(seller.getEmail()), created.sellerEmails());
+        assertEquals(0, new BigDecimal("20").compareTo(created.totalAmount()));
+
+        orderService.updateStatus(orderId, OrderStatus.DELIVERED, null, true);
+        await(() -> purchaseRepo.existsById(new DeliveredPurchase.Key(buyer.getId(), productId)), "delivery never recorded");
+        OrderStatusChanged changed = recorder.of(OrderStatusChanged.class).stream()
+                .filter(e -> e.orderId().equals(orderId)).findFirst().orElseThrow();
+        assertEquals(OrderStatus.CREATED, changed.from());
+        assertEquals(OrderStatus.DELIVERED, changed.to());
+        assertEquals(List.of(productId), changed.productIds());
+
+        await(() -> pending() == 0, "delivered events were not removed");
+    }
+
+    @Test
+    void rolledBackTransactionPublishesNothing() throws Exception {
+        long marker = System.nanoTime();
+        tx.executeWithoutResult(s -> {
+            outbox.publish(new ReviewCreated(marker, productId, buyer.getId(), 5, Instant.now()));
+            s.setRollbackOnly();
+        });
+        long committed = marker + 1;
+        tx.executeWithoutResult(s -> outbox.publish(new ReviewCreated(committed, productId, buyer.getId(), 4, Instant.now())));
+
+        await(() -> reviews(committed) == 1, "committed event never delivered");
+        assertEquals(0, reviews(marker));
+    }
+
+    @Test
+    void failingSubscriberGetsTheEventAgain() throws Exception {
+        long reviewId = System.nanoTime();
+        recorder.failuresLeft.put(reviewId, new AtomicInteger(2));
+        tx.executeWithoutResult(s -> outbox.publish(new ReviewCreated(reviewId, productId, buyer.getId(), 3, Instant.now())));
+
+        await(() -> reviews(reviewId) == 3, "event was not redelivered after failing");
+        await(() -> pending() == 0, "delivered event was not removed");
+        Thread.sleep(300);
+        assertEquals(3, reviews(reviewId), "a delivered event must not come back");
+    }
+
+    @Test
+    void subscriberThatKeepsFailingIsParkedAfterMaxAttempts() throws Exception {
+        long reviewId = System.nanoTime();
+        recorder.failuresLeft.put(reviewId, new AtomicInteger(Integer.MAX_VALUE));
+        tx.executeWithoutResult(s -> outbox.publish(new ReviewCreated(reviewId, productId, buyer.getId(), 1, Instant.now())));
+
+        await(() -> parked("ReviewCreated", "%\"reviewId\":" + reviewId + ",%") != null, "failing event was never parked");
+        Map<String, Object> row = parked("ReviewCreated", "%\"reviewId\":" + reviewId + ",%");
+        assertEquals(4, ((Number) row.get("attempts")).intValue());
+        assertTrue(row.get("last_error").toString().contains("subscriber down"));
+        Thread.sleep(300);
+        assertEquals(4, reviews(reviewId), "a parked event must not be delivered again");
+    }
+
+    @Test
+    void undeliverableEventIsParkedWithoutRetrying() throws Exception {
+        String marker = "{\"marker\":" + System.nanoTime() + "}";
+        jdbc.update("INSERT INTO domain_events (event_type, payload, attempts, next_attempt_at, created_at) VALUES (?, ?, 0, ?, ?)",
+                "ProductRenamed", marker, Timestamp.from(Instant.now()), Timestamp.from(Instant.now()));
+
+        await(() -> parked("ProductRenamed", marker) != null, "unknown event was never parked");
+        Map<String, Object> row = parked("ProductRenamed", marker);
+        assertEquals(1, ((Number) row.get("attempts")).intValue());
+        assertTrue(row.get("last_error").toString().contains("Unknown domain event type ProductRenamed"));
+    }
+
+    private Map<String, Object> parked(String type, String payload) {
+        List<Map<String, Object>> rows = jdbc.queryForList("SELECT attempts, last_error FROM domain_events " +
+                "WHERE event_type = ? AND payload LIKE ? AND failed_at IS NOT NULL AND claimed_by IS NULL", type, payload);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private long reviews(long reviewId) {
+        return recorder.of(ReviewCreated.class).stream().filter(e -> e.reviewId() == reviewId).count();
+    }
+
+    private int pending() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM domain_events WHERE failed_at IS NULL", Integer.class);
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail(message);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.agromarket.agro_marketplace.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+// Per-endpoint latency samples. One instance per client thread, merged once the run is over.
+final class LatencyReport {
+
+    // histogram bucket upper bounds in milliseconds; the last bucket is open
+    private static final long[] BUCKETS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000};
+
+    private static final class Samples {
+        long[] nanos = new long[1024];
+        int count;
+        long errors;
+
+        void add(long value) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = value;
+        }
+    }
+
+    record EndpointSummary(String endpoint, int requests, double perSecond, long errors, double p50Ms, double p90Ms,
+                           double p99Ms, double maxMs, Map<String, Integer> histogram) {}
+
+    private final Map<String, Samples> endpoints = new TreeMap<>();
+
+    void record(String endpoint, long nanos, boolean ok) {
+        Samples s = endpoints.computeIfAbsent(endpoint, k -> new Samples());
+        s.add(nanos);
+        if (!ok) s.errors++;
+    }
+
+    void merge(LatencyReport other) {
+        other.endpoints.forEach((endpoint, theirs) -> {
+            Samples mine = endpoints.computeIfAbsent(endpoint, k -> new Samples());
+            for (int i = 0; i < theirs.count; i++) mine.add(theirs.nanos[i]);
+            mine.errors += theirs.errors;
+        });
+    }
+
+    List<EndpointSummary> summarize(long measuredMs) {
+        List<EndpointSummary> out = new ArrayList<>();
+        endpoints.forEach((endpoint, s) -> {
+            long[] sorted = Arrays.copyOf(s.nanos, s.count);
+            Arrays.sort(sorted);
+            Map<String, Integer> histogram = new LinkedHashMap<>();
+            int next = 0;
+            for (long bound : BUCKETS_MS) {
+                int from = next;
+                while (next < sorted.length && sorted[next] <= bound * 1_000_000) next++;
+                histogram.put("<=" + bound + "ms", next - from);
+            }
+            histogram.put(">" + BUCKETS_MS[BUCKETS_MS.length - 1] + "ms", sorted.length - next);
+            out.add(new EndpointSummary(endpoint, s.count, s.count * 1000.0 / measuredMs, s.errors,
+                    ms(pct(sorted, 0.50)), ms(pct(sorted, 0.90)), ms(pct(sorted, 0.99)),
+                    ms(sorted.length == 0 ? 0 : sorted[sorted.length - 1]), histogram));
+        });
+        return out;
+    }
+
+    void print(List<EndpointSummary> summaries) {
+        System.out.printf("%n%-42s %8s %8s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (EndpointSummary s : summaries) {
+            System.out.printf("%-42s %8d %8.1f %7d %9.2f %9.2f %9.2f %9.2f%n", s.endpoint(), s.requests(), s.perSecond(),
+                    s.errors(), s.p50Ms(), s.p90Ms(), s.p99Ms(), s.maxMs());
+        }
+        System.out.printf("%n%-42s", "latency histogram");
+        summaries.get(0).histogram().keySet().forEach(b -> System.out.printf(" %8s", b));
+        System.out.println();
+        for (EndpointSummary s : summaries) {
+            System.out.printf("%-42s", s.endpoint());
+            s.histogram().values().forEach(n -> System.out.printf(" %8d", n));
+            System.out.println();
+        }
+    }
+
+    static void write(Path file, Map<String, Object> run, List<EndpointSummary> summaries) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>(run);
+        report.put("endpoints", summaries);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private static long pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(p * sorted.length) - 1))];
+    }
+
+    private static double ms(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,182 @@
+package com.agromarket.agro_marketplace.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+// Bulk-inserts a marketplace with plain JDBC batches: users with roles, categories, products, orders with items,
+// payments, reviews and messages. Ids are read back in insert order, so the tables must start empty.
+// The derived tables (rollups, ratings, purchases, conversations) are left to the backfill migrations.
+final class LoadTestData {
+
+    static final String[] CROPS = {"tomato", "potato", "onion", "mango", "wheat", "rice", "basmati", "cotton",
+            "sugarcane", "maize", "carrot", "garlic", "ginger", "chilli", "orange", "guava", "apple", "banana", "lentil", "okra"};
+    private static final String[] QUALIFIERS = {"organic", "fresh", "premium", "local", "dried", "export", "grade", "seasonal"};
+    private static final String[] REGIONS = {"punjab", "sindh", "swat", "multan", "sargodha", "hunza", "thar", "gilgit"};
+    private static final String[] METHODS = {"COD", "BankTransfer", "JazzCash", "EasyPaisa"};
+    private static final int BATCH = 5_000;
+
+    final List<Long> buyerIds = new ArrayList<>();
+    final List<String> buyerEmails = new ArrayList<>();
+    final List<Long> farmerIds = new ArrayList<>();
+    final List<String> farmerEmails = new ArrayList<>();
+    final List<Long> categoryIds = new ArrayList<>();
+    final String adminEmail = "load-admin@agro.com";
+    long[] productIds;
+    int products;
+
+    private final JdbcTemplate jdbc;
+    private final Random rnd = new Random(42);
+
+    LoadTestData(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    void seed(int buyers, int farmers, int categories, int products, int orders, int messages) {
+        this.products = products;
+        buyerEmails.addAll(emails("load-buyer-", buyers));
+        users(buyerEmails, "BUYER", buyerIds);
+        farmerEmails.addAll(emails("load-farmer-", farmers));
+        users(farmerEmails, "FARMER", farmerIds);
+        users(List.of(adminEmail), "ADMIN", new ArrayList<>());
+        categories(categories);
+        products(products);
+        orders(orders);
+        messages(messages);
+    }
+
+    private void users(List<String> emails, String role, List<Long> ids) {
+        jdbc.batchUpdate("INSERT INTO users (full_name, email, password_hash, city, revenue) VALUES (?, ?, 'x', 'Lahore', 0)",
+                emails.stream().map(e -> new Object[]{e.substring(0, e.indexOf('@')), e}).toList());
+        for (String email : emails) ids.add(jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email));
+        jdbc.batchUpdate("INSERT INTO user_roles (user_id, role) VALUES (?, ?)",
+                ids.stream().map(id -> new Object[]{id, role}).toList());
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) emails.add(prefix + i + "@agro.com");
+        return emails;
+    }
+
+    private void categories(int count) {
+        for (int i = 0; i < count; i++) {
+            String name = "Load " + CROPS[i % CROPS.length] + " " + i;
+            jdbc.update("INSERT INTO categories (name) VALUES (?)", name);
+            categoryIds.add(jdbc.queryForObject("SELECT id FROM categories WHERE name = ?", Long.class, name));
+        }
+    }
+
+    // stock is deep enough that checkouts during the run never run out
+    private void products(int count) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            String name = pick(QUALIFIERS) + " " + pick(CROPS) + " " + i;
+            String description = pick(REGIONS) + " " + pick(CROPS) + " harvested by " + pick(REGIONS) + " growers";
+            rows.add(new Object[]{name, description, BigDecimal.valueOf(50 + rnd.nextInt(950)), 1_000_000,
+                    categoryIds.get(i % categoryIds.size()), farmerIds.get(rnd.nextInt(farmerIds.size()))});
+            if (rows.size() == BATCH) flushProducts(rows);
+        }
+        flushProducts(rows);
+        // ids come from a pooled sequence, so they are not contiguous
+        productIds = jdbc.queryForList("SELECT id FROM products ORDER BY id", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+    }
+
+    private void flushProducts(List<Object[]> rows) {
+        jdbc.batchUpdate("INSERT INTO products (name, description, price, stock_qty, category_id, seller_id) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private record Line(long productId, int quantity, BigDecimal unitPrice) {}
+
+    // Statuses spread over the lifecycle; everything past CREATED has a successful payment, and most
+    // delivered lines have a review
+    private void orders(int count) {
+        String[] statuses = {"CREATED", "PAID", "SHIPPED", "DELIVERED", "DELIVERED", "CANCELLED"};
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        jdbc.query("SELECT id, price FROM products", rs -> {
+            prices.put(rs.getLong(1), rs.getBigDecimal(2));
+        });
+
+        Instant now = Instant.now();
+        List<List<Line>> lines = new ArrayList<>(count);
+        List<Object[]> orderRows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Line> order = new ArrayList<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 1 + rnd.nextInt(4); j > 0; j--) {
+                long productId = randomProduct();
+                Line line = new Line(productId, 1 + rnd.nextInt(5), prices.get(productId));
+                order.add(line);
+                total = total.add(line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())));
+            }
+            lines.add(order);
+            Instant created = now.minus(Duration.ofMinutes(rnd.nextInt(60 * 24 * 60)));
+            orderRows.add(new Object[]{buyerIds.get(rnd.nextInt(buyerIds.size())), statuses[rnd.nextInt(statuses.length)],
+                    total, Timestamp.from(created)});
+        }
+        for (int from = 0; from < count; from += BATCH) {
+            jdbc.batchUpdate("INSERT INTO orders (buyer_id, status, total_amount, created_at) VALUES (?, ?, ?, ?)",
+                    orderRows.subList(from, Math.min(count, from + BATCH)));
+        }
+        List<Long> orderIds = jdbc.queryForList("SELECT id FROM orders ORDER BY id", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> payments = new ArrayList<>();
+        List<Object[]> reviews = new ArrayList<>();
+        Set<String> reviewed = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            Object[] order = orderRows.get(i);
+            long orderId = orderIds.get(i);
+            String status = (String) order[1];
+            Timestamp created = (Timestamp) order[3];
+            for (Line l : lines.get(i)) {
+                items.add(new Object[]{orderId, l.productId(), l.quantity(), l.unitPrice(),
+                        l.unitPrice().multiply(BigDecimal.valueOf(l.quantity()))});
+                if (status.equals("DELIVERED") && rnd.nextInt(10) < 7 && reviewed.add(order[0] + ":" + l.productId())) {
+                    reviews.add(new Object[]{l.productId(), order[0], 1 + rnd.nextInt(5), "load review " + i,
+                            Timestamp.from(created.toInstant().plus(Duration.ofDays(3)))});
+                }
+            }
+            if (!status.equals("CREATED") && !status.equals("CANCELLED")) {
+                payments.add(new Object[]{orderId, order[2], pick(METHODS), "LOAD-" + orderId,
+                        Timestamp.from(created.toInstant().plus(Duration.ofMinutes(5)))});
+            }
+        }
+        batches("INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES (?, ?, ?, ?, ?)", items);
+        batches("INSERT INTO payments (order_id, amount, status, method, reference, paid_at) VALUES (?, ?, 'SUCCESS', ?, ?, ?)", payments);
+        batches("INSERT INTO reviews (product_id, reviewer_id, rating, comment, created_at) VALUES (?, ?, ?, ?, ?)", reviews);
+    }
+
+    private void messages(int count) {
+        Instant now = Instant.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long buyer = buyerIds.get(rnd.nextInt(buyerIds.size()));
+            long farmer = farmerIds.get(rnd.nextInt(farmerIds.size()));
+            boolean fromBuyer = rnd.nextBoolean();
+            rows.add(new Object[]{fromBuyer ? buyer : farmer, fromBuyer ? farmer : buyer, "load message " + i,
+                    Timestamp.from(now.minus(Duration.ofMinutes(rnd.nextInt(60 * 24 * 30))))});
+        }
+        batches("INSERT INTO messages (sender_id, receiver_id, content, sent_at) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private void batches(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+    }
+
+    long randomProduct() {
+        return productIds[rnd.nextInt(productIds.length)];
+    }
+
+    private String pick(String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,251 @@
+package com.agromarket.agro_marketplace.loadtest;
+
+import com.agromarket.agro_marketplace.cache.CategoryCache;
+import com.agromarket.agro_marketplace.search.ProductSearchIndex;
+import com.agromarket.agro_marketplace.security.JwtService;
+import com.agromarket.agro_marketplace.threads.RequestThreadMonitor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// End-to-end load test: the full application on a random port against its own in-memory H2 database, seeded with a
+// realistic marketplace, driven over HTTP by concurrent clients running a mixed workload (browse and search,
+// checkout with payment, seller and admin dashboards, messaging). Prints per-endpoint throughput, percentiles and a
+// latency histogram, and writes them to target/load-test-report.json.
+// Run with: mvn test -Pbenchmark -Dtest=LoadTestHarnessTest
+// Sizes and duration: -Dload.products=100000 -Dload.orders=20000 -Dload.clients=32 -Dload.seconds=30 -Dload.warmup=5
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+@DirtiesContext
+class LoadTestHarnessTest {
+
+    private static final int PRODUCTS = Integer.getInteger("load.products", 100_000);
+    private static final int ORDERS = Integer.getInteger("load.orders", 20_000);
+    private static final int BUYERS = Integer.getInteger("load.buyers", 2_000);
+    private static final int FARMERS = Integer.getInteger("load.farmers", 200);
+    private static final int MESSAGES = Integer.getInteger("load.messages", 20_000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 5);
+
+    // relative weight of each scenario in the mix
+    private static final Map<String, Integer> MIX = new LinkedHashMap<>();
+    static {
+        MIX.put("browse", 45);
+        MIX.put("search", 15);
+        MIX.put("checkout", 10);
+        MIX.put("dashboard", 10);
+        MIX.put("messaging", 20);
+    }
+
+    @LocalServerPort private int port;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private JwtService jwtService;
+    @Autowired private RequestThreadMonitor threads;
+    @Autowired private DataSource dataSource;
+    @Autowired private ProductSearchIndex searchIndex;
+    @Autowired private CategoryCache categoryCache;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private LoadTestData data;
+    private HttpClient http;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        long seedStart = System.currentTimeMillis();
+        data = new LoadTestData(jdbc);
+        data.seed(BUYERS, FARMERS, 20, PRODUCTS, ORDERS, MESSAGES);
+        // the derived tables, built by the same data migrations that filled them on upgrade
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V7__backfill_sales_rollups.sql"),
+                new ClassPathResource("db/migration/V11__backfill_conversations.sql"),
+                new ClassPathResource("db/migration/V13__backfill_product_ratings.sql"),
+                new ClassPathResource("db/migration/V15__backfill_delivered_purchases.sql")).execute(dataSource);
+        searchIndex.rebuild();
+        categoryCache.changed();
+        System.out.printf("%nSeeded %d products, %d orders, %d messages in %d ms%n", PRODUCTS, ORDERS, MESSAGES,
+                System.currentTimeMillis() - seedStart);
+
+        Map<String, String> tokens = new ConcurrentHashMap<>();
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newFixedThreadPool(8)).build();
+        long measureFrom = System.currentTimeMillis() + WARMUP_SECONDS * 1000L;
+        long end = measureFrom + SECONDS * 1000L;
+
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<LatencyReport>> clients = new ArrayList<>();
+        try {
+            for (int c = 0; c < CLIENTS; c++) {
+                Random rnd = new Random(c);
+                clients.add(pool.submit(() -> {
+                    LatencyReport report = new LatencyReport();
+                    Client client = new Client(rnd, tokens, report, measureFrom);
+                    while (System.currentTimeMillis() < end) client.run(scenario(rnd));
+                    return report;
+                }));
+            }
+            LatencyReport total = new LatencyReport();
+            for (Future<LatencyReport> f : clients) total.merge(f.get());
+
+            List<LatencyReport.EndpointSummary> summaries = total.summarize(SECONDS * 1000L);
+            assertTrue(!summaries.isEmpty(), "no requests completed");
+            System.out.printf("%n%d clients for %d s on %s threads%n", CLIENTS, SECONDS, threads.isVirtual() ? "virtual" : "platform");
+            total.print(summaries);
+
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("threads", threads.isVirtual() ? "virtual" : "platform");
+            run.put("clients", CLIENTS);
+            run.put("seconds", SECONDS);
+            run.put("products", PRODUCTS);
+            run.put("orders", ORDERS);
+            run.put("mix", MIX);
+            Files.createDirectories(Path.of("target"));
+            LatencyReport.write(Path.of("target", "load-test-report.json"), run, summaries);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String scenario(Random rnd) {
+        int roll = rnd.nextInt(MIX.values().stream().mapToInt(Integer::intValue).sum());
+        for (Map.Entry<String, Integer> e : MIX.entrySet()) {
+            roll -= e.getValue();
+            if (roll < 0) return e.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    // One simulated user session per call; requests before the warmup deadline are not recorded
+    private final class Client {
+        private final Random rnd;
+        private final Map<String, String> tokens;
+        private final LatencyReport report;
+        private final long measureFrom;
+
+        Client(Random rnd, Map<String, String> tokens, LatencyReport report, long measureFrom) {
+            this.rnd = rnd;
+            this.tokens = tokens;
+            this.report = report;
+            this.measureFrom = measureFrom;
+        }
+
+        void run(String scenario) {
+            switch (scenario) {
+                case "browse" -> browse();
+                case "search" -> search();
+                case "checkout" -> checkout();
+                case "dashboard" -> dashboard();
+                case "messaging" -> messaging();
+                default -> throw new IllegalArgumentException(scenario);
+            }
+        }
+
+        private void browse() {
+            call("GET /api/categories", "GET", "/api/categories", null, null);
+            long category = data.categoryIds.get(rnd.nextInt(data.categoryIds.size()));
+            JsonNode page = call("GET /api/products?categoryId", "GET", "/api/products?limit=20&categoryId=" + category, null, null);
+            JsonNode items = page == null ? null : page.get("items");
+            long product = items != null && items.size() > 0 ? items.get(rnd.nextInt(items.size())).get("id").asLong() : randomProduct();
+            call("GET /api/products/{id}", "GET", "/api/products/" + product, null, null);
+            call("GET /api/reviews/product/{id}", "GET", "/api/reviews/product/" + product + "?limit=20", null, null);
+        }
+
+        private void search() {
+            String q = LoadTestData.CROPS[rnd.nextInt(LoadTestData.CROPS.length)];
+            if (rnd.nextBoolean()) q = "organic " + q;
+            call("GET /api/products?q", "GET", "/api/products?limit=20&q=" + URLEncoder.encode(q, StandardCharsets.UTF_8), null, null);
+        }
+
+        private void checkout() {
+            String buyer = buyer();
+            StringBuilder items = new StringBuilder();
+            for (int i = 1 + rnd.nextInt(3); i > 0; i--) {
+                if (items.length() > 0) items.append(',');
+                items.append("{\"productId\":").append(randomProduct()).append(",\"quantity\":").append(1 + rnd.nextInt(3)).append('}');
+            }
+            JsonNode order = call("POST /api/orders", "POST", "/api/orders", "{\"items\":[" + items + "]}", buyer);
+            if (order == null) return;
+            call("POST /api/payments", "POST", "/api/payments",
+                    "{\"orderId\":" + order.get("id").asLong() + ",\"method\":\"JazzCash\",\"reference\":\"LT-" + rnd.nextInt() + "\"}", buyer);
+            call("GET /api/orders/my", "GET", "/api/orders/my", null, buyer);
+        }
+
+        private void dashboard() {
+            if (rnd.nextInt(4) == 0) {
+                call("GET /api/analytics", "GET", "/api/analytics?days=30", null, data.adminEmail);
+                call("GET /api/orders (admin)", "GET", "/api/orders?limit=50", null, data.adminEmail);
+            } else {
+                String farmer = data.farmerEmails.get(rnd.nextInt(data.farmerEmails.size()));
+                call("GET /api/analytics/seller", "GET", "/api/analytics/seller?days=30", null, farmer);
+            }
+        }
+
+        private void messaging() {
+            String buyer = buyer();
+            long farmer = data.farmerIds.get(rnd.nextInt(data.farmerIds.size()));
+            call("POST /api/messages", "POST", "/api/messages",
+                    "{\"receiverId\":" + farmer + ",\"content\":\"Is this still available? " + rnd.nextInt(1000) + "\"}", buyer);
+            call("GET /api/messages/conversations", "GET", "/api/messages/conversations", null, buyer);
+            call("GET /api/messages/unread", "GET", "/api/messages/unread", null, buyer);
+        }
+
+        private String buyer() {
+            return data.buyerEmails.get(rnd.nextInt(data.buyerEmails.size()));
+        }
+
+        private long randomProduct() {
+            return data.productIds[rnd.nextInt(data.productIds.length)];
+        }
+
+        // Returns the parsed body of a successful JSON response, null otherwise
+        private JsonNode call(String endpoint, String method, String path, String body, String email) {
+            HttpRequest.Builder req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+            if (email != null) req.header("Authorization", "Bearer " + tokens.computeIfAbsent(email, jwtService::generateToken));
+            if (body != null) req.header("Content-Type", "application/json");
+            req.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+
+            long start = System.nanoTime();
+            int status;
+            String response = null;
+            try {
+                HttpResponse<String> res = http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+                status = res.statusCode();
+                response = res.body();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long took = System.nanoTime() - start;
+            boolean ok = status >= 200 && status < 300;
+            if (System.currentTimeMillis() >= measureFrom) report.record(endpoint, took, ok);
+            if (!ok || response == null || response.isEmpty()) return null;
+            try {
+                return json.readTree(response);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.agromarket.agro_marketplace.payments;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.dto.payment.CreatePaymentRequest;
+import com.agromarket.agro_marketplace.dto.payment.PaymentDTO;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.*;
+import com.agromarket.agro_marketplace.service.OrderService;
+import com.agromarket.agro_marketplace.service.PaymentService;
+import com.agromarket.agro_marketplace.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database: the workers of other cached test contexts would otherwise answer this test's payments
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payments;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "app.payments.poll-ms=200",
+        "app.payments.workers=4",
+        "app.payments.max-attempts=10",
+        "app.payments.providers.flaky.timeout-ms=200",
+        "app.payments.providers.flaky.max-in-flight=2",
+        "app.payments.providers.flaky.failure-threshold=2",
+        "app.payments.providers.flaky.open-ms=1000"
+})
+class PaymentPipelineTest {
+
+    @Autowired private PaymentService paymentService;
+    @Autowired private PaymentProcessor processor;
+    @Autowired private SimulatedPaymentGateway simulator;
+    @Autowired private OrderService orderService;
+    @Autowired private ProductService productService;
+    @Autowired private PaymentRepository paymentRepo;
+    @Autowired private PaymentOutboxRepository outboxRepo;
+    @Autowired private OrderRepository orderRepo;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private JdbcTemplate jdbc;
+
+    private Long sellerId;
+    private String buyer;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Payments " + run).build());
+        User seller = userRepo.save(user("pay-seller-" + run + "@agro.com", Roles.FARMER));
+        sellerId = seller.getId();
+        buyer = userRepo.save(user("pay-buyer-" + run + "@agro.com", Roles.BUYER)).getEmail();
+        productId = productService.create(new ProductCreateRequest("Dates " + run, null, BigDecimal.TEN, 1_000,
+                category.getId()), seller.getEmail()).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.reset();
+    }
+
+    @Test
+    void paymentIsAcceptedAsPendingAndSettledInTheBackground() throws Exception {
+        Long orderId = order();
+        PaymentDTO accepted = paymentService.pay(new CreatePaymentRequest(orderId, "COD", null), buyer, false);
+        assertEquals(PaymentStatus.PENDING, accepted.status());
+        assertNull(accepted.paidAt());
+
+        await(() -> status(orderId) == PaymentStatus.SUCCESS, "payment never settled");
+        Payment paid = paymentRepo.findByOrder_Id(orderId).orElseThrow();
+        assertNotNull(paid.getPaidAt());
+        assertTrue(paid.getReference().startsWith("SIM-payment-" + paid.getId() + "-"), paid.getReference());
+        assertEquals(OrderStatus.PAID, orderRepo.findById(orderId).orElseThrow().getStatus());
+        assertFalse(outboxRepo.findAll().stream().anyMatch(o -> o.getPaymentId().equals(paid.getId())));
+
+        RuntimeException again = assertThrows(RuntimeException.class,
+                () -> paymentService.pay(new CreatePaymentRequest(orderId, "COD", null), buyer, false));
+        assertEquals("Payment already exists for this order", again.getMessage());
+    }
+
+    @Test
+    void declinedPaymentFailsAndCanBePaidAgain() throws Exception {
+        simulator.behave("declinecard", (charge, timeout) -> GatewayResult.declined("Insufficient funds"));
+        Long orderId = order();
+
+        paymentService.pay(new CreatePaymentRequest(orderId, "Decline Card", null), buyer, false);
+        await(() -> status(orderId) == PaymentStatus.FAILED, "payment never declined");
+        assertEquals("Insufficient funds", paymentRepo.findByOrder_Id(orderId).orElseThrow().getFailureReason());
+        assertEquals(OrderStatus.CREATED, orderRepo.findById(orderId).orElseThrow().getStatus());
+
+        paymentService.pay(new CreatePaymentRequest(orderId, "COD", null), buyer, false);
+        await(() -> status(orderId) == PaymentStatus.SUCCESS, "retried payment never settled");
+        assertNull(paymentRepo.findByOrder_Id(orderId).orElseThrow().getFailureReason());
+        assertEquals(OrderStatus.PAID, orderRepo.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void payingAgainAfterADeclineIsANewChargeForTheGateway() throws Exception {
+        // like a real provider: the first charge is declined and a repeated key replays the stored answer
+        Map<String, GatewayResult> answered = new ConcurrentHashMap<>();
+        AtomicInteger charges = new AtomicInteger();
+        simulator.behave("oncedeclined", (charge, timeout) -> answered.computeIfAbsent(charge.idempotencyKey(),
+                key -> charges.getAndIncrement() == 0 ? GatewayResult.declined("Insufficient funds")
+                        : GatewayResult.approved("ONCE-" + key)));
+        Long orderId = order();
+
+        paymentService.pay(new CreatePaymentRequest(orderId, "Once Declined", null), buyer, false);
+        await(() -> status(orderId) == PaymentStatus.FAILED, "payment never declined");
+
+        paymentService.pay(new CreatePaymentRequest(orderId, "Once Declined", null), buyer, false);
+        await(() -> status(orderId) != PaymentStatus.PENDING, "second payment never settled");
+        assertEquals(PaymentStatus.SUCCESS, status(orderId));
+        assertEquals(2, answered.size());
+        assertEquals(OrderStatus.PAID, orderRepo.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void orderCancelledWhileTheChargeIsOutStaysCancelledAndIsOwedARefund() throws Exception {
+        CountDownLatch charging = new CountDownLatch(1);
+        CountDownLatch answer = new CountDownLatch(1);
+        simulator.behave("slowcard", (charge, timeout) -> {
+            charging.countDown();
+            answer.await();
+            return GatewayResult.approved("SLOW-" + charge.paymentId());
+        });
+        Long orderId = order();
+
+        paymentService.pay(new CreatePaymentRequest(orderId, "Slow Card", null), buyer, false);
+        assertTrue(charging.await(15, TimeUnit.SECONDS), "charge never started");
+        orderService.updateStatus(orderId, OrderStatus.CANCELLED, null, true);
+        answer.countDown();
+
+        await(() -> status(orderId) != PaymentStatus.PENDING, "payment never settled");
+        Payment owed = paymentRepo.findByOrder_Id(orderId).orElseThrow();
+        assertEquals(PaymentStatus.REFUND_DUE, owed.getStatus());
+        assertNotNull(owed.getFailureReason());
+        assertEquals(OrderStatus.CANCELLED, orderRepo.findById(orderId).orElseThrow().getStatus());
+
+        // nothing booked for the seller: no revenue, no paid order, counted once as cancelled
+        assertEquals(0, count("SELECT COUNT(*) FROM seller_revenue_ledger WHERE order_id = ?", orderId));
+        assertEquals(0, count("SELECT COALESCE(SUM(orders_paid), 0) FROM seller_daily_sales WHERE seller_id = ?", sellerId));
+        assertEquals(0, count("SELECT COALESCE(SUM(orders), 0) FROM seller_order_status_counts WHERE seller_id = ? AND status = 'PAID'", sellerId));
+        assertEquals(1, count("SELECT orders FROM seller_order_status_counts WHERE seller_id = ? AND status = 'CANCELLED'", sellerId));
+
+        // and an order cancelled before anyone paid isn't charged at all
+        Long cancelled = order();
+        orderService.updateStatus(cancelled, OrderStatus.CANCELLED, null, true);
+        RuntimeException refused = assertThrows(RuntimeException.class,
+                () -> paymentService.pay(new CreatePaymentRequest(cancelled, "COD", null), buyer, false));
+        assertEquals("Order is not awaiting payment", refused.getMessage());
+    }
+
+    @Test
+    void hangingProviderTimesOutAndTripsItsBreakerWithoutStarvingOthers() throws Exception {
+        simulator.behave("flaky", (charge, timeout) -> {
+            Thread.sleep(60_000);
+            return GatewayResult.approved("never");
+        });
+
+        List<Long> flaky = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long orderId = order();
+            paymentService.pay(new CreatePaymentRequest(orderId, "Flaky", null), buyer, false);
+            flaky.add(orderId);
+        }
+        List<Long> healthy = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Long orderId = order();
+            paymentService.pay(new CreatePaymentRequest(orderId, "COD", null), buyer, false);
+            healthy.add(orderId);
+        }
+
+        // the hung calls hold at most two of the four workers, so the other provider keeps settling
+        await(() -> healthy.stream().allMatch(id -> status(id) == PaymentStatus.SUCCESS), "healthy provider starved");
+        await(() -> processor.circuitState("flaky") == CircuitBreaker.State.OPEN, "breaker never opened");
+        assertTrue(flaky.stream().allMatch(id -> status(id) == PaymentStatus.PENDING));
+        assertTrue(outboxRepo.findAll().stream().anyMatch(o -> o.getProvider().equals("flaky")
+                && o.getLastError() != null && o.getLastError().contains("Timed out after 200 ms")));
+
+        // the provider recovers: a trial call after open-ms closes the breaker and the backlog drains
+        simulator.behave("flaky", (charge, timeout) -> GatewayResult.approved("FLAKY-" + charge.paymentId()));
+        await(() -> flaky.stream().allMatch(id -> status(id) == PaymentStatus.SUCCESS), "flaky backlog never drained");
+        assertEquals(CircuitBreaker.State.CLOSED, processor.circuitState("flaky"));
+    }
+
+    private Long order() {
+        return orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 1))), buyer).id();
+    }
+
+    private PaymentStatus status(Long orderId) {
+        return paymentRepo.findByOrder_Id(orderId).orElseThrow().getStatus();
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Long.class, args);
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail(message);
+            Thread.sleep(20);
+        }
+    }
+}
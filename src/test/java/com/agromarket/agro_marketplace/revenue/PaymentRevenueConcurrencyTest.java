@@ -0,0 +1,95 @@
+package com.agromarket.agro_marketplace.revenue;
+
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderDTO;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.dto.payment.CreatePaymentRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.PaymentRepository;
+import com.agromarket.agro_marketplace.repository.ProductRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.service.OrderService;
+import com.agromarket.agro_marketplace.service.PaymentService;
+import com.agromarket.agro_marketplace.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Many buyers pay orders from the same farmer at once: the farmer's revenue must come out exact
+@SpringBootTest
+class PaymentRevenueConcurrencyTest {
+
+    private static final int ORDERS = 48;
+    private static final int THREADS = 16;
+
+    @Autowired private OrderService orderService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private UserService userService;
+    @Autowired private SellerRevenueLedger revenueLedger;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private PaymentRepository paymentRepo;
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void parallelPaymentsForOneSellerAddUpExactly() throws Exception {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Revenue " + run).build());
+        User farmer = userRepo.save(User.builder().fullName("Popular Farmer").email("farmer-" + run + "@agro.com")
+                .passwordHash("x").roles(Set.of(Roles.FARMER)).build());
+        String buyer = "buyer-" + run + "@agro.com";
+        Long buyerId = userRepo.save(User.builder().fullName("Buyer").email(buyer).passwordHash("x")
+                .roles(Set.of(Roles.BUYER)).build()).getId();
+        Product mango = productRepo.save(Product.builder().name("Mango").price(new BigDecimal("12.35"))
+                .stockQty(10 * ORDERS).category(category).seller(farmer).build());
+
+        List<OrderDTO> orders = new ArrayList<>(ORDERS);
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 0; i < ORDERS; i++) {
+            OrderDTO order = orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(mango.getId(), 1 + i % 3))), buyer);
+            orders.add(order);
+            expected = expected.add(order.totalAmount());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (OrderDTO order : orders) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return paymentService.pay(new CreatePaymentRequest(order.id(), "COD", null), buyer, false);
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        // pay() only queues the charge; wait for the workers to settle every payment
+        long deadline = System.currentTimeMillis() + 120_000;
+        int pending;
+        while ((pending = jdbc.queryForObject("SELECT COUNT(*) FROM payments p JOIN orders o ON o.id = p.order_id " +
+                "WHERE o.buyer_id = ? AND p.status = 'PENDING'", Integer.class, buyerId)) > 0) {
+            if (System.currentTimeMillis() > deadline) fail(pending + " payments still pending");
+            Thread.sleep(100);
+        }
+        List<Long> orderIds = orders.stream().map(OrderDTO::id).toList();
+        assertTrue(paymentRepo.findByOrder_IdIn(orderIds).stream().allMatch(p -> p.getStatus() == PaymentStatus.SUCCESS));
+
+        // exact before compaction (users.revenue + pending ledger rows) ...
+        assertEquals(0, expected.compareTo(revenueLedger.revenueOf(farmer.getId())));
+        // ... and after everything has been folded into users.revenue
+        revenueLedger.compact();
+        assertEquals(0, expected.compareTo(userRepo.findById(farmer.getId()).orElseThrow().getRevenue()));
+        assertEquals(0, expected.compareTo(userService.me(farmer.getEmail()).revenue()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.agromarket.agro_marketplace.search;
+
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Compares the search index with the LIKE scan it replaced (ProductRepository.findByNameContainingIgnoreCase).
+// Run with: mvn test -Pbenchmark -Dtest=ProductSearchBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest
+@DirtiesContext
+class ProductSearchBenchmarkTest {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 20;
+
+    private static final String[] CROPS = {"tomato", "potato", "onion", "mango", "wheat", "rice", "basmati", "cotton",
+            "sugarcane", "maize", "carrot", "garlic", "ginger", "chilli", "orange", "guava", "apple", "banana", "lentil", "okra"};
+    private static final String[] QUALIFIERS = {"organic", "fresh", "premium", "local", "dried", "export", "grade", "seasonal"};
+    private static final String[] REGIONS = {"punjab", "sindh", "swat", "multan", "sargodha", "hunza", "thar", "gilgit"};
+
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private EntityManager em;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private ProductSearchIndex index;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+
+    @Test
+    void indexVersusLikeScan() {
+        long categoryId = categoryRepo.save(Category.builder().name("Bench produce").build()).getId();
+        long sellerId = userRepo.save(User.builder().fullName("Bench Farmer").email("bench@agro.com")
+                .passwordHash("x").roles(Set.of(Roles.FARMER)).build()).getId();
+        seed(categoryId, sellerId);
+        index.rebuild();
+
+        System.out.printf("%n%-22s %12s %12s %12s %12s %8s%n", "query", "like mean", "like p95", "index mean", "index p95", "hits");
+        for (String q : List.of("tomato", "organic mango", "bas", "sindh rice", "premium cotton punjab")) {
+            String pattern = "%" + q.toLowerCase() + "%";
+            long[] like = time(() -> tx.execute(s -> em.createQuery(
+                    "SELECT p FROM Product p WHERE LOWER(p.name) LIKE :q", Product.class)
+                    .setParameter("q", pattern).getResultList()).size());
+            long[] idx = time(() -> index.search(q, null, null).size());
+            int hits = index.search(q, null, null).size();
+            assertFalse(hits == 0, "index returned nothing for " + q);
+
+            System.out.printf("%-22s %10.2fms %10.2fms %10.3fms %10.3fms %8d%n", q,
+                    mean(like) / 1e6, p95(like) / 1e6, mean(idx) / 1e6, p95(idx) / 1e6, hits);
+        }
+    }
+
+    private void seed(long categoryId, long sellerId) {
+        Random rnd = new Random(42);
+        List<Object[]> rows = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            String name = pick(rnd, QUALIFIERS) + " " + pick(rnd, CROPS) + " " + i;
+            String description = pick(rnd, REGIONS) + " " + pick(rnd, CROPS) + " harvested by " + pick(rnd, REGIONS) + " growers";
+            rows.add(new Object[]{name, description, BigDecimal.valueOf(10 + rnd.nextInt(500)), rnd.nextInt(1000), categoryId, sellerId});
+        }
+        jdbc.batchUpdate("INSERT INTO products (name, description, price, stock_qty, category_id, seller_id) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static String pick(Random rnd, String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+
+    private static long[] time(Supplier<Integer> query) {
+        for (int i = 0; i < WARMUP; i++) query.get();
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double mean(long[] nanos) {
+        return Arrays.stream(nanos).average().orElse(0);
+    }
+
+    private static double p95(long[] sortedNanos) {
+        return sortedNanos[(int) Math.ceil(sortedNanos.length * 0.95) - 1];
+    }
+}
@@ -0,0 +1,93 @@
+package com.agromarket.agro_marketplace.security;
+
+import com.agromarket.agro_marketplace.entity.Roles;
+import com.agromarket.agro_marketplace.entity.User;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtPrincipalCacheTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private JwtService jwtService;
+    @Autowired private JwtPrincipalCache principalCache;
+    @Autowired private UserService userService;
+    @Autowired private UserRepository userRepo;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String run = runId();
+        user = userRepo.save(user("principal-" + run + "@agro.com", Roles.BUYER));
+        token = jwtService.generateToken(user.getEmail());
+    }
+
+    @Test
+    void repeatRequestsAreServedFromTheCache() throws Exception {
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + token)).andExpect(status().is4xxClientError());
+        assertNotNull(principalCache.get(token));
+        assertEquals(misses + 1, gets("miss"));
+
+        // a role granted behind the service's back isn't seen: the principal comes from the cache, not the users table
+        jdbc.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'ADMIN')", user.getId());
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + token)).andExpect(status().is4xxClientError());
+        assertEquals(hits + 2, gets("hit"), "the second request and the lookup above are hits");
+    }
+
+    @Test
+    void roleChangeDropsCachedPrincipalsOnCommit() throws Exception {
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + token)).andExpect(status().is4xxClientError());
+
+        // still cached while the change is uncommitted, and after it rolls back
+        tx.executeWithoutResult(s -> {
+            userService.updateRoles(user.getId(), Set.of(Roles.ADMIN));
+            assertNotNull(principalCache.get(token));
+            s.setRollbackOnly();
+        });
+        assertNotNull(principalCache.get(token));
+
+        userService.updateRoles(user.getId(), Set.of(Roles.ADMIN));
+        assertNull(principalCache.get(token));
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+    }
+
+    @Test
+    void deletedUserLosesCachedPrincipal() throws Exception {
+        mvc.perform(get("/api/users/me").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        assertNotNull(principalCache.get(token));
+
+        userService.delete(user.getId());
+        assertNull(principalCache.get(token));
+        mvc.perform(get("/api/users/me").header("Authorization", "Bearer " + token)).andExpect(status().is4xxClientError());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.principal").tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,79 @@
+package com.agromarket.agro_marketplace.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final String SECRET = "TEST_ONLY_SECRET_KEY_THAT_IS_LONG_ENOUGH_FOR_HS256_1234567890";
+    private static final long USER = 42L;
+
+    private final JwtService jwt = new JwtService(SECRET, 3_600_000, true, 900_000, 604_800_000);
+
+    @Test
+    void tokensIssuedBeforeTheRevocationAreRejected() {
+        TokenRevocationList revocations = new TokenRevocationList(604_800_000);
+        Claims access = issue();
+        Claims refresh = jwt.parse(jwt.generateRefreshToken("user@agro.com", USER));
+        assertFalse(revocations.isRevoked(USER, jwt.issuedAtMs(access)));
+
+        revocations.revoke(USER);
+        assertTrue(revocations.isRevoked(USER, jwt.issuedAtMs(access)));
+        assertTrue(revocations.isRevoked(USER, jwt.issuedAtMs(refresh)));
+        assertFalse(revocations.isRevoked(USER + 1, jwt.issuedAtMs(access)), "other users are unaffected");
+    }
+
+    @Test
+    void tokenReissuedInTheSameSecondAsTheRevocationIsAccepted() throws InterruptedException {
+        TokenRevocationList revocations = new TokenRevocationList(604_800_000);
+        // start early in a second so the revocation and the new token share it
+        while (System.currentTimeMillis() % 1000 > 500) Thread.sleep(10);
+
+        revocations.revoke(USER);
+        Thread.sleep(2);
+        Claims reissued = issue();
+
+        assertEquals(reissued.getIssuedAt().getTime() / 1000, System.currentTimeMillis() / 1000, "test ran across a second");
+        assertFalse(revocations.isRevoked(USER, jwt.issuedAtMs(reissued)));
+    }
+
+    @Test
+    void tokensWithoutMillisecondsFallBackToTheirIatSecond() throws InterruptedException {
+        TokenRevocationList revocations = new TokenRevocationList(604_800_000);
+        while (System.currentTimeMillis() % 1000 > 500) Thread.sleep(10);
+        revocations.revoke(USER);
+        Thread.sleep(2);
+
+        // issued after the revocation, but iat alone can't show it, so it is treated as issued before
+        Claims legacy = jwt.parse(Jwts.builder().subject("user@agro.com").claim(JwtService.CLAIM_USER_ID, USER)
+                .claim(JwtService.CLAIM_TOKEN_TYPE, "access").issuedAt(new Date())
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact());
+        assertTrue(revocations.isRevoked(USER, jwt.issuedAtMs(legacy)));
+        assertTrue(revocations.isRevoked(USER, null));
+    }
+
+    @Test
+    void entriesArePrunedOnceEveryAffectedTokenHasExpired() throws InterruptedException {
+        TokenRevocationList revocations = new TokenRevocationList(50);
+        Claims old = issue();
+        revocations.revoke(USER);
+
+        revocations.purgeExpired();
+        assertTrue(revocations.isRevoked(USER, jwt.issuedAtMs(old)), "kept while tokens from before may still be valid");
+
+        Thread.sleep(60);
+        revocations.purgeExpired();
+        assertFalse(revocations.isRevoked(USER, jwt.issuedAtMs(old)), "dropped after the longest token lifetime");
+    }
+
+    private Claims issue() {
+        return jwt.parse(jwt.generateAccessToken("user@agro.com", USER, List.of("BUYER")));
+    }
+}
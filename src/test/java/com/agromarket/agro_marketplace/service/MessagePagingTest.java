@@ -0,0 +1,113 @@
+package com.agromarket.agro_marketplace.service;
+
+import com.agromarket.agro_marketplace.dto.message.*;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.ConversationRepository;
+import com.agromarket.agro_marketplace.repository.MessageRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MessagePagingTest {
+
+    @Autowired private MessageService messageService;
+    @Autowired private MessageRepository messageRepo;
+    @Autowired private ConversationRepository conversationRepo;
+    @Autowired private DataSource dataSource;
+    @Autowired private UserRepository userRepo;
+
+    private User buyer;
+    private User farmer;
+    private User otherFarmer;
+
+    @BeforeEach
+    void setUp() {
+        String run = runId();
+        buyer = userRepo.save(user("msg-buyer-" + run + "@agro.com", Roles.BUYER));
+        farmer = userRepo.save(user("msg-farmer-" + run + "@agro.com", Roles.FARMER));
+        otherFarmer = userRepo.save(user("msg-farmer2-" + run + "@agro.com", Roles.FARMER));
+    }
+
+    @Test
+    void inboxPagesCoverEveryMessageOnceNewestFirst() {
+        for (int i = 0; i < 7; i++) send(farmer, buyer, "offer " + i);
+        for (int i = 0; i < 5; i++) send(otherFarmer, buyer, "quote " + i);
+
+        List<MessageDTO> all = new ArrayList<>();
+        String after = null;
+        do {
+            MessagePage page = messageService.inbox(buyer.getEmail(), after, 5);
+            assertTrue(page.items().size() <= 5);
+            all.addAll(page.items());
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(12, all.size());
+        assertEquals(12, all.stream().map(MessageDTO::id).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            MessageDTO prev = all.get(i - 1), cur = all.get(i);
+            assertTrue(prev.sentAt().isAfter(cur.sentAt()) || (prev.sentAt().equals(cur.sentAt()) && prev.id() > cur.id()));
+        }
+    }
+
+    @Test
+    void conversationHoldsBothDirectionsAndCountsUnread() {
+        send(farmer, buyer, "tomatoes at 80/kg");
+        send(farmer, buyer, "minimum 20kg");
+        send(otherFarmer, buyer, "onions?");
+
+        assertEquals(3, messageService.unreadCount(buyer.getEmail()));
+        String id = Conversation.idFor(buyer.getId(), farmer.getId());
+        ConversationDTO withFarmer = messageService.conversations(buyer.getEmail()).stream()
+                .filter(c -> c.id().equals(id)).findFirst().orElseThrow();
+        assertEquals(farmer.getId(), withFarmer.otherUserId());
+        assertEquals(2, withFarmer.unread());
+
+        // replying means the buyer has read the thread; the farmer now has one unread
+        send(buyer, farmer, "deal at 75");
+        assertEquals(1, messageService.unreadCount(buyer.getEmail()));
+        assertEquals(1, messageService.unreadCount(farmer.getEmail()));
+
+        MessagePage thread = messageService.conversation(id, farmer.getEmail(), null, 50);
+        assertEquals(List.of("deal at 75", "minimum 20kg", "tomatoes at 80/kg"),
+                thread.items().stream().map(MessageDTO::content).toList());
+
+        messageService.markRead(id, farmer.getEmail());
+        assertEquals(0, messageService.unreadCount(farmer.getEmail()));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> messageService.conversation(id, otherFarmer.getEmail(), null, 50));
+        assertEquals("Conversation not found", e.getMessage());
+    }
+
+    @Test
+    void legacyMessagesAreGroupedIntoConversations() {
+        messageRepo.save(Message.builder().sender(farmer).receiver(buyer).content("before conversations")
+                .sentAt(Instant.now()).build());
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V11__backfill_conversations.sql")).execute(dataSource);
+
+        String id = Conversation.idFor(buyer.getId(), farmer.getId());
+        assertTrue(conversationRepo.existsById(id));
+        assertEquals(1, messageService.conversation(id, buyer.getEmail(), null, 50).items().size());
+        assertEquals(0, messageService.unreadCount(buyer.getEmail()));
+    }
+
+    private void send(User from, User to, String content) {
+        messageService.send(new SendMessageRequest(to.getId(), content), from.getEmail());
+    }
+}
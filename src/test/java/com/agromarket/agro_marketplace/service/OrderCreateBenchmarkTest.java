@@ -0,0 +1,106 @@
+package com.agromarket.agro_marketplace.service;
+
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Checkout of large carts with the order lines inserted in JDBC batches versus one insert per line, which is what
+// IDENTITY ids forced before the pooled sequences (run it on the commit before them for the IDENTITY numbers).
+// Run with: mvn test -Pbenchmark -Dtest=OrderCreateBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+@DirtiesContext
+class OrderCreateBenchmarkTest {
+
+    private static final int[] CART_SIZES = {10, 100, 500};
+    private static final int WARMUP = 3;
+    private static final int RUNS = 15;
+
+    @Autowired private OrderService orderService;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private EntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+
+    @Test
+    void batchedVersusOneInsertPerLine() {
+        long categoryId = categoryRepo.save(Category.builder().name("Bench checkout").build()).getId();
+        long sellerId = userRepo.save(User.builder().fullName("Bench Farmer").email("bench-checkout-farmer@agro.com")
+                .passwordHash("x").roles(Set.of(Roles.FARMER)).build()).getId();
+        String buyer = userRepo.save(User.builder().fullName("Bench Buyer").email("bench-checkout-buyer@agro.com")
+                .passwordHash("x").roles(Set.of(Roles.BUYER)).build()).getEmail();
+        List<Long> productIds = seed(categoryId, sellerId, Arrays.stream(CART_SIZES).max().orElseThrow());
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+
+        System.out.printf("%n%-6s %-10s %12s %12s %12s%n", "lines", "inserts", "mean", "p95", "statements");
+        for (int lines : CART_SIZES) {
+            CreateOrderRequest cart = new CreateOrderRequest(productIds.subList(0, lines).stream()
+                    .map(id -> new OrderItemRequest(id, 1)).toList());
+            for (boolean batched : new boolean[]{false, true}) {
+                Integer batchSize = batched ? null : 1; // null keeps hibernate.jdbc.batch_size
+                for (int i = 0; i < WARMUP; i++) create(cart, buyer, batchSize);
+
+                long[] nanos = new long[RUNS];
+                stats.clear();
+                for (int i = 0; i < RUNS; i++) {
+                    long start = System.nanoTime();
+                    assertEquals(lines, create(cart, buyer, batchSize));
+                    nanos[i] = System.nanoTime() - start;
+                }
+                long statements = stats.getPrepareStatementCount() / RUNS;
+                Arrays.sort(nanos);
+
+                System.out.printf("%-6d %-10s %10.2fms %10.2fms %12d%n", lines, batched ? "batched" : "per line",
+                        mean(nanos) / 1e6, p95(nanos) / 1e6, statements);
+            }
+        }
+    }
+
+    private int create(CreateOrderRequest cart, String buyer, Integer batchSize) {
+        return tx.execute(s -> {
+            em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            return orderService.create(cart, buyer).items().size();
+        });
+    }
+
+    private List<Long> seed(long categoryId, long sellerId, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Bench crop " + i, BigDecimal.valueOf(10 + i % 90), 1_000_000, categoryId, sellerId});
+        }
+        jdbc.batchUpdate("INSERT INTO products (name, price, stock_qty, category_id, seller_id) VALUES (?, ?, ?, ?, ?)", rows);
+        return jdbc.queryForList("SELECT id FROM products WHERE seller_id = ? ORDER BY id", Long.class, sellerId);
+    }
+
+    private static double mean(long[] nanos) {
+        return Arrays.stream(nanos).average().orElse(0);
+    }
+
+    private static double p95(long[] sortedNanos) {
+        return sortedNanos[(int) Math.ceil(sortedNanos.length * 0.95) - 1];
+    }
+}
@@ -0,0 +1,171 @@
+package com.agromarket.agro_marketplace.service;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.entity.Category;
+import com.agromarket.agro_marketplace.entity.Roles;
+import com.agromarket.agro_marketplace.entity.User;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.agromarket.agro_marketplace.security.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The admin feed and the export apply the same filters (status, inclusive UTC date range, buyer, seller) and return
+// matching orders newest first; the export streams every match, across its read chunks, as one JSON array.
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderFeedTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JwtService jwtService;
+    @Autowired private OrderService orderService;
+    @Autowired private ProductService productService;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private JdbcTemplate jdbc;
+
+    private String run;
+    private String admin;
+    private Long buyerId;
+    private Long sellerA;
+    private Long sellerB;
+    private Long onlyA;
+    private Long onlyB;
+    private Long both;
+    private Long laterA;
+
+    @BeforeEach
+    void setUp() {
+        run = runId();
+        admin = jwtService.generateToken(userRepo.save(user("feed-admin-" + run + "@agro.com", Roles.ADMIN)).getEmail());
+        Category category = categoryRepo.save(Category.builder().name("Feed " + run).build());
+        User a = userRepo.save(user("feed-seller-a-" + run + "@agro.com", Roles.FARMER));
+        User b = userRepo.save(user("feed-seller-b-" + run + "@agro.com", Roles.FARMER));
+        User buyer = userRepo.save(user("feed-buyer-" + run + "@agro.com", Roles.BUYER));
+        sellerA = a.getId();
+        sellerB = b.getId();
+        buyerId = buyer.getId();
+        long productA = productService.create(new ProductCreateRequest("Feed okra " + run, null, BigDecimal.ONE, 1_000,
+                category.getId()), a.getEmail()).id();
+        long productB = productService.create(new ProductCreateRequest("Feed gourd " + run, null, BigDecimal.ONE, 1_000,
+                category.getId()), b.getEmail()).id();
+
+        onlyA = order(buyer.getEmail(), "2026-01-10T08:00:00Z", "CREATED", productA);
+        onlyB = order(buyer.getEmail(), "2026-01-15T00:00:00Z", "SHIPPED", productB);
+        both = order(buyer.getEmail(), "2026-01-20T23:59:59Z", "CANCELLED", productA, productB);
+        laterA = order(buyer.getEmail(), "2026-02-01T12:00:00Z", "SHIPPED", productA);
+    }
+
+    @Test
+    void feedFiltersByStatusDatesAndSeller() throws Exception {
+        String mine = "buyerId=" + buyerId;
+        assertEquals(List.of(laterA, both, onlyB, onlyA), ids(feed(mine)));
+        assertEquals(List.of(laterA, onlyB), ids(feed(mine + "&status=SHIPPED")));
+        // both ends are whole UTC days
+        assertEquals(List.of(both, onlyB), ids(feed(mine + "&from=2026-01-15&to=2026-01-20")));
+        assertEquals(List.of(laterA), ids(feed(mine + "&from=2026-01-21")));
+        assertEquals(List.of(onlyA), ids(feed(mine + "&to=2026-01-14")));
+        // an order is the seller's when any line is
+        assertEquals(List.of(laterA, both, onlyA), ids(feed("sellerId=" + sellerA)));
+        assertEquals(List.of(both), ids(feed("sellerId=" + sellerB + "&status=CANCELLED")));
+        assertEquals(List.of(), ids(feed("sellerId=" + sellerB + "&from=2026-02-01")));
+
+        // the seller's orders keep their other sellers' lines
+        JsonNode shared = objectMapper.readTree(feed("sellerId=" + sellerB + "&status=CANCELLED").getContentAsString()).get(0);
+        assertEquals(2, shared.get("items").size());
+    }
+
+    @Test
+    void feedPagesWalkTheFilteredOrdersOnce() throws Exception {
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages < 5; pages++) {
+            MockHttpServletResponse page = feed("sellerId=" + sellerA + "&limit=1" + (cursor == null ? "" : "&after=" + cursor));
+            walked.addAll(ids(page));
+            cursor = page.getHeader("X-Next-Cursor");
+            if (cursor == null) break;
+        }
+        assertNull(cursor);
+        assertEquals(List.of(laterA, both, onlyA), walked);
+    }
+
+    @Test
+    void exportAppliesTheFeedFilters() throws Exception {
+        MockHttpServletResponse res = export("sellerId=" + sellerA + "&to=2026-01-31");
+        assertEquals("attachment; filename=\"orders.json\"", res.getHeader("Content-Disposition"));
+        assertEquals(List.of(both, onlyA), ids(res));
+        assertEquals(List.of(onlyB), ids(export("buyerId=" + buyerId + "&status=SHIPPED&from=2026-01-01&to=2026-01-31")));
+        assertEquals("[]", export("sellerId=" + sellerB + "&status=CREATED").getContentAsString());
+    }
+
+    @Test
+    void exportStreamsEveryMatchAcrossChunks() throws Exception {
+        // more orders than one export chunk, written directly so the test stays quick
+        int orders = 1_100;
+        Long bulkBuyer = userRepo.save(user("feed-bulk-" + run + "@agro.com", Roles.BUYER)).getId();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < orders; i++) rows.add(new Object[]{bulkBuyer, Instant.parse("2026-03-01T00:00:00Z").plusSeconds(i).atOffset(ZoneOffset.UTC)});
+        jdbc.batchUpdate("INSERT INTO orders (buyer_id, status, total_amount, created_at) VALUES (?, 'DELIVERED', 1, ?)", rows);
+
+        List<Long> exported = ids(export("buyerId=" + bulkBuyer));
+        assertEquals(orders, exported.size());
+        assertEquals(orders, Set.copyOf(exported).size());
+        assertEquals(jdbc.queryForList("SELECT id FROM orders WHERE buyer_id = ? ORDER BY id DESC", Long.class, bulkBuyer), exported);
+    }
+
+    @Test
+    void feedAndExportAreForAdminsOnly() throws Exception {
+        String buyer = jwtService.generateToken("feed-buyer-" + run + "@agro.com");
+        mvc.perform(get("/api/orders?buyerId=" + buyerId).header("Authorization", "Bearer " + buyer))
+                .andExpect(status().is4xxClientError());
+        mvc.perform(get("/api/orders/export?buyerId=" + buyerId).header("Authorization", "Bearer " + buyer))
+                .andExpect(status().is4xxClientError());
+    }
+
+    // created through the service, then moved to a fixed time and status
+    private Long order(String buyer, String createdAt, String status, long... productIds) {
+        List<OrderItemRequest> items = Arrays.stream(productIds).mapToObj(id -> new OrderItemRequest(id, 1)).toList();
+        Long id = orderService.create(new CreateOrderRequest(items), buyer).id();
+        jdbc.update("UPDATE orders SET created_at = ?, status = ? WHERE id = ?",
+                Instant.parse(createdAt).atOffset(ZoneOffset.UTC), status, id);
+        return id;
+    }
+
+    private MockHttpServletResponse feed(String query) throws Exception {
+        return mvc.perform(get("/api/orders?" + query).header("Authorization", "Bearer " + admin))
+                .andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse export(String query) throws Exception {
+        return mvc.perform(get("/api/orders/export?" + query).header("Authorization", "Bearer " + admin))
+                .andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private List<Long> ids(MockHttpServletResponse res) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode o : objectMapper.readTree(res.getContentAsString())) ids.add(o.get("id").asLong());
+        return ids;
+    }
+}
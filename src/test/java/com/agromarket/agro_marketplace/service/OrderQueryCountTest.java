@@ -0,0 +1,141 @@
+package com.agromarket.agro_marketplace.service;
+
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderDTO;
+import com.agromarket.agro_marketplace.dto.order.OrderFilter;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Order listings must cost a fixed number of selects no matter how many orders, lines, products or sellers they touch
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.log=false"
+})
+class OrderQueryCountTest {
+
+    private static final int SELLERS = 4;
+    private static final int PRODUCTS_PER_SELLER = 3;
+    private static final int ORDERS = 30;
+    // orders with the details graph, batched payments, and at most one batched roles select
+    private static final long MAX_SELECTS = 3;
+
+    @Autowired private OrderService orderService;
+    @Autowired private OrderRepository orderRepo;
+    @Autowired private PaymentRepository paymentRepo;
+    @Autowired private ProductRepository productRepo;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private EntityManagerFactory emf;
+
+    private String buyerEmail;
+    private String sellerEmail;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Query count " + run).build());
+
+        products = new ArrayList<>();
+        for (int s = 0; s < SELLERS; s++) {
+            User seller = userRepo.save(user("seller" + s + "-" + run + "@agro.com", Roles.FARMER));
+            if (s == 0) sellerEmail = seller.getEmail();
+            for (int p = 0; p < PRODUCTS_PER_SELLER; p++) {
+                products.add(productRepo.save(Product.builder().name("Item " + s + "." + p).price(BigDecimal.ONE)
+                        .stockQty(1_000).category(category).seller(seller).build()));
+            }
+        }
+        buyerEmail = userRepo.save(user("buyer-" + run + "@agro.com", Roles.BUYER)).getEmail();
+
+        for (int o = 0; o < ORDERS; o++) {
+            List<OrderItemRequest> items = new ArrayList<>();
+            for (int line = 0; line < 3; line++) items.add(new OrderItemRequest(products.get((o + line * 5) % products.size()).getId(), 1));
+            OrderDTO order = orderService.create(new CreateOrderRequest(items), buyerEmail);
+            if (o % 2 == 0) {
+                paymentRepo.save(Payment.builder().order(orderRepo.getReferenceById(order.id())).amount(order.totalAmount())
+                        .status(PaymentStatus.SUCCESS).method("COD").paidAt(Instant.now()).build());
+            }
+        }
+    }
+
+    @Test
+    void buyerOrdersUseBoundedQueries() {
+        List<OrderDTO> orders = countSelects("myOrders", () -> orderService.myOrders(buyerEmail));
+        assertEquals(ORDERS, orders.size());
+        assertEquals(ORDERS / 2, orders.stream().filter(o -> o.payment() != null).count());
+        assertTrue(orders.stream().allMatch(o -> o.items().size() == 3));
+    }
+
+    @Test
+    void sellerOrdersUseBoundedQueries() {
+        List<OrderDTO> orders = countSelects("sellerOrders", () -> orderService.sellerOrders(sellerEmail));
+        assertFalse(orders.isEmpty());
+        // a seller sees whole orders, including lines from other sellers
+        assertTrue(orders.stream().allMatch(o -> o.items().size() == 3));
+        assertTrue(orders.stream().allMatch(o -> o.items().stream().anyMatch(i -> i.sellerEmail().equals(sellerEmail))));
+    }
+
+    @Test
+    void adminOrdersUseBoundedQueries() {
+        OrderFilter all = new OrderFilter(null, null, null, null, null);
+        List<OrderDTO> orders = countSelects("adminOrders", () -> orderService.adminOrders(all, null, ORDERS).items());
+        assertEquals(ORDERS, orders.size());
+    }
+
+    @Test
+    void exportUsesBoundedQueries() {
+        Long buyerId = userRepo.findByEmail(buyerEmail).orElseThrow().getId();
+        List<OrderDTO> exported = new ArrayList<>();
+        countSelects("exportOrders", () -> {
+            orderService.exportOrders(new OrderFilter(null, null, null, buyerId, null), exported::add);
+            return exported;
+        });
+        assertEquals(ORDERS, exported.size());
+    }
+
+    @Test
+    void singleOrderUsesBoundedQueries() {
+        Long id = orderService.myOrders(buyerEmail).get(0).id();
+        OrderDTO order = countSelects("getById", () -> orderService.getById(id, buyerEmail, false));
+        assertEquals(3, order.items().size());
+    }
+
+    // ids come from pooled sequences, so the lines of a cart reach the database as one batched insert
+    @Test
+    void checkoutInsertsTheCartInBatches() {
+        List<OrderItemRequest> items = products.stream().map(p -> new OrderItemRequest(p.getId(), 1)).toList();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        OrderDTO order = orderService.create(new CreateOrderRequest(items), buyerEmail);
+        long statements = stats.getPrepareStatementCount();
+        assertEquals(products.size(), order.items().size());
+        assertTrue(statements < products.size(), () -> "create issued " + statements + " statements for " + items.size() + " lines");
+    }
+
+    private <T> T countSelects(String label, Supplier<T> call) {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        T result = call.get();
+        long selects = stats.getPrepareStatementCount();
+        assertTrue(selects <= MAX_SELECTS, () -> label + " issued " + selects + " statements, expected at most " + MAX_SELECTS);
+        return result;
+    }
+}
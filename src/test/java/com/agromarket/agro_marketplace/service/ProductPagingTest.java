@@ -0,0 +1,145 @@
+package com.agromarket.agro_marketplace.service;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.catalog.ProductResponse;
+import com.agromarket.agro_marketplace.entity.Category;
+import com.agromarket.agro_marketplace.entity.Roles;
+import com.agromarket.agro_marketplace.entity.User;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Following X-Next-Cursor from the first page to the last must return every product of the listing exactly once,
+// in (sort key, id) order, including across runs of equal prices and names that straddle a page boundary.
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductPagingTest {
+
+    private static final int PRODUCTS = 13;
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private ProductService productService;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+
+    private String run;
+    private Long categoryId;
+    private List<ProductResponse> products;
+
+    @BeforeEach
+    void setUp() {
+        run = runId();
+        categoryId = categoryRepo.save(Category.builder().name("Paging " + run).build()).getId();
+        User seller = userRepo.save(user("paging-seller-" + run + "@agro.com", Roles.FARMER));
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            // three prices and four names, so each sort has runs of ties wider than a page
+            String name = "paging " + (char) ('a' + i % 4) + " " + run;
+            products.add(productService.create(new ProductCreateRequest(name, null, BigDecimal.valueOf(5 + i % 3), 10,
+                    categoryId), seller.getEmail()));
+        }
+    }
+
+    @Test
+    void cursorsWalkEveryProductOnceInSortOrder() throws Exception {
+        Map<String, Comparator<ProductResponse>> sorts = Map.of(
+                "id", Comparator.comparing(ProductResponse::id),
+                "price", Comparator.comparing(ProductResponse::price).thenComparing(ProductResponse::id),
+                "name", Comparator.comparing(ProductResponse::name).thenComparing(ProductResponse::id));
+        for (var sort : sorts.entrySet()) {
+            for (int limit : new int[]{1, 3, 4, PRODUCTS, PRODUCTS + 1}) {
+                List<Long> expected = products.stream().sorted(sort.getValue()).map(ProductResponse::id).toList();
+                assertEquals(expected, walk("categoryId=" + categoryId + "&sort=" + sort.getKey(), limit),
+                        sort.getKey() + " pages of " + limit);
+            }
+        }
+    }
+
+    @Test
+    void lastFullPageCarriesNoCursor() throws Exception {
+        MockHttpServletResponse first = page("categoryId=" + categoryId + "&limit=" + (PRODUCTS - 1), null);
+        assertEquals(PRODUCTS - 1, ids(first).size());
+        MockHttpServletResponse last = page("categoryId=" + categoryId + "&limit=" + (PRODUCTS - 1), first.getHeader("X-Next-Cursor"));
+        assertEquals(1, ids(last).size());
+        assertNull(last.getHeader("X-Next-Cursor"));
+
+        // a page that ends exactly on the last product has nothing after it
+        MockHttpServletResponse exact = page("categoryId=" + categoryId + "&limit=" + PRODUCTS, null);
+        assertEquals(PRODUCTS, ids(exact).size());
+        assertNull(exact.getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    void searchCursorsWalkEveryHitOnce() throws Exception {
+        List<Long> ids = walk("q=" + run, 4);
+        assertEquals(PRODUCTS, ids.size());
+        assertEquals(Set.copyOf(products.stream().map(ProductResponse::id).toList()), Set.copyOf(ids));
+    }
+
+    @Test
+    void searchIgnoresAListingSort() throws Exception {
+        List<Long> ranked = walk("q=" + run, 4);
+        for (String sort : List.of("id", "price", "name")) {
+            assertEquals(ranked, walk("q=" + run + "&sort=" + sort, 4), "q with sort=" + sort);
+        }
+    }
+
+    @Test
+    void cursorOnlyFitsItsOwnSort() throws Exception {
+        String byPrice = page("categoryId=" + categoryId + "&sort=price&limit=2", null).getHeader("X-Next-Cursor");
+        assertNotNull(byPrice);
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> productService.list(categoryId, null, null, byPrice, 2, "name"));
+        assertEquals("Cursor does not match sort: name", e.getMessage());
+        assertThrows(RuntimeException.class, () -> productService.list(categoryId, null, null, "not a cursor", 2, "price"));
+    }
+
+    @Test
+    void countMatchesTheListing() throws Exception {
+        String body = mvc.perform(get("/api/products/count?categoryId=" + categoryId)).andReturn().getResponse().getContentAsString();
+        assertEquals(PRODUCTS, objectMapper.readTree(body).get("count").asLong());
+        assertEquals(PRODUCTS, walk("categoryId=" + categoryId, 5).size());
+    }
+
+    private List<Long> walk(String query, int limit) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages <= PRODUCTS; pages++) {
+            MockHttpServletResponse res = page(query + "&limit=" + limit, cursor);
+            ids.addAll(ids(res));
+            cursor = res.getHeader("X-Next-Cursor");
+            if (cursor == null) return ids;
+        }
+        return fail("cursor never ran out for " + query);
+    }
+
+    private MockHttpServletResponse page(String query, String after) throws Exception {
+        String url = "/api/products?" + query + (after == null ? "" : "&after=" + after);
+        MockHttpServletResponse res = mvc.perform(get(url)).andReturn().getResponse();
+        assertEquals(200, res.getStatus(), url);
+        return res;
+    }
+
+    private List<Long> ids(MockHttpServletResponse res) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode p : objectMapper.readTree(res.getContentAsString())) ids.add(p.get("id").asLong());
+        return ids;
+    }
+}
@@ -0,0 +1,134 @@
+package com.agromarket.agro_marketplace.service;
+
+import com.agromarket.agro_marketplace.dto.catalog.ProductCreateRequest;
+import com.agromarket.agro_marketplace.dto.catalog.ProductResponse;
+import com.agromarket.agro_marketplace.dto.catalog.RatingSummary;
+import com.agromarket.agro_marketplace.dto.order.CreateOrderRequest;
+import com.agromarket.agro_marketplace.dto.order.OrderItemRequest;
+import com.agromarket.agro_marketplace.dto.review.CreateReviewRequest;
+import com.agromarket.agro_marketplace.dto.review.ReviewDTO;
+import com.agromarket.agro_marketplace.dto.review.ReviewPage;
+import com.agromarket.agro_marketplace.entity.*;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.DeliveredPurchaseRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.agromarket.agro_marketplace.TestData.runId;
+import static com.agromarket.agro_marketplace.TestData.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductRatingTest {
+
+    private static final int[] RATINGS = {5, 4, 5, 3, 1, 5, 4, 2, 5, 4, 3, 5};
+
+    @Autowired private ProductService productService;
+    @Autowired private OrderService orderService;
+    @Autowired private ReviewService reviewService;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private DeliveredPurchaseRepository purchaseRepo;
+
+    @Test
+    void concurrentReviewsKeepExactTotalsAndPageNewestFirst() throws Exception {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Ratings " + run).build());
+        User seller = userRepo.save(user("rate-seller-" + run + "@agro.com", Roles.FARMER));
+        Long productId = productService.create(new ProductCreateRequest("Basmati " + run, null, BigDecimal.TEN, 500,
+                category.getId()), seller.getEmail()).id();
+        assertEquals(RatingSummary.NONE, productService.get(productId).rating());
+
+        // reviews need a delivered order
+        List<String> buyers = new ArrayList<>();
+        for (int i = 0; i < RATINGS.length; i++) {
+            User buyer = userRepo.save(user("rate-buyer-" + i + "-" + run + "@agro.com", Roles.BUYER));
+            Long orderId = orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 1))),
+                    buyer.getEmail()).id();
+            orderService.updateStatus(orderId, OrderStatus.DELIVERED, null, true);
+            awaitEligible(buyer.getId(), productId);
+            buyers.add(buyer.getEmail());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int i = 0; i < RATINGS.length; i++) {
+                int rating = RATINGS[i];
+                String email = buyers.get(i);
+                done.add(pool.submit(() -> reviewService.create(new CreateReviewRequest(productId, rating, "r" + rating), email)));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        int sum = 0;
+        long[] stars = new long[5];
+        for (int r : RATINGS) {
+            sum += r;
+            stars[r - 1]++;
+        }
+        RatingSummary expected = new RatingSummary(RATINGS.length, Math.round(sum * 100.0 / RATINGS.length) / 100.0,
+                List.of(stars[0], stars[1], stars[2], stars[3], stars[4]));
+        assertEquals(expected, productService.get(productId).rating());
+
+        ProductResponse listed = productService.list(category.getId(), null, null, null, 10, null).items().get(0);
+        assertEquals(expected, listed.rating());
+
+        List<ReviewDTO> all = new ArrayList<>();
+        String after = null;
+        do {
+            ReviewPage page = reviewService.getByProduct(productId, after, 5);
+            all.addAll(page.items());
+            after = page.nextCursor();
+        } while (after != null);
+        assertEquals(RATINGS.length, all.size());
+        for (int i = 1; i < all.size(); i++) assertTrue(all.get(i - 1).id() > all.get(i).id());
+        assertTrue(all.get(0).reviewerEmail().startsWith("rate-buyer-"));
+    }
+
+    @Test
+    void onlyADeliveredPurchaseCanBeReviewedAndOnlyOnce() throws Exception {
+        String run = runId();
+        Category category = categoryRepo.save(Category.builder().name("Eligibility " + run).build());
+        User seller = userRepo.save(user("elig-seller-" + run + "@agro.com", Roles.FARMER));
+        User buyerUser = userRepo.save(user("elig-buyer-" + run + "@agro.com", Roles.BUYER));
+        String buyer = buyerUser.getEmail();
+        Long productId = productService.create(new ProductCreateRequest("Maize " + run, null, BigDecimal.TEN, 50,
+                category.getId()), seller.getEmail()).id();
+        Long orderId = orderService.create(new CreateOrderRequest(List.of(new OrderItemRequest(productId, 1))), buyer).id();
+
+        RuntimeException early = assertThrows(RuntimeException.class,
+                () -> reviewService.create(new CreateReviewRequest(productId, 4, "too soon"), buyer));
+        assertEquals("You can review only after delivery of this product", early.getMessage());
+
+        orderService.updateStatus(orderId, OrderStatus.DELIVERED, null, true);
+        awaitEligible(buyerUser.getId(), productId);
+        ReviewDTO review = reviewService.create(new CreateReviewRequest(productId, 4, "good"), buyer);
+        assertEquals(buyer, review.reviewerEmail());
+
+        RuntimeException again = assertThrows(RuntimeException.class,
+                () -> reviewService.create(new CreateReviewRequest(productId, 5, "again"), buyer));
+        assertEquals("You have already reviewed this product", again.getMessage());
+        assertEquals(1, productService.get(productId).rating().count());
+    }
+
+    // eligibility is recorded by a subscriber of the delivery event, shortly after the status change commits
+    private void awaitEligible(Long buyerId, Long productId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!purchaseRepo.existsById(new DeliveredPurchase.Key(buyerId, productId))) {
+            if (System.currentTimeMillis() > deadline) fail("delivery never recorded");
+            Thread.sleep(10);
+        }
+    }
+}
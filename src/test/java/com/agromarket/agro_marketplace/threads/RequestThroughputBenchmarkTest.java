@@ -0,0 +1,120 @@
+package com.agromarket.agro_marketplace.threads;
+
+import com.agromarket.agro_marketplace.entity.Category;
+import com.agromarket.agro_marketplace.entity.Roles;
+import com.agromarket.agro_marketplace.entity.User;
+import com.agromarket.agro_marketplace.repository.CategoryRepository;
+import com.agromarket.agro_marketplace.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Throughput and latency of DB-backed catalog reads with many concurrent clients and a small request thread limit.
+// Platform threads: mvn test -Pbenchmark -Dtest=RequestThroughputBenchmarkTest
+// Virtual threads:  mvn test -Pbenchmark,virtual-threads -Dtest=RequestThroughputBenchmarkTest (Java 21+ runtime)
+// H2 answers in microseconds, so requests barely block here; point spring.datasource.* at PostgreSQL to see the
+// difference that waiting on the database makes.
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=32",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+@DirtiesContext
+class RequestThroughputBenchmarkTest {
+
+    private static final int PRODUCTS = 2_000;
+    private static final int CLIENTS = 256;
+    private static final long WARMUP_MS = 3_000;
+    private static final long MEASURE_MS = 10_000;
+
+    @LocalServerPort private int port;
+    @Autowired private RequestThreadMonitor threads;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private CategoryRepository categoryRepo;
+    @Autowired private UserRepository userRepo;
+
+    @Test
+    void catalogReadsUnderConcurrency() throws Exception {
+        long categoryId = categoryRepo.save(Category.builder().name("Throughput produce").build()).getId();
+        long sellerId = userRepo.save(User.builder().fullName("Throughput Farmer").email("throughput@agro.com")
+                .passwordHash("x").roles(Set.of(Roles.FARMER)).build()).getId();
+        List<Object[]> rows = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[]{"Produce " + i, "lot " + i, BigDecimal.valueOf(10 + i % 500), 1_000, categoryId, sellerId});
+        }
+        jdbc.batchUpdate("INSERT INTO products (name, description, price, stock_qty, category_id, seller_id) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        long firstId = jdbc.queryForObject("SELECT MIN(id) FROM products WHERE seller_id = ?", Long.class, sellerId);
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newFixedThreadPool(16)).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long start = System.currentTimeMillis();
+        long measureFrom = start + WARMUP_MS;
+        long end = measureFrom + MEASURE_MS;
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                Random rnd = new Random(c);
+                running.add(clients.submit(() -> {
+                    long[] latencies = new long[1 << 16];
+                    int n = 0;
+                    while (System.currentTimeMillis() < end) {
+                        String path = switch (rnd.nextInt(3)) {
+                            case 0 -> "/api/products/" + (firstId + rnd.nextInt(PRODUCTS));
+                            case 1 -> "/api/products?limit=20&categoryId=" + categoryId + "&q=produce " + rnd.nextInt(100);
+                            default -> "/api/reviews/product/" + (firstId + rnd.nextInt(PRODUCTS));
+                        };
+                        long t0 = System.nanoTime();
+                        int status = get(http, path);
+                        long took = System.nanoTime() - t0;
+                        if (System.currentTimeMillis() < measureFrom) continue;
+                        if (status != 200) errors.incrementAndGet();
+                        if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                        latencies[n++] = took;
+                    }
+                    samples.add(Arrays.copyOf(latencies, n));
+                    return null;
+                }));
+            }
+            for (Future<?> f : running) f.get();
+        } finally {
+            clients.shutdownNow();
+        }
+
+        long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        assertTrue(all.length > 0, "no requests completed");
+        System.out.printf("%n%-9s %8s %10s %10s %10s %10s %8s%n", "threads", "clients", "req/s", "p50", "p99", "max", "errors");
+        System.out.printf("%-9s %8d %10.0f %8.2fms %8.2fms %8.2fms %8d%n", threads.isVirtual() ? "virtual" : "platform",
+                CLIENTS, all.length * 1000.0 / MEASURE_MS, pct(all, 0.50) / 1e6, pct(all, 0.99) / 1e6,
+                all[all.length - 1] / 1e6, errors.get());
+    }
+
+    private int get(HttpClient http, String path) {
+        try {
+            URI uri = URI.create("http://localhost:" + port + path.replace(" ", "%20"));
+            return http.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static long pct(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}